@@ -0,0 +1,483 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+// Replays a historical price file through long calls, puts and straddles, rolled at every expiration,
+// for a whole sweep of parameter sets in one pass over the file. Price files are CSV with one bar per
+// line, in time order:
+//
+//   date[ time],price                    e.g.  2024-03-15 09:31,512.40   or  2024-03-15,512.40
+//   date[ time],open,high,low,close[,...]  (the close is used)
+//
+// (the date is YYYY-MM-DD, optionally followed by a time, which is ignored; a header line and blank
+// lines are skipped.) The file is streamed through memory-mapped windows (see MappedCsvChunk), so its
+// size does not matter: bars are reduced to daily closes as they are parsed, and memory holds only one
+// window, a block of days and about 4 KB of state per parameter set.
+//
+// At each daily close every set settles its position at the expiry payoff once the expiration date
+// has come, opens the next one (strike and premium relative to the close, expiry a fixed number of
+// days out) and marks its equity: realized P&L plus the theoretical P&L of the open position. Blocks
+// of days are simulated over all sets in parallel while the next block is parsed. Equity and drawdown
+// are recorded at a fixed number of evenly spaced days (halving the resolution as the history grows),
+// while the final equity and maximum drawdown are exact. Amounts are per unit of each option, as on the
+// payoff charts.
+public final class Backtest {
+
+    private static final int BLOCK_DAYS = 256;
+    private static final int CURVE_POINTS = 512;
+    private static final int MAX_SETS = 100_000;
+
+    public enum Kind {
+        LONG_CALL("Long Call", "call"),
+        LONG_PUT("Long Put", "put"),
+        LONG_STRADDLE("Long Straddle", "straddle");
+
+        private final String label;
+        private final String code;
+
+        Kind(String label, String code) {
+            this.label = label;
+            this.code = code;
+        }
+
+        // "call", "put" or "straddle", or the label, in any case.
+        public static Kind parse(String name) {
+            for (Kind kind : values()) {
+                if (kind.code.equalsIgnoreCase(name.trim()) || kind.label.equalsIgnoreCase(name.trim())) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown strategy: " + name + " (use call, put or straddle)");
+        }
+
+        // The position opened at a roll. A NaN premium prices each option with Black-Scholes; otherwise
+        // every option costs that fraction of the spot.
+        OptionStrategy open(double spot, double strike, double premium, double years, double volatility, double rate,
+                            String expiration) {
+            double callPrice = Double.isNaN(premium)
+                    ? BlackScholes.price(OptionLeg.Type.CALL, spot, strike, years, volatility, rate) : spot * premium;
+            double putPrice = Double.isNaN(premium)
+                    ? BlackScholes.price(OptionLeg.Type.PUT, spot, strike, years, volatility, rate) : spot * premium;
+            switch (this) {
+                case LONG_CALL:
+                    return OptionStrategy.longCall(strike, callPrice, expiration);
+                case LONG_PUT:
+                    return OptionStrategy.longPut(strike, putPrice, expiration);
+                default:
+                    return OptionStrategy.longStraddle(strike, callPrice, putPrice, expiration);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final Kind[] kinds;
+    private final double[] strikeOffsets;
+    private final double[] premiums;
+    private final int[] tenorDays;
+    private final double volatility;
+    private final double rate;
+    private final int sets;
+
+    // Per set
+    private final OptionStrategy[] positions;
+    private final int[] expiryDays;
+    private final int[] rolls;
+    private final double[] realized;
+    private final double[] equity;
+    private final double[] peak;
+    private final double[] maxDrawdown;
+    private final float[] equityCurves; // CURVE_POINTS + 1 per set; the extra point is the last day
+    private final float[] drawdownCurves;
+
+    // Recorded days, shared by all sets
+    private final int[] curveDays = new int[CURVE_POINTS + 1];
+    private int recorded;
+    private int stride = 1;
+
+    // Days parsed but not yet simulated, and the block being simulated
+    private int[] blockDays = new int[BLOCK_DAYS];
+    private double[] blockCloses = new double[BLOCK_DAYS];
+    private int[] spareDays = new int[BLOCK_DAYS];
+    private double[] spareCloses = new double[BLOCK_DAYS];
+    private int blockSize;
+    private CompletableFuture<Void> simulating = CompletableFuture.completedFuture(null);
+
+    private long bars;
+    private int days;
+    private int firstDay = Integer.MIN_VALUE;
+    private int lastDay = Integer.MIN_VALUE;
+    private double lastClose;
+    private long elapsedNanos;
+
+    private Backtest(Kind[] kinds, double[] strikeOffsets, double[] premiums, int[] tenorDays, double volatility, double rate) {
+        this.kinds = kinds;
+        this.strikeOffsets = strikeOffsets;
+        this.premiums = premiums;
+        this.tenorDays = tenorDays;
+        this.volatility = volatility;
+        this.rate = rate;
+        this.sets = kinds.length * strikeOffsets.length * premiums.length * tenorDays.length;
+        positions = new OptionStrategy[sets];
+        expiryDays = new int[sets];
+        rolls = new int[sets];
+        realized = new double[sets];
+        equity = new double[sets];
+        peak = new double[sets];
+        maxDrawdown = new double[sets];
+        equityCurves = new float[sets * (CURVE_POINTS + 1)];
+        drawdownCurves = new float[sets * (CURVE_POINTS + 1)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: Backtest <prices.csv>");
+            System.exit(2);
+        }
+        Backtest result = run(Paths.get(args[0]), Arrays.asList(Kind.values()), percentages("-20:20:1"),
+                percentages("1, 2, 3, 5, 8"), new int[] {30, 60, 90, 180}, 0.2, 0.03);
+        System.out.println(result.summary());
+        int[] ranking = result.ranking();
+        for (int i = 0; i < Math.min(5, ranking.length); i++) {
+            int set = ranking[i];
+            System.out.printf("  %s: final $%.2f, max drawdown $%.2f, %d rolls%n",
+                    result.label(set), result.finalEquity(set), result.maxDrawdown(set), result.rolls(set));
+        }
+    }
+
+    // Backtests every combination of the kinds, strike offsets (fractions of the spot at each roll, 0.05
+    // for 5% above), premiums (fractions of the spot per option; an empty array prices options with
+    // Black-Scholes) and tenors (calendar days from each roll to the next expiration). Options are marked
+    // with Black-Scholes at the given volatility and rate.
+    public static Backtest run(Path file, List<Kind> kinds, double[] strikeOffsets, double[] premiums, int[] tenorDays,
+                               double volatility, double rate) throws IOException {
+        if (kinds.isEmpty() || strikeOffsets.length == 0 || tenorDays.length == 0) {
+            throw new IllegalArgumentException("Need at least one strategy, strike offset and tenor");
+        }
+        for (double offset : strikeOffsets) {
+            if (!(offset > -1) || Double.isInfinite(offset)) {
+                throw new IllegalArgumentException("Strike offsets must be above -100%: " + offset * 100 + "%");
+            }
+        }
+        for (double premium : premiums) {
+            if (!(premium >= 0) || Double.isInfinite(premium)) {
+                throw new IllegalArgumentException("Premiums must be non-negative: " + premium * 100 + "%");
+            }
+        }
+        for (int tenor : tenorDays) {
+            if (tenor < 1) {
+                throw new IllegalArgumentException("Tenors must be at least one day: " + tenor);
+            }
+        }
+        if (!(volatility > 0) || !Double.isFinite(rate)) {
+            throw new IllegalArgumentException("Need a positive volatility and a rate");
+        }
+        long sets = (long) kinds.size() * strikeOffsets.length * Math.max(1, premiums.length) * tenorDays.length;
+        if (sets > MAX_SETS) {
+            throw new IllegalArgumentException(String.format("%,d parameter sets; at most %,d fit in one pass", sets, MAX_SETS));
+        }
+        Backtest backtest = new Backtest(kinds.toArray(new Kind[0]), strikeOffsets.clone(),
+                premiums.length == 0 ? new double[] {Double.NaN} : premiums.clone(), tenorDays.clone(), volatility, rate);
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            BarReader reader = new BarReader(backtest);
+            // The windows of MappedCsvChunk.parse, read one after another instead of in parallel
+            for (long from = 0; from < size; from += MappedCsvChunk.CHUNK_BYTES) {
+                long to = Math.min(size, from + MappedCsvChunk.CHUNK_BYTES);
+                long mapStart = Math.max(0, from - 1);
+                long mapEnd = Math.min(size, to + MappedCsvChunk.MAX_LINE);
+                reader.run(mapStart, MappedCsvChunk.map(channel, mapStart, mapEnd - mapStart), (int) (to - mapStart),
+                        mapEnd == size);
+            }
+        }
+        backtest.finish();
+        backtest.elapsedNanos = System.nanoTime() - start;
+        return backtest;
+    }
+
+    // Comma-separated numbers and from:to:step ranges, e.g. "-10:10:5, 15" for -10, -5, 0, 5, 10 and 15.
+    public static double[] values(String spec) {
+        List<Double> values = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] range = part.split(":");
+            try {
+                if (range.length == 1) {
+                    values.add(Double.parseDouble(range[0].trim()));
+                } else if (range.length == 3) {
+                    double from = Double.parseDouble(range[0].trim());
+                    double to = Double.parseDouble(range[1].trim());
+                    double step = Double.parseDouble(range[2].trim());
+                    if (!(step > 0) || !(to >= from) || (to - from) / step > MAX_SETS) {
+                        throw new IllegalArgumentException("Bad range " + part.trim() + ": need from <= to and a positive step");
+                    }
+                    long count = Math.round(Math.floor((to - from) / step + 1e-9));
+                    for (long i = 0; i <= count; i++) {
+                        values.add(from + i * step);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Bad range " + part.trim() + ": use from:to:step");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number in " + part.trim());
+            }
+        }
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    // values(spec) divided by 100, for inputs given in percent.
+    public static double[] percentages(String spec) {
+        return Arrays.stream(values(spec)).map(value -> value / 100).toArray();
+    }
+
+    public int setCount() {
+        return sets;
+    }
+
+    public Kind kind(int set) {
+        return kinds[set / (strikeOffsets.length * premiums.length * tenorDays.length)];
+    }
+
+    public double strikeOffset(int set) {
+        return strikeOffsets[set / (premiums.length * tenorDays.length) % strikeOffsets.length];
+    }
+
+    // Fraction of the spot paid per option, or NaN when priced with Black-Scholes.
+    public double premium(int set) {
+        return premiums[set / tenorDays.length % premiums.length];
+    }
+
+    public int tenorDays(int set) {
+        return tenorDays[set % tenorDays.length];
+    }
+
+    public String label(int set) {
+        double premium = premium(set);
+        return String.format(Locale.ROOT, "%s, strike %+.1f%%, premium %s, %d days", kind(set), strikeOffset(set) * 100,
+                Double.isNaN(premium) ? "Black-Scholes" : String.format(Locale.ROOT, "%.2f%%", premium * 100), tenorDays(set));
+    }
+
+    public double finalEquity(int set) {
+        return equity[set];
+    }
+
+    public double maxDrawdown(int set) {
+        return maxDrawdown[set];
+    }
+
+    public int rolls(int set) {
+        return rolls[set];
+    }
+
+    // Sets by final equity, best first.
+    public int[] ranking() {
+        return IntStream.range(0, sets).boxed()
+                .sorted((a, b) -> Double.compare(equity[b], equity[a]))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    // Epoch days the curves were recorded at.
+    public int[] curveDays() {
+        return Arrays.copyOf(curveDays, recorded);
+    }
+
+    public double[] equityCurve(int set) {
+        return curve(equityCurves, set);
+    }
+
+    // Distance below the running peak of equity, as a positive amount.
+    public double[] drawdownCurve(int set) {
+        return curve(drawdownCurves, set);
+    }
+
+    public long barCount() {
+        return bars;
+    }
+
+    public int dayCount() {
+        return days;
+    }
+
+    public String summary() {
+        if (days == 0) {
+            return String.format("%,d bars, no complete days", bars);
+        }
+        return String.format("%,d parameter sets over %,d bars (%,d days, %s to %s) in %d ms", sets, bars, days,
+                LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(lastDay), elapsedNanos / 1_000_000);
+    }
+
+    private double[] curve(float[] curves, int set) {
+        double[] curve = new double[recorded];
+        for (int i = 0; i < recorded; i++) {
+            curve[i] = curves[set * (CURVE_POINTS + 1) + i];
+        }
+        return curve;
+    }
+
+    private void bar(int day, double price, long offset) {
+        if (Double.isNaN(price)) {
+            return; // No trade in the bar
+        }
+        if (!(price > 0) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException("Price must be positive at offset " + offset);
+        }
+        if (day < lastDay) {
+            throw new IllegalArgumentException("Bars must be in time order; the date goes back at offset " + offset);
+        }
+        bars++;
+        if (day != lastDay && lastDay != Integer.MIN_VALUE) {
+            closeDay(lastDay, lastClose);
+        }
+        lastDay = day;
+        lastClose = price;
+    }
+
+    private void closeDay(int day, double close) {
+        if (firstDay == Integer.MIN_VALUE) {
+            firstDay = day;
+        }
+        blockDays[blockSize] = day;
+        blockCloses[blockSize] = close;
+        blockSize++;
+        if (blockSize == BLOCK_DAYS) {
+            flush();
+        }
+    }
+
+    // Hands the parsed days to the simulation once the previous block is done, and goes back to parsing.
+    private void flush() {
+        simulating.join();
+        int count = blockSize;
+        int[] dayBlock = blockDays;
+        double[] closeBlock = blockCloses;
+        blockDays = spareDays;
+        blockCloses = spareCloses;
+        spareDays = dayBlock;
+        spareCloses = closeBlock;
+        blockSize = 0;
+        // Slots are planned here, before the simulation starts, so halving never moves a slot in use
+        while (recorded + count / stride + 1 > CURVE_POINTS) {
+            halveCurves();
+        }
+        int[] slots = new int[count];
+        for (int i = 0; i < count; i++) {
+            if ((days + i) % stride == 0) {
+                curveDays[recorded] = dayBlock[i];
+                slots[i] = recorded++;
+            } else {
+                slots[i] = -1;
+            }
+        }
+        days += count;
+        simulating = CompletableFuture.runAsync(() -> IntStream.range(0, sets).parallel()
+                .forEach(set -> simulate(set, dayBlock, closeBlock, count, slots)));
+    }
+
+    private void halveCurves() {
+        int kept = (recorded + 1) / 2;
+        for (int i = 0; i < kept; i++) {
+            curveDays[i] = curveDays[2 * i];
+        }
+        for (int set = 0; set < sets; set++) {
+            int base = set * (CURVE_POINTS + 1);
+            for (int i = 0; i < kept; i++) {
+                equityCurves[base + i] = equityCurves[base + 2 * i];
+                drawdownCurves[base + i] = drawdownCurves[base + 2 * i];
+            }
+        }
+        recorded = kept;
+        stride *= 2;
+    }
+
+    private void simulate(int set, int[] dayBlock, double[] closeBlock, int count, int[] slots) {
+        Kind kind = kind(set);
+        double strikeOffset = strikeOffset(set);
+        double premium = premium(set);
+        int tenor = tenorDays(set);
+        int base = set * (CURVE_POINTS + 1);
+        for (int i = 0; i < count; i++) {
+            int day = dayBlock[i];
+            double close = closeBlock[i];
+            if (positions[set] == null || day >= expiryDays[set]) {
+                if (positions[set] != null) {
+                    realized[set] += positions[set].payoffAt(close);
+                    rolls[set]++;
+                }
+                expiryDays[set] = day + tenor;
+                positions[set] = kind.open(close, close * (1 + strikeOffset), premium, BlackScholes.yearsFromDays(tenor),
+                        volatility, rate, LocalDate.ofEpochDay(expiryDays[set]).toString());
+            }
+            double marked = realized[set] + positions[set].theoreticalPnl(close,
+                    BlackScholes.yearsFromDays(expiryDays[set] - day), volatility, rate);
+            equity[set] = marked;
+            peak[set] = Math.max(peak[set], marked);
+            double drawdown = peak[set] - marked;
+            maxDrawdown[set] = Math.max(maxDrawdown[set], drawdown);
+            if (slots[i] >= 0) {
+                equityCurves[base + slots[i]] = (float) marked;
+                drawdownCurves[base + slots[i]] = (float) drawdown;
+            }
+        }
+    }
+
+    // Closes the last day and records it unless it already was.
+    private void finish() {
+        if (lastDay != Integer.MIN_VALUE) {
+            closeDay(lastDay, lastClose);
+        }
+        flush();
+        simulating.join();
+        if (days > 0 && (days - 1) % stride != 0) {
+            curveDays[recorded] = lastDay;
+            for (int set = 0; set < sets; set++) {
+                equityCurves[set * (CURVE_POINTS + 1) + recorded] = (float) equity[set];
+                drawdownCurves[set * (CURVE_POINTS + 1) + recorded] = (float) (peak[set] - equity[set]);
+            }
+            recorded++;
+        }
+    }
+
+    // Daily closes from the bars of a mapped window; creates no object per line.
+    private static final class BarReader extends MappedCsvChunk {
+
+        private final Backtest backtest;
+        private final int[] fields = new int[7];
+        private boolean firstLine = true;
+
+        BarReader(Backtest backtest) {
+            this.backtest = backtest;
+        }
+
+        @Override
+        void parseLine(int start, int end) {
+            boolean header = firstLine && fileOffset == 0;
+            firstLine = false;
+            int count = split(start, end, fields);
+            if (count < 2 || fields[1] - 1 - start < 10 || bytes.get(start + 4) != '-' || bytes.get(start + 7) != '-') {
+                if (header) {
+                    return;
+                }
+                throw new IllegalArgumentException("Expected date[ time],price or date,open,high,low,close at offset "
+                        + (fileOffset + start));
+            }
+            int priceField = count >= 5 ? 4 : 1;
+            backtest.bar(parseDate(start, start + 10),
+                    parseDouble(fields[priceField], fields[priceField + 1] - 1, Double.NaN), fileOffset + start);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,218 @@
+import java.awt.*;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.Arrays;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+// Results of a Backtest: the best parameter sets in a table, above the equity curve of the selected one
+// and its drawdown below the running peak.
+public class BacktestPanel extends JPanel {
+
+    private static final String[] COLUMNS = {"#", "Strategy", "Strike", "Premium", "Tenor", "Final P&L", "Max Drawdown", "Rolls"};
+
+    private final EquityChart chart = new EquityChart();
+    private final JLabel statusLabel = new JLabel("Pick a price file and press Update Chart to replay it.");
+    private final ResultsModel model = new ResultsModel();
+    private final JTable table = new JTable(model);
+
+    public BacktestPanel() {
+        super(new BorderLayout());
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(0).setMaxWidth(30);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            int row = table.getSelectedRow();
+            if (!e.getValueIsAdjusting() && row >= 0) {
+                chart.show(model.result, model.sets[row]);
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(0, 150));
+        JPanel header = new JPanel(new BorderLayout());
+        header.add(statusLabel, BorderLayout.NORTH);
+        header.add(scrollPane, BorderLayout.CENTER);
+        add(header, BorderLayout.NORTH);
+        add(chart, BorderLayout.CENTER);
+    }
+
+    // Lists the first rows sets of the ranking and charts the best.
+    public void updateResults(Backtest result, int rows) {
+        int[] ranking = result.ranking();
+        model.result = result;
+        model.sets = Arrays.copyOf(ranking, Math.min(rows, ranking.length));
+        model.fireTableDataChanged();
+        statusLabel.setText(result.summary());
+        if (model.sets.length > 0 && result.dayCount() > 0) {
+            table.setRowSelectionInterval(0, 0);
+        } else {
+            chart.show(null, 0);
+        }
+    }
+
+    public void setStatus(String status) {
+        statusLabel.setText(status);
+    }
+
+    private static final class ResultsModel extends AbstractTableModel {
+
+        Backtest result;
+        int[] sets = new int[0];
+
+        @Override
+        public int getRowCount() {
+            return sets.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            int set = sets[row];
+            switch (column) {
+                case 0:
+                    return row + 1;
+                case 1:
+                    return result.kind(set).toString();
+                case 2:
+                    return String.format("%+.1f%%", result.strikeOffset(set) * 100);
+                case 3:
+                    double premium = result.premium(set);
+                    return Double.isNaN(premium) ? "Black-Scholes" : String.format("%.2f%%", premium * 100);
+                case 4:
+                    return result.tenorDays(set) + "d";
+                case 5:
+                    return String.format("$%.2f", result.finalEquity(set));
+                case 6:
+                    return String.format("$%.2f", result.maxDrawdown(set));
+                default:
+                    return result.rolls(set);
+            }
+        }
+    }
+
+    // Equity over the upper two thirds, drawdown hanging from zero in the lower third, on a shared date axis.
+    private static final class EquityChart extends JPanel {
+
+        private static final int PADDING = 60;
+        private static final Color EQUITY = new Color(0, 90, 180);
+        private static final Color DRAWDOWN = new Color(200, 40, 40, 160);
+
+        private final DecimalFormat df = new DecimalFormat("#,##0.##");
+        private String title;
+        private int[] days = new int[0];
+        private double[] equity = new double[0];
+        private double[] drawdown = new double[0];
+
+        EquityChart() {
+            setBackground(Color.WHITE);
+        }
+
+        void show(Backtest result, int set) {
+            if (result == null) {
+                title = null;
+                days = new int[0];
+                equity = new double[0];
+                drawdown = new double[0];
+            } else {
+                title = result.label(set);
+                days = result.curveDays();
+                equity = result.equityCurve(set);
+                drawdown = result.drawdownCurve(set);
+            }
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(Color.BLACK);
+            int width = getWidth() - 2 * PADDING;
+            int height = getHeight() - 2 * PADDING;
+            if (days.length == 0 || width <= 0 || height <= 0) {
+                g2d.drawString("No backtest to show.", PADDING, PADDING);
+                return;
+            }
+            g2d.drawString(title, 10, 20);
+            int equityHeight = height * 2 / 3;
+            int gap = 20;
+            int drawdownTop = PADDING + equityHeight + gap;
+            int drawdownHeight = height - equityHeight - gap;
+
+            double minEquity = 0;
+            double maxEquity = 0;
+            double maxDrawdown = 0;
+            for (int i = 0; i < days.length; i++) {
+                minEquity = Math.min(minEquity, equity[i]);
+                maxEquity = Math.max(maxEquity, equity[i]);
+                maxDrawdown = Math.max(maxDrawdown, drawdown[i]);
+            }
+            if (maxEquity == minEquity) {
+                maxEquity = minEquity + 1;
+            }
+            double firstDay = days[0];
+            double span = Math.max(1, days[days.length - 1] - firstDay);
+
+            int[] xs = new int[days.length];
+            for (int i = 0; i < days.length; i++) {
+                xs[i] = PADDING + (int) ((days[i] - firstDay) / span * width);
+            }
+
+            // Equity, with the zero line
+            g2d.drawRect(PADDING, PADDING, width, equityHeight);
+            int zeroY = PADDING + (int) (maxEquity / (maxEquity - minEquity) * equityHeight);
+            g2d.setColor(Color.GRAY);
+            g2d.drawLine(PADDING, zeroY, PADDING + width, zeroY);
+            g2d.setColor(EQUITY);
+            int[] ys = new int[days.length];
+            for (int i = 0; i < days.length; i++) {
+                ys[i] = PADDING + (int) ((maxEquity - equity[i]) / (maxEquity - minEquity) * equityHeight);
+            }
+            g2d.setStroke(new BasicStroke(1.5f));
+            g2d.drawPolyline(xs, ys, days.length);
+            g2d.setStroke(new BasicStroke(1));
+            g2d.setColor(Color.BLACK);
+            g2d.drawString(money(maxEquity), 5, PADDING + 5);
+            g2d.drawString(money(minEquity), 5, PADDING + equityHeight);
+            g2d.drawString("Equity", PADDING, PADDING - 8);
+
+            // Drawdown, filled down from the top edge
+            g2d.drawRect(PADDING, drawdownTop, width, drawdownHeight);
+            if (maxDrawdown > 0) {
+                Polygon underwater = new Polygon();
+                underwater.addPoint(xs[0], drawdownTop);
+                for (int i = 0; i < days.length; i++) {
+                    underwater.addPoint(xs[i], drawdownTop + (int) (drawdown[i] / maxDrawdown * drawdownHeight));
+                }
+                underwater.addPoint(xs[days.length - 1], drawdownTop);
+                g2d.setColor(DRAWDOWN);
+                g2d.fillPolygon(underwater);
+            }
+            g2d.setColor(Color.BLACK);
+            g2d.drawString("$0", 5, drawdownTop + 5);
+            g2d.drawString(money(-maxDrawdown), 5, drawdownTop + drawdownHeight);
+            g2d.drawString("Drawdown", PADDING, drawdownTop - 4);
+
+            // Date axis
+            int numLabs = 5;
+            for (int i = 0; i <= numLabs; i++) {
+                double fraction = (double) i / numLabs;
+                String date = LocalDate.ofEpochDay((long) (firstDay + fraction * span)).toString();
+                g2d.drawString(date, PADDING + (int) (fraction * width) - 30, drawdownTop + drawdownHeight + 18);
+            }
+        }
+
+        private String money(double amount) {
+            return (amount < 0 ? "-$" : "$") + df.format(Math.abs(amount));
+        }
+    }
+}
\ No newline at end of file
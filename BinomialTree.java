@@ -0,0 +1,351 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// American option prices on Cox-Ross-Rubinstein binomial trees, for underlyings paying a continuous
+// dividend yield, discrete cash dividends or both.
+//
+// Cash dividends use the escrowed model: the tree is built on the spot less the present value of the
+// dividends paid before expiry, and the present value of those still to come is added back to a node's
+// price when testing early exercise. The last step uses the Black-Scholes value of the European option
+// over that step instead of the expiry payoff (the binomial Black-Scholes method), which removes most of
+// the odd-even oscillation of plain trees, so prices sampled over a range of spots make smooth curves.
+//
+// Backward induction swaps between two reusable double[]s of node values per thread, and node prices come
+// from tables of powers of the up move built once per tree, laid out so each step reads them contiguously:
+// nothing is allocated per node or per step, and the inner loop (SIMD when the Vector API is available,
+// as in PayoffEngine) is two multiplies, an add and a max. A call on an underlying paying no dividends is
+// never exercised early and is priced in closed form. Chains are priced in parallel, one fork-join task
+// per quote.
+public final class BinomialTree {
+
+    public static final byte CALL = ImpliedVolatility.CALL;
+    public static final byte PUT = ImpliedVolatility.PUT;
+    public static final int DEFAULT_STEPS = 1000;
+    public static final int CURVE_STEPS = 200; // For pre-expiry curves, which price every leg at hundreds of spots
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+    private static final StepKernel KERNEL = selectKernel();
+
+    private BinomialTree() {
+    }
+
+    // Price of one American option; a stock leg is worth the spot. Time is in years, volatility, rate and
+    // the dividend yield are annualized decimals.
+    public static double price(OptionLeg.Type type, double spot, double strike, double years, double volatility,
+                               double rate, Dividends dividends, int steps) {
+        if (type == OptionLeg.Type.STOCK) {
+            return spot;
+        }
+        return price(type == OptionLeg.Type.CALL, spot, strike, years, volatility, rate, dividends, steps);
+    }
+
+    // Prices every quote of a chain (same length as the inputs) in parallel. Types are CALL or PUT and
+    // years the time to expiry; a quote without a volatility (NaN) gets a NaN price.
+    public static void price(double spot, double rate, Dividends dividends, int steps, byte[] types, double[] strikes,
+                             double[] years, double[] volatilities, double[] prices) {
+        int count = types.length;
+        if (strikes.length != count || years.length != count || volatilities.length != count || prices.length != count) {
+            throw new IllegalArgumentException("Chain arrays differ in length");
+        }
+        checkSteps(steps);
+        IntStream.range(0, count).parallel().forEach(i -> prices[i] = Double.isNaN(volatilities[i])
+                ? Double.NaN
+                : price(types[i] == CALL, spot, strikes[i], years[i], volatilities[i], rate, dividends, steps));
+    }
+
+    // Early exercise boundary: element i is the underlying price at which exercising becomes optimal at
+    // step i (time i * years / steps), the highest exercised node for a put and the lowest for a call, or
+    // NaN where no node of the step is exercised.
+    public static double[] exerciseBoundary(OptionLeg.Type type, double spot, double strike, double years,
+                                            double volatility, double rate, Dividends dividends, int steps) {
+        if (type == OptionLeg.Type.STOCK) {
+            throw new IllegalArgumentException("Stock has no exercise boundary");
+        }
+        checkSteps(steps);
+        double[] boundary = new double[steps];
+        Arrays.fill(boundary, Double.NaN);
+        if (years > 0 && volatility > 0 && spot > 0) {
+            priceOnTree(type == OptionLeg.Type.CALL, spot, strike, years, volatility, rate, dividends, steps, boundary);
+        }
+        return boundary;
+    }
+
+    private static double price(boolean call, double spot, double strike, double years, double volatility,
+                                double rate, Dividends dividends, int steps) {
+        checkSteps(steps);
+        double exercised = call ? Math.max(0, spot - strike) : Math.max(0, strike - spot);
+        if (!(years > 0) || !(spot > 0)) {
+            return exercised;
+        }
+        if (!(volatility > 0)) {
+            return deterministic(call, spot, strike, years, rate, dividends, steps);
+        }
+        if (call && dividends.isNone() && rate >= 0) {
+            return BlackScholes.price(OptionLeg.Type.CALL, spot, strike, years, volatility, rate);
+        }
+        return priceOnTree(call, spot, strike, years, volatility, rate, dividends, steps, null);
+    }
+
+    // Fills boundary (one element per step) when it is not null.
+    private static double priceOnTree(boolean call, double spot, double strike, double years, double volatility,
+                                      double rate, Dividends dividends, int steps, double[] boundary) {
+        double escrowed = spot - dividends.presentValue(0, years, rate);
+        if (!(escrowed > 0)) {
+            return call ? Math.max(0, spot - strike) : Math.max(0, strike - spot); // Dividends worth the whole stock
+        }
+        double dt = years / steps;
+        double up = Math.exp(volatility * Math.sqrt(dt));
+        double down = 1 / up;
+        double discount = Math.exp(-rate * dt);
+        // Very low volatility over long steps can push the up probability out of [0, 1]
+        double upProbability = Math.max(0, Math.min(1, (Math.exp((rate - dividends.yield) * dt) - down) / (up - down)));
+        double upWeight = discount * upProbability;
+        double downWeight = discount * (1 - upProbability);
+
+        Buffers buffers = BUFFERS.get();
+        buffers.ensure(steps);
+        // Node j of step i is the escrowed price after 2j - i net up moves. Split by the parity of the net
+        // moves, the nodes of every step are contiguous: evenNodes[m] holds 2m - steps net moves and
+        // oddNodes[m] 2m + 1 - steps
+        double[] evenNodes = buffers.evenNodes;
+        double[] oddNodes = buffers.oddNodes;
+        double upSquared = up * up;
+        evenNodes[0] = escrowed * Math.pow(down, steps);
+        oddNodes[0] = evenNodes[0] * up;
+        for (int m = 1; m <= steps; m++) {
+            evenNodes[m] = evenNodes[m - 1] * upSquared;
+            if (m < steps) {
+                oddNodes[m] = oddNodes[m - 1] * upSquared;
+            }
+        }
+        double[] cashLeft = buffers.cashLeft;
+        for (int step = 0; step < steps; step++) {
+            cashLeft[step] = dividends.presentValue(step * dt, years, rate);
+        }
+        double sign = call ? 1 : -1;
+
+        // The step before expiry: the European value over the last step, unless exercising is worth more
+        double[] values = buffers.values;
+        double[] next = buffers.next;
+        int last = steps - 1;
+        double[] nodes = (steps - last) % 2 == 0 ? evenNodes : oddNodes;
+        int base = (steps - last) / 2;
+        double shift = sign * (cashLeft[last] - strike);
+        for (int j = 0; j <= last; j++) {
+            double node = nodes[base + j];
+            double held = european(call, node, strike, dt, volatility, rate, dividends.yield);
+            values[j] = Math.max(held, sign * node + shift);
+        }
+        recordBoundary(boundary, last, call, values, nodes, base, cashLeft[last], shift);
+
+        for (int step = last - 1; step >= 0; step--) {
+            nodes = (steps - step) % 2 == 0 ? evenNodes : oddNodes;
+            base = (steps - step) / 2;
+            shift = sign * (cashLeft[step] - strike);
+            KERNEL.step(values, next, nodes, base, step + 1, upWeight, downWeight, sign, shift);
+            double[] swap = values;
+            values = next;
+            next = swap;
+            recordBoundary(boundary, step, call, values, nodes, base, cashLeft[step], shift);
+        }
+        return values[0];
+    }
+
+    // Exercised nodes are those worth exactly their exercise value; stepping past the exercise region
+    // only reads the nodes of the step, so it is skipped unless a boundary was asked for.
+    private static void recordBoundary(double[] boundary, int step, boolean call, double[] values, double[] nodes,
+                                       int base, double cash, double shift) {
+        if (boundary == null) {
+            return;
+        }
+        double sign = call ? 1 : -1;
+        for (int j = 0; j <= step; j++) {
+            int node = call ? j : step - j; // Lowest first for a call, highest first for a put
+            double exercise = sign * nodes[base + node] + shift; // As the induction computed it
+            if (exercise > 0 && values[node] == exercise) {
+                boundary[step] = nodes[base + node] + cash;
+                return;
+            }
+        }
+    }
+
+    // Without volatility the underlying follows its forward; the option is worth its best discounted
+    // exercise along that path, checked at every step.
+    private static double deterministic(boolean call, double spot, double strike, double years, double rate,
+                                        Dividends dividends, int steps) {
+        double escrowed = spot - dividends.presentValue(0, years, rate);
+        double best = call ? Math.max(0, spot - strike) : Math.max(0, strike - spot);
+        double dt = years / steps;
+        for (int step = 1; step <= steps; step++) {
+            double t = step * dt;
+            double price = escrowed * Math.exp((rate - dividends.yield) * t) + dividends.presentValue(t, years, rate);
+            double exercise = call ? price - strike : strike - price;
+            best = Math.max(best, exercise * Math.exp(-rate * t));
+        }
+        return best;
+    }
+
+    // Black-Scholes with a continuous dividend yield.
+    private static double european(boolean call, double spot, double strike, double years, double volatility,
+                                   double rate, double yield) {
+        double volSqrtT = volatility * Math.sqrt(years);
+        double d1 = (Math.log(spot / strike) + (rate - yield + 0.5 * volatility * volatility) * years) / volSqrtT;
+        double d2 = d1 - volSqrtT;
+        double forward = spot * Math.exp(-yield * years);
+        double discountedStrike = strike * Math.exp(-rate * years);
+        return call
+                ? forward * BlackScholes.cumulativeNormal(d1) - discountedStrike * BlackScholes.cumulativeNormal(d2)
+                : discountedStrike * BlackScholes.cumulativeNormal(-d2) - forward * BlackScholes.cumulativeNormal(-d1);
+    }
+
+    private static void checkSteps(int steps) {
+        if (steps < 1 || steps > 100_000) {
+            throw new IllegalArgumentException("Steps must be between 1 and 100000: " + steps);
+        }
+    }
+
+    // As PayoffEngine's kernels: the SIMD step is only loaded when the JVM was started with
+    // --add-modules jdk.incubator.vector, and -Dpayoff.vector=false forces the scalar path.
+    private static StepKernel selectKernel() {
+        if (Boolean.parseBoolean(System.getProperty("payoff.vector", "true"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (StepKernel) Class.forName("VectorBinomialKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar kernel
+            }
+        }
+        return new ScalarStepKernel();
+    }
+
+    // One step of backward induction over count nodes: next[j] is the larger of the discounted expected
+    // value upWeight * values[j + 1] + downWeight * values[j] and the exercise value sign * nodes[base + j] + shift.
+    interface StepKernel {
+        void step(double[] values, double[] next, double[] nodes, int base, int count, double upWeight, double downWeight,
+                  double sign, double shift);
+    }
+
+    static final class ScalarStepKernel implements StepKernel {
+
+        @Override
+        public void step(double[] values, double[] next, double[] nodes, int base, int count, double upWeight,
+                         double downWeight, double sign, double shift) {
+            for (int j = 0; j < count; j++) {
+                double held = upWeight * values[j + 1] + downWeight * values[j];
+                double exercise = sign * nodes[base + j] + shift;
+                next[j] = held > exercise ? held : exercise;
+            }
+        }
+    }
+
+    // What the underlying pays: a continuous yield and cash amounts on given dates, in years from the
+    // valuation date of the price.
+    public static final class Dividends {
+
+        private static final Dividends NONE = new Dividends(0, new double[0], new double[0]);
+
+        private final double yield;
+        private final double[] times;
+        private final double[] amounts;
+
+        private Dividends(double yield, double[] times, double[] amounts) {
+            this.yield = yield;
+            this.times = times;
+            this.amounts = amounts;
+        }
+
+        public static Dividends none() {
+            return NONE;
+        }
+
+        public static Dividends yield(double yield) {
+            return of(yield, new double[0], new double[0]);
+        }
+
+        public static Dividends of(double yield, double[] times, double[] amounts) {
+            if (!Double.isFinite(yield) || times.length != amounts.length) {
+                throw new IllegalArgumentException("Need a finite yield and one amount per dividend date");
+            }
+            Integer[] order = new Integer[times.length];
+            for (int i = 0; i < times.length; i++) {
+                if (!Double.isFinite(times[i]) || !(amounts[i] >= 0) || Double.isInfinite(amounts[i])) {
+                    throw new IllegalArgumentException("Dividend " + i + " needs a finite date and a non-negative amount");
+                }
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(times[a], times[b]));
+            double[] sortedTimes = new double[times.length];
+            double[] sortedAmounts = new double[times.length];
+            for (int i = 0; i < times.length; i++) {
+                sortedTimes[i] = times[order[i]];
+                sortedAmounts[i] = amounts[order[i]];
+            }
+            return new Dividends(yield, sortedTimes, sortedAmounts);
+        }
+
+        public double yield() {
+            return yield;
+        }
+
+        // Dates of the cash dividends in years, ascending, and the amount paid on each.
+        public double[] times() {
+            return times.clone();
+        }
+
+        public double[] amounts() {
+            return amounts.clone();
+        }
+
+        public boolean isNone() {
+            return yield == 0 && times.length == 0;
+        }
+
+        // Value at time from of the cash dividends paid after it and no later than to.
+        double presentValue(double from, double to, double rate) {
+            double value = 0;
+            for (int i = 0; i < times.length; i++) {
+                if (times[i] > from && times[i] <= to) {
+                    value += amounts[i] * Math.exp(-rate * (times[i] - from));
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Dividends)) {
+                return false;
+            }
+            Dividends other = (Dividends) o;
+            return Double.compare(yield, other.yield) == 0 && Arrays.equals(times, other.times)
+                    && Arrays.equals(amounts, other.amounts);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Double.hashCode(yield);
+            result = 31 * result + Arrays.hashCode(times);
+            return 31 * result + Arrays.hashCode(amounts);
+        }
+    }
+
+    // Per-thread working arrays, grown to the largest tree priced on the thread.
+    private static final class Buffers {
+
+        double[] values = new double[0];
+        double[] next = new double[0];
+        double[] evenNodes = new double[0];
+        double[] oddNodes = new double[0];
+        double[] cashLeft = new double[0];
+
+        void ensure(int steps) {
+            if (values.length < steps) {
+                values = new double[steps];
+                next = new double[steps];
+                evenNodes = new double[steps + 1];
+                oddNodes = new double[steps];
+                cashLeft = new double[steps];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+// European option pricing and Greeks under Black-Scholes. Time is in years, volatility and
+// rate are annualized decimals (0.25 = 25%). Stock "legs" price as the underlying itself.
+public final class BlackScholes {
+
+    private static final double DAYS_PER_YEAR = 365.0;
+
+    private BlackScholes() {
+    }
+
+    public static double yearsFromDays(double days) {
+        return days / DAYS_PER_YEAR;
+    }
+
+    public static double price(OptionLeg.Type type, double spot, double strike, double years, double volatility, double rate) {
+        if (type == OptionLeg.Type.STOCK) {
+            return spot;
+        }
+        if (years <= 0) {
+            return type == OptionLeg.Type.CALL ? Math.max(0, spot - strike) : Math.max(0, strike - spot);
+        }
+        double discountedStrike = strike * Math.exp(-rate * years);
+        if (volatility <= 0 || spot <= 0) {
+            // No uncertainty left: the option is worth its discounted forward intrinsic value
+            return type == OptionLeg.Type.CALL ? Math.max(0, spot - discountedStrike) : Math.max(0, discountedStrike - spot);
+        }
+        double volSqrtT = volatility * Math.sqrt(years);
+        double d1 = (Math.log(spot / strike) + (rate + 0.5 * volatility * volatility) * years) / volSqrtT;
+        double d2 = d1 - volSqrtT;
+        if (type == OptionLeg.Type.CALL) {
+            return spot * cumulativeNormal(d1) - discountedStrike * cumulativeNormal(d2);
+        }
+        return discountedStrike * cumulativeNormal(-d2) - spot * cumulativeNormal(-d1);
+    }
+
+    public static double delta(OptionLeg.Type type, double spot, double strike, double years, double volatility, double rate) {
+        if (type == OptionLeg.Type.STOCK) {
+            return 1;
+        }
+        if (years <= 0 || volatility <= 0 || spot <= 0) {
+            double forwardIntrinsic = spot - strike * Math.exp(-rate * Math.max(0, years));
+            if (type == OptionLeg.Type.CALL) {
+                return forwardIntrinsic > 0 ? 1 : 0;
+            }
+            return forwardIntrinsic < 0 ? -1 : 0;
+        }
+        double d1 = d1(spot, strike, years, volatility, rate);
+        return type == OptionLeg.Type.CALL ? cumulativeNormal(d1) : cumulativeNormal(d1) - 1;
+    }
+
+    public static double gamma(OptionLeg.Type type, double spot, double strike, double years, double volatility, double rate) {
+        if (type == OptionLeg.Type.STOCK || years <= 0 || volatility <= 0 || spot <= 0) {
+            return 0;
+        }
+        double d1 = d1(spot, strike, years, volatility, rate);
+        return normalDensity(d1) / (spot * volatility * Math.sqrt(years));
+    }
+
+    // Value change per calendar day.
+    public static double theta(OptionLeg.Type type, double spot, double strike, double years, double volatility, double rate) {
+        if (type == OptionLeg.Type.STOCK || years <= 0 || volatility <= 0 || spot <= 0) {
+            return 0;
+        }
+        double sqrtT = Math.sqrt(years);
+        double d1 = d1(spot, strike, years, volatility, rate);
+        double d2 = d1 - volatility * sqrtT;
+        double discountedStrike = strike * Math.exp(-rate * years);
+        double decay = -spot * normalDensity(d1) * volatility / (2 * sqrtT);
+        double annual = type == OptionLeg.Type.CALL
+                ? decay - rate * discountedStrike * cumulativeNormal(d2)
+                : decay + rate * discountedStrike * cumulativeNormal(-d2);
+        return annual / DAYS_PER_YEAR;
+    }
+
+    // Value change per one volatility point (0.01).
+    public static double vega(OptionLeg.Type type, double spot, double strike, double years, double volatility, double rate) {
+        if (type == OptionLeg.Type.STOCK || years <= 0 || volatility <= 0 || spot <= 0) {
+            return 0;
+        }
+        double d1 = d1(spot, strike, years, volatility, rate);
+        return spot * normalDensity(d1) * Math.sqrt(years) / 100;
+    }
+
+    private static double d1(double spot, double strike, double years, double volatility, double rate) {
+        return (Math.log(spot / strike) + (rate + 0.5 * volatility * volatility) * years) / (volatility * Math.sqrt(years));
+    }
+
+    static double normalDensity(double x) {
+        return Math.exp(-0.5 * x * x) / 2.5066282746310002;
+    }
+
+    // Hart's double precision approximation (as given by Graeme West), accurate to about 1e-14.
+    static double cumulativeNormal(double x) {
+        double xAbs = Math.abs(x);
+        double tail;
+        if (xAbs > 37) {
+            tail = 0;
+        } else {
+            double exponential = Math.exp(-xAbs * xAbs / 2);
+            if (xAbs < 7.07106781186547) {
+                double numerator = 3.52624965998911E-02 * xAbs + 0.700383064443688;
+                numerator = numerator * xAbs + 6.37396220353165;
+                numerator = numerator * xAbs + 33.912866078383;
+                numerator = numerator * xAbs + 112.079291497871;
+                numerator = numerator * xAbs + 221.213596169931;
+                numerator = numerator * xAbs + 220.206867912376;
+                double denominator = 8.83883476483184E-02 * xAbs + 1.75566716318264;
+                denominator = denominator * xAbs + 16.064177579207;
+                denominator = denominator * xAbs + 86.7807322029461;
+                denominator = denominator * xAbs + 296.564248779674;
+                denominator = denominator * xAbs + 637.333633378831;
+                denominator = denominator * xAbs + 793.826512519948;
+                denominator = denominator * xAbs + 440.413735824752;
+                tail = exponential * numerator / denominator;
+            } else {
+                double fraction = xAbs + 0.65;
+                fraction = xAbs + 4 / fraction;
+                fraction = xAbs + 3 / fraction;
+                fraction = xAbs + 2 / fraction;
+                fraction = xAbs + 1 / fraction;
+                tail = exponential / fraction / 2.506628274631;
+            }
+        }
+        return x > 0 ? 1 - tail : tail;
+    }
+}
\ No newline at end of file
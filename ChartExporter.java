@@ -0,0 +1,162 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+// Headless batch export of payoff charts. Each line of the input file is one strategy:
+//
+//     name|expiration (YYYY-MM-DD)|legs separated by ';'   e.g.  Iron Condor|2025-06-20|+1 P 130 @1; -1 P 140 @2.5
+//
+// Blank lines and lines starting with '#' are skipped. Charts are drawn with the same
+// PayoffChart.paintChart used on screen and written as PNG or SVG by a pool of worker threads.
+// Pre-expiry curves are left out unless a slice count is given; when they are drawn, each chart
+// samples them into a cache of its own, so exports never touch the caches of the charts on screen.
+// The file is streamed and at most a few charts per thread are in flight, so memory stays
+// bounded no matter how many strategies the file holds.
+public final class ChartExporter {
+
+    private static final ThreadLocal<StrategyPayoff> CHARTS = ThreadLocal.withInitial(() -> {
+        StrategyPayoff chart = new StrategyPayoff(OptionStrategy.longCall(0, 0, ""));
+        chart.setSharedCurves(false);
+        return chart;
+    });
+    private static final ThreadLocal<BufferedImage[]> IMAGES = ThreadLocal.withInitial(() -> new BufferedImage[1]);
+
+    private final Path outputDirectory;
+    private final String format;
+    private final int width;
+    private final int height;
+    private final int slices;
+
+    public ChartExporter(Path outputDirectory, String format, int width, int height) {
+        this(outputDirectory, format, width, height, 0);
+    }
+
+    // slices is the number of pre-expiry curves per chart, as on screen; 0 draws the expiry payoff only.
+    public ChartExporter(Path outputDirectory, String format, int width, int height, int slices) {
+        if (!format.equals("png") && !format.equals("svg")) {
+            throw new IllegalArgumentException("Format must be png or svg: " + format);
+        }
+        this.outputDirectory = outputDirectory;
+        this.format = format;
+        this.width = width;
+        this.height = height;
+        this.slices = Math.max(0, slices);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ChartExporter <strategies-file> <output-dir> [png|svg] [width] [height] [threads] [slices]");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+        ImageIO.setUseCache(false); // Encode in memory rather than through temp files
+        String format = args.length > 2 ? args[2].toLowerCase() : "png";
+        int width = args.length > 3 ? Integer.parseInt(args[3]) : 800;
+        int height = args.length > 4 ? Integer.parseInt(args[4]) : 600;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        int slices = args.length > 6 ? Integer.parseInt(args[6]) : 0;
+
+        ChartExporter exporter = new ChartExporter(Paths.get(args[1]), format, width, height, slices);
+        long start = System.nanoTime();
+        int[] result = exporter.exportAll(Paths.get(args[0]), threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Exported %d charts (%d failed) in %.2fs, %.1f charts/s%n",
+                result[0], result[1], seconds, result[0] / Math.max(seconds, 1e-9));
+        System.exit(result[1] == 0 ? 0 : 1);
+    }
+
+    // Returns {exported, failed}.
+    public int[] exportAll(Path strategiesFile, int threads) throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 4); // Bounds queued definitions, and with them memory
+        AtomicInteger exported = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try (BufferedReader reader = Files.newBufferedReader(strategiesFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String definition = line;
+                int number = lineNumber;
+                inFlight.acquire();
+                workers.execute(() -> {
+                    try {
+                        export(number, definition);
+                        exported.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        System.err.println("Line " + number + ": " + e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        return new int[] {exported.get(), failed.get()};
+    }
+
+    public Path export(int number, String definition) throws IOException {
+        String[] fields = definition.split("\\|", 3);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected name|expiration|legs");
+        }
+        OptionStrategy strategy = OptionStrategy.parse(fields[0].trim(), fields[1].trim(), fields[2]);
+        StrategyPayoff chart = CHARTS.get();
+        chart.updateStrategy(strategy);
+        chart.updatePricing(0.30, 0.05, slices);
+        chart.setSize(width, height);
+
+        Path target = outputDirectory.resolve(String.format("%06d-%s.%s", number, fileName(strategy.name()), format));
+        if (format.equals("svg")) {
+            SvgGraphics2D svg = new SvgGraphics2D();
+            svg.setColor(chart.getBackground());
+            svg.fillRect(0, 0, width, height);
+            chart.paintChart(svg, width, height);
+            try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                writer.write(svg.toSvg(width, height));
+            }
+        } else {
+            BufferedImage[] imageHolder = IMAGES.get();
+            if (imageHolder[0] == null || imageHolder[0].getWidth() != width || imageHolder[0].getHeight() != height) {
+                imageHolder[0] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D g2d = imageHolder[0].createGraphics();
+            try {
+                g2d.setColor(chart.getBackground());
+                g2d.fillRect(0, 0, width, height);
+                chart.paintChart(g2d, width, height);
+            } finally {
+                g2d.dispose();
+            }
+            try (OutputStream out = Files.newOutputStream(target)) {
+                ImageIO.write(imageHolder[0], "png", out);
+            }
+        }
+        return target;
+    }
+
+    private static String fileName(String strategyName) {
+        String cleaned = strategyName.replaceAll("[^A-Za-z0-9._-]+", "_");
+        return cleaned.isEmpty() ? "strategy" : cleaned;
+    }
+}
\ No newline at end of file
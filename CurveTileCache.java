@@ -0,0 +1,426 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+// Pre-expiry P&L curves sampled adaptively and cached in price tiles, for interactive zoom and pan.
+//
+// Zoom is quantized to power-of-two levels of price and P&L units per pixel. At each level the price
+// axis is cut into tiles of TILE_PIXELS pixels; a tile is sampled once and reused by every frame that
+// shows it, so panning only computes the tiles scrolling into view and zooming within a level
+// computes nothing. Inside a tile each curve starts from its strikes plus a coarse grid and segments
+// are split until the midpoint lies within a quarter pixel of the chord: dense around strikes and
+// sparse where the curve is nearly linear.
+//
+// Options are priced with Black-Scholes, or as American options on binomial trees when the cache is
+// given the underlying's dividends (see BinomialTree).
+//
+// A cache belongs to one strategy and one set of pricing inputs. Caches are shared through of(), which
+// keeps the most recently used ones across strategy switches, so flipping back to a strategy already
+// seen reuses its sampled tiles. A shared cache is weighed again whenever it gains tiles, so the shared
+// caches together stay within their heap budget while charts pan into new tiles.
+public final class CurveTileCache {
+
+    private static final LruCache<Inputs, CurveTileCache> SHARED =
+            new LruCache<>("Curve tiles", LruCache.heapFraction(1.0 / 16), CurveTileCache::bytes);
+
+    private static final int TILE_PIXELS = 256;
+    private static final int SEED_PIXELS = 16;
+    private static final double TOLERANCE_PIXELS = 0.25;
+    private static final double MIN_STEP_PIXELS = 0.5;
+    private static final int MAX_TILES = 512;
+
+    private final OptionStrategy strategy;
+    private final double[] strikes;
+    private final double[] daysRemaining;
+    private final double[] years;
+    private final double volatility;
+    private final double rate;
+    private final BinomialTree.Dividends american; // Null for European pricing
+    private final long daysToExpiry;
+    private final Inputs inputs;
+    private final Map<Long, Tile> tiles = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest) {
+            if (size() > MAX_TILES) {
+                bytes -= eldest.getValue().bytes();
+                return true;
+            }
+            return false;
+        }
+    };
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    // Slice 0 is today; later slices step evenly towards expiry, which is left out because the expiry
+    // payoff is already drawn exactly.
+    public CurveTileCache(OptionStrategy strategy, long daysToExpiry, int slices, double volatility, double rate) {
+        this(strategy, daysToExpiry, slices, volatility, rate, null);
+    }
+
+    // American pricing over the given dividends, or European when they are null.
+    public CurveTileCache(OptionStrategy strategy, long daysToExpiry, int slices, double volatility, double rate,
+                          BinomialTree.Dividends american) {
+        this.strategy = strategy;
+        this.strikes = strategy.strikes();
+        this.daysToExpiry = daysToExpiry;
+        this.volatility = volatility;
+        this.rate = rate;
+        this.american = american;
+        this.inputs = inputs(strategy, daysToExpiry, slices, volatility, rate, american);
+        int sliceCount = inputs.slices;
+        this.daysRemaining = new double[sliceCount];
+        this.years = new double[sliceCount];
+        for (int slice = 0; slice < sliceCount; slice++) {
+            daysRemaining[slice] = (double) daysToExpiry * (sliceCount - slice) / sliceCount;
+            years[slice] = BlackScholes.yearsFromDays(daysRemaining[slice]);
+        }
+    }
+
+    // The shared cache for these inputs, created on first use.
+    public static CurveTileCache of(OptionStrategy strategy, long daysToExpiry, int slices, double volatility, double rate,
+                                    BinomialTree.Dividends american) {
+        Inputs inputs = inputs(strategy, daysToExpiry, slices, volatility, rate, american);
+        CurveTileCache cache = SHARED.get(inputs);
+        if (cache == null) {
+            cache = new CurveTileCache(strategy, daysToExpiry, slices, volatility, rate, american);
+            SHARED.put(inputs, cache);
+        }
+        return cache;
+    }
+
+    public static LruCache<?, ?> shared() {
+        return SHARED;
+    }
+
+    // Makes a cache built elsewhere (such as one read back from a workspace) the shared one for its inputs.
+    public static void share(CurveTileCache cache) {
+        SHARED.put(cache.inputs, cache);
+    }
+
+    // True when this cache was built for these inputs, so it can be reused instead of a new one.
+    public boolean matches(OptionStrategy strategy, long daysToExpiry, int slices, double volatility, double rate,
+                           BinomialTree.Dividends american) {
+        return inputs.equals(inputs(strategy, daysToExpiry, slices, volatility, rate, american));
+    }
+
+    // No slices once expired, and none for a negative count.
+    private static Inputs inputs(OptionStrategy strategy, long daysToExpiry, int slices, double volatility, double rate,
+                                 BinomialTree.Dividends american) {
+        return new Inputs(strategy, daysToExpiry, daysToExpiry > 0 ? Math.max(0, slices) : 0, volatility, rate, american);
+    }
+
+    public OptionStrategy strategy() {
+        return strategy;
+    }
+
+    public long daysToExpiry() {
+        return daysToExpiry;
+    }
+
+    public double volatility() {
+        return volatility;
+    }
+
+    public double rate() {
+        return rate;
+    }
+
+    // The dividends of American pricing, or null for European.
+    public BinomialTree.Dividends american() {
+        return american;
+    }
+
+    public int sliceCount() {
+        return years.length;
+    }
+
+    public double daysRemaining(int slice) {
+        return daysRemaining[slice];
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    // Approximate heap held by the sampled tiles.
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    // Each returned curve is {prices, pnl} covering at least minPrice..maxPrice, sampled for the given scale.
+    public double[][][] curves(double minPrice, double maxPrice, double pricePerPixel, double pnlPerPixel) {
+        if (years.length == 0 || !(maxPrice > minPrice) || !(pricePerPixel > 0) || !(pnlPerPixel > 0)) {
+            return new double[0][][];
+        }
+        int priceLevel = Math.getExponent(pricePerPixel);
+        int pnlLevel = Math.getExponent(pnlPerPixel);
+        double tileWidth = Math.scalb(1.0, priceLevel) * TILE_PIXELS;
+        double tolerance = Math.scalb(1.0, pnlLevel) * TOLERANCE_PIXELS;
+        long firstTile = (long) Math.floor(minPrice / tileWidth);
+        long lastTile = (long) Math.floor(maxPrice / tileWidth);
+        if (lastTile - firstTile > 64) {
+            return new double[0][][]; // Not a zoom level anyone can see detail at; should not happen
+        }
+
+        Tile[] visible = new Tile[(int) (lastTile - firstTile + 1)];
+        List<Integer> missing = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < visible.length; i++) {
+                visible[i] = tiles.get(key(priceLevel, pnlLevel, firstTile + i));
+                if (visible[i] == null) {
+                    missing.add(i);
+                    misses++;
+                } else {
+                    hits++;
+                }
+            }
+        }
+        // Misses are computed in parallel, one task per (tile, slice)
+        Tile[] computed = new Tile[visible.length];
+        for (int i : missing) {
+            computed[i] = new Tile(years.length);
+        }
+        IntStream.range(0, missing.size() * years.length).parallel().forEach(task -> {
+            int index = missing.get(task / years.length);
+            int slice = task % years.length;
+            long tile = firstTile + index;
+            double from = Math.max(0, tile * tileWidth);
+            double to = Math.max(0, (tile + 1) * tileWidth);
+            sample(computed[index], slice, from, to, Math.scalb(1.0, priceLevel), tolerance);
+        });
+        synchronized (this) {
+            for (int i : missing) {
+                visible[i] = computed[i];
+                bytes += computed[i].bytes();
+                Tile replaced = tiles.put(key(priceLevel, pnlLevel, firstTile + i), computed[i]);
+                if (replaced != null) {
+                    bytes -= replaced.bytes(); // Computed concurrently by another frame
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            SHARED.reweigh(inputs, this);
+        }
+
+        double[][][] curves = new double[years.length][][];
+        for (int slice = 0; slice < years.length; slice++) {
+            int length = 0;
+            for (Tile tile : visible) {
+                length += tile.prices[slice].length;
+            }
+            double[] prices = new double[length];
+            double[] pnl = new double[length];
+            int offset = 0;
+            for (Tile tile : visible) {
+                System.arraycopy(tile.prices[slice], 0, prices, offset, tile.prices[slice].length);
+                System.arraycopy(tile.pnl[slice], 0, pnl, offset, tile.pnl[slice].length);
+                offset += tile.prices[slice].length;
+            }
+            curves[slice] = new double[][] {prices, pnl};
+        }
+        return curves;
+    }
+
+    // Sampled tiles by key, for saving and restoring: per slice, the sampled prices and their P&L.
+    synchronized long[] tileKeys() {
+        long[] keys = new long[tiles.size()];
+        int i = 0;
+        for (long key : tiles.keySet()) {
+            keys[i++] = key;
+        }
+        return keys;
+    }
+
+    // {prices, pnl} of the tile, each indexed by slice; null once evicted.
+    synchronized double[][][] tile(long key) {
+        Tile tile = tiles.get(key);
+        return tile == null ? null : new double[][][] {tile.prices, tile.pnl};
+    }
+
+    void putTile(long key, double[][] prices, double[][] pnl) {
+        if (prices.length != years.length || pnl.length != years.length) {
+            throw new IllegalArgumentException("Tile has " + prices.length + " slices, expected " + years.length);
+        }
+        Tile tile = new Tile(years.length);
+        for (int slice = 0; slice < years.length; slice++) {
+            tile.prices[slice] = prices[slice];
+            tile.pnl[slice] = pnl[slice];
+        }
+        synchronized (this) {
+            bytes += tile.bytes();
+            Tile replaced = tiles.put(key, tile);
+            if (replaced != null) {
+                bytes -= replaced.bytes();
+            }
+        }
+        SHARED.reweigh(inputs, this); // Outside this cache's lock: the shared cache's weigher takes it
+    }
+
+    private static long key(int priceLevel, int pnlLevel, long tile) {
+        return ((long) (priceLevel & 0xFFF) << 52) | ((long) (pnlLevel & 0xFFF) << 40) | (tile & 0xFF_FFFF_FFFFL);
+    }
+
+    private void sample(Tile tile, int slice, double from, double to, double pricePerPixel, double tolerance) {
+        if (!(to > from)) {
+            tile.prices[slice] = new double[0];
+            tile.pnl[slice] = new double[0];
+            return;
+        }
+        // Seeds: the tile bounds, a coarse grid and every strike inside the tile
+        double seedStep = pricePerPixel * SEED_PIXELS;
+        int gridPoints = (int) Math.ceil((to - from) / seedStep);
+        double[] seeds = new double[gridPoints + 1 + strikes.length];
+        int count = 0;
+        for (int i = 0; i < gridPoints; i++) {
+            seeds[count++] = from + i * seedStep;
+        }
+        seeds[count++] = to;
+        for (double strike : strikes) {
+            if (strike > from && strike < to) {
+                seeds[count++] = strike;
+            }
+        }
+        Arrays.sort(seeds, 0, count);
+
+        double minStep = pricePerPixel * MIN_STEP_PIXELS;
+        double yearsLeft = years[slice];
+        PointBuffer out = new PointBuffer(count * 2);
+        double x0 = seeds[0];
+        double y0 = pnl(x0, yearsLeft);
+        out.add(x0, y0);
+        for (int i = 1; i < count; i++) {
+            double x1 = seeds[i];
+            if (x1 <= x0) {
+                continue;
+            }
+            double y1 = pnl(x1, yearsLeft);
+            refine(out, x0, y0, x1, y1, yearsLeft, tolerance, minStep);
+            x0 = x1;
+            y0 = y1;
+        }
+        tile.prices[slice] = out.prices();
+        tile.pnl[slice] = out.pnl();
+    }
+
+    // Emits the points after (x0, y0) up to and including (x1, y1).
+    private void refine(PointBuffer out, double x0, double y0, double x1, double y1, double yearsLeft,
+                        double tolerance, double minStep) {
+        if (x1 - x0 > minStep) {
+            double xm = 0.5 * (x0 + x1);
+            double ym = pnl(xm, yearsLeft);
+            if (Math.abs(ym - 0.5 * (y0 + y1)) > tolerance) {
+                refine(out, x0, y0, xm, ym, yearsLeft, tolerance, minStep);
+                refine(out, xm, ym, x1, y1, yearsLeft, tolerance, minStep);
+                return;
+            }
+        }
+        out.add(x1, y1);
+    }
+
+    private double pnl(double price, double yearsLeft) {
+        if (american != null) {
+            return strategy.americanPnl(price, yearsLeft, volatility, rate, american, BinomialTree.CURVE_STEPS);
+        }
+        return strategy.theoreticalPnl(price, yearsLeft, volatility, rate);
+    }
+
+    private static final class Tile {
+
+        final double[][] prices;
+        final double[][] pnl;
+
+        Tile(int slices) {
+            prices = new double[slices][];
+            pnl = new double[slices][];
+        }
+
+        long bytes() {
+            long points = 0;
+            for (double[] slice : prices) {
+                points += slice.length;
+            }
+            return 64 + points * 2 * Double.BYTES;
+        }
+    }
+
+    // Key of the shared caches: everything a sampled curve depends on.
+    private static final class Inputs {
+
+        final OptionStrategy strategy;
+        final long daysToExpiry;
+        final int slices;
+        final double volatility;
+        final double rate;
+        final BinomialTree.Dividends american;
+
+        Inputs(OptionStrategy strategy, long daysToExpiry, int slices, double volatility, double rate,
+               BinomialTree.Dividends american) {
+            this.strategy = strategy;
+            this.daysToExpiry = daysToExpiry;
+            this.slices = slices;
+            this.volatility = volatility;
+            this.rate = rate;
+            this.american = american;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Inputs)) {
+                return false;
+            }
+            Inputs other = (Inputs) o;
+            return strategy.equals(other.strategy) && daysToExpiry == other.daysToExpiry && slices == other.slices
+                    && Double.compare(volatility, other.volatility) == 0 && Double.compare(rate, other.rate) == 0
+                    && Objects.equals(american, other.american);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = strategy.hashCode();
+            result = 31 * result + Long.hashCode(daysToExpiry);
+            result = 31 * result + slices;
+            result = 31 * result + Double.hashCode(volatility);
+            result = 31 * result + Double.hashCode(rate);
+            return 31 * result + Objects.hashCode(american);
+        }
+    }
+
+    private static final class PointBuffer {
+
+        private double[] prices;
+        private double[] pnl;
+        private int size;
+
+        PointBuffer(int capacity) {
+            prices = new double[Math.max(4, capacity)];
+            pnl = new double[prices.length];
+        }
+
+        void add(double price, double value) {
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                pnl = Arrays.copyOf(pnl, size * 2);
+            }
+            prices[size] = price;
+            pnl[size] = value;
+            size++;
+        }
+
+        double[] prices() {
+            return Arrays.copyOf(prices, size);
+        }
+
+        double[] pnl() {
+            return Arrays.copyOf(pnl, size);
+        }
+    }
+}
\ No newline at end of file
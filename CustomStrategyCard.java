@@ -0,0 +1,219 @@
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentListener;
+
+// Any mix of legs, one per line (e.g. "-2 C 160 @2.0"), started from a template or a saved strategy.
+// The library of saved strategies lives here but is written to and read from workspaces by the visualizer,
+// so it is kept even while the form has never been opened.
+public final class CustomStrategyCard implements StrategyCard {
+
+    private final LibraryModel library = new LibraryModel();
+    private Map<String, String> templates;
+    private JComboBox<String> templateSelector;
+    private JComboBox<OptionStrategy> librarySelector;
+    private JTextField expirationField;
+    private JTextArea legsArea;
+    private JPanel input;
+    private StrategyPayoff chart;
+
+    @Override
+    public String name() {
+        return "Custom Strategy";
+    }
+
+    @Override
+    public JComponent createInput(DocumentListener onEdit) {
+        input = new JPanel(new BorderLayout(5, 5));
+        input.setBorder(new TitledBorder("Custom Strategy Legs (quantity, C/P/S, strike, @premium)"));
+        JPanel header = new JPanel(new GridLayout(3, 2, 5, 5));
+        header.add(new JLabel("Template:"));
+        templates = strategyTemplates();
+        templateSelector = new JComboBox<>(templates.keySet().toArray(new String[0]));
+        header.add(templateSelector);
+        header.add(new JLabel("Expiration Date (YYYY-MM-DD):"));
+        expirationField = new JTextField();
+        header.add(expirationField);
+        header.add(new JLabel("Saved Strategies:"));
+        JPanel libraryRow = new JPanel(new BorderLayout(5, 0));
+        librarySelector = new JComboBox<>(library);
+        librarySelector.setPrototypeDisplayValue(OptionStrategy.longCall(0, 0, "")); // Sizing never decodes the whole library
+        librarySelector.addActionListener(e -> showSavedStrategy());
+        libraryRow.add(librarySelector, BorderLayout.CENTER);
+        JButton saveButton = new JButton("Save");
+        saveButton.addActionListener(e -> saveToLibrary());
+        libraryRow.add(saveButton, BorderLayout.EAST);
+        header.add(libraryRow);
+        input.add(header, BorderLayout.NORTH);
+        legsArea = new JTextArea(4, 30);
+        input.add(new JScrollPane(legsArea), BorderLayout.CENTER);
+        templateSelector.addActionListener(e -> legsArea.setText(templates.get((String) templateSelector.getSelectedItem())));
+        legsArea.setText(templates.get((String) templateSelector.getSelectedItem()));
+        expirationField.getDocument().addDocumentListener(onEdit);
+        legsArea.getDocument().addDocumentListener(onEdit);
+        return input;
+    }
+
+    @Override
+    public PayoffChart createChart() {
+        chart = new StrategyPayoff(OptionStrategy.longCall(0, 0, ""));
+        return chart;
+    }
+
+    @Override
+    public void apply() {
+        chart.updateStrategy(OptionStrategy.parse((String) templateSelector.getSelectedItem(), expirationField.getText(), legsArea.getText()));
+    }
+
+    // Every option leg moves to the nearest quote of its type; stock legs are kept as typed.
+    @Override
+    public void fillFromChain(OptionChain chain, int symbolId, LocalDate expiration) {
+        int expiryDay = (int) expiration.toEpochDay();
+        OptionStrategy strategy = OptionStrategy.parse("Custom", expiration.toString(), legsArea.getText());
+        StringBuilder legs = new StringBuilder();
+        for (OptionLeg leg : strategy.legs()) {
+            if (leg.isOption()) {
+                byte type = leg.type() == OptionLeg.Type.CALL ? PositionBook.CALL : PositionBook.PUT;
+                int row = chain.nearest(symbolId, expiryDay, type, leg.strike());
+                if (row >= 0) {
+                    leg = new OptionLeg(leg.type(), chain.strike(row), leg.quantity(), chain.mid(row));
+                }
+            }
+            legs.append(legs.length() == 0 ? "" : "\n").append(leg.toSpec());
+        }
+        expirationField.setText(expiration.toString());
+        legsArea.setText(legs.toString());
+    }
+
+    @Override
+    public void save(Map<String, String> settings) {
+        settings.put("custom.template", (String) templateSelector.getSelectedItem());
+        settings.put("custom.expiration", expirationField.getText());
+        settings.put("custom.legs", legsArea.getText());
+    }
+
+    // The template first: choosing it replaces the legs, which the saved legs then overwrite.
+    @Override
+    public void restore(Map<String, String> settings) {
+        if (settings.containsKey("custom.template")) {
+            templateSelector.setSelectedItem(settings.get("custom.template"));
+        }
+        expirationField.setText(settings.getOrDefault("custom.expiration", expirationField.getText()));
+        legsArea.setText(settings.getOrDefault("custom.legs", legsArea.getText()));
+    }
+
+    // Shows the strategies saved in the workspace, decoding them only as the list needs them.
+    public void openLibrary(Workspace workspace) {
+        library.open(workspace);
+    }
+
+    // The saved strategies as of now, for writing the library back out or showing it elsewhere. Safe to
+    // read from any thread; the workspace's are decoded only as they are read.
+    public List<OptionStrategy> savedStrategies() {
+        return library.strategies();
+    }
+
+    // Shows a strategy picked elsewhere (such as on the dashboard) on this card.
+    public void show(OptionStrategy strategy) {
+        expirationField.setText(strategy.expirationDate());
+        legsArea.setText(strategy.toSpec().replace("; ", "\n"));
+    }
+
+    private void showSavedStrategy() {
+        OptionStrategy strategy = (OptionStrategy) librarySelector.getSelectedItem();
+        if (strategy != null) {
+            show(strategy);
+        }
+    }
+
+    private void saveToLibrary() {
+        try {
+            String template = (String) templateSelector.getSelectedItem();
+            OptionStrategy strategy = OptionStrategy.parse(template, expirationField.getText(), legsArea.getText());
+            String name = JOptionPane.showInputDialog(input, "Save as:", template);
+            if (name != null && !name.isBlank()) {
+                library.add(new OptionStrategy(name.trim(), strategy.expirationDate(), strategy.legs()));
+            }
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(input, "Invalid strategy: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static Map<String, String> strategyTemplates() {
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put("Bull Call Spread", "+1 C 145 @7.2\n-1 C 155 @3.1");
+        templates.put("Iron Condor", "+1 P 130 @1.0\n-1 P 140 @2.5\n-1 C 160 @2.4\n+1 C 170 @0.9");
+        templates.put("Long Butterfly", "+1 C 140 @12.5\n-2 C 150 @5.6\n+1 C 160 @2.0");
+        templates.put("Call Ratio Spread", "+1 C 150 @5.6\n-2 C 160 @2.0");
+        templates.put("Covered Call", "+1 S @150\n-1 C 160 @2.0");
+        return templates;
+    }
+
+    // Saved strategies: those of the open workspace, decoded only as the list shows them, then the ones
+    // saved since it was opened.
+    private static final class LibraryModel extends AbstractListModel<OptionStrategy> implements ComboBoxModel<OptionStrategy> {
+
+        private Workspace workspace;
+        private final List<OptionStrategy> added = new ArrayList<>();
+        private Object selected;
+
+        void open(Workspace workspace) {
+            this.workspace = workspace;
+            added.clear();
+            selected = null;
+            fireContentsChanged(this, -1, -1);
+        }
+
+        void add(OptionStrategy strategy) {
+            added.add(strategy);
+            fireIntervalAdded(this, getSize() - 1, getSize() - 1);
+            setSelectedItem(strategy);
+        }
+
+        List<OptionStrategy> strategies() {
+            Workspace saved = workspace;
+            int savedCount = saved == null ? 0 : saved.strategyCount();
+            List<OptionStrategy> since = List.copyOf(added);
+            return new AbstractList<OptionStrategy>() {
+                @Override
+                public OptionStrategy get(int index) {
+                    return index < savedCount ? saved.strategy(index) : since.get(index - savedCount);
+                }
+
+                @Override
+                public int size() {
+                    return savedCount + since.size();
+                }
+            };
+        }
+
+        @Override
+        public int getSize() {
+            return (workspace == null ? 0 : workspace.strategyCount()) + added.size();
+        }
+
+        @Override
+        public OptionStrategy getElementAt(int index) {
+            int saved = workspace == null ? 0 : workspace.strategyCount();
+            return index < saved ? workspace.strategy(index) : added.get(index - saved);
+        }
+
+        @Override
+        public void setSelectedItem(Object item) {
+            selected = item;
+            fireContentsChanged(this, -1, -1);
+        }
+
+        @Override
+        public Object getSelectedItem() {
+            return selected;
+        }
+    }
+}
\ No newline at end of file
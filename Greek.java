@@ -0,0 +1,29 @@
+// Option sensitivities available for strategy-level risk views. Values are per unit of each leg's
+// quantity; theta is per calendar day and vega per volatility point, as in BlackScholes.
+public enum Greek {
+    DELTA("Delta"), GAMMA("Gamma"), THETA("Theta"), VEGA("Vega");
+
+    private final String label;
+
+    Greek(String label) {
+        this.label = label;
+    }
+
+    public double value(OptionLeg.Type type, double spot, double strike, double years, double volatility, double rate) {
+        switch (this) {
+            case DELTA:
+                return BlackScholes.delta(type, spot, strike, years, volatility, rate);
+            case GAMMA:
+                return BlackScholes.gamma(type, spot, strike, years, volatility, rate);
+            case THETA:
+                return BlackScholes.theta(type, spot, strike, years, volatility, rate);
+            default:
+                return BlackScholes.vega(type, spot, strike, years, volatility, rate);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
\ No newline at end of file
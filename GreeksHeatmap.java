@@ -0,0 +1,248 @@
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.*;
+
+// Heatmap of a strategy Greek over underlying price (x) and days to expiry (y, today at the top).
+// The surface is computed in tiles in the common fork-join pool: a coarse pass first, then finer passes.
+// Each tile is coloured into a buffer of its own and handed to the EDT, which copies it into the image
+// and repaints it, so the image is only ever touched on the EDT. Any parameter change or resize
+// abandons the in-flight surface.
+public class GreeksHeatmap extends JPanel {
+
+    private static final int PADDING = 50;
+    private static final int LEGEND_WIDTH = 80;
+    private static final int TILE = 64;
+    private static final int[] BLOCK_SIZES = {16, 4, 1}; // Must divide TILE
+
+    private final DecimalFormat df = new DecimalFormat("#.####");
+    private final AtomicInteger generation = new AtomicInteger();
+    private OptionStrategy strategy;
+    private Greek greek = Greek.DELTA;
+    private double volatility = 0.30;
+    private double riskFreeRate = 0.05;
+    private volatile Surface surface;
+
+    public GreeksHeatmap(OptionStrategy strategy) {
+        this.strategy = strategy;
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                restart();
+            }
+        });
+    }
+
+    public void updateHeatmap(OptionStrategy strategy, Greek greek, double volatility, double riskFreeRate) {
+        this.strategy = strategy;
+        this.greek = greek;
+        this.volatility = volatility;
+        this.riskFreeRate = riskFreeRate;
+        restart();
+    }
+
+    private void restart() {
+        int plotWidth = getWidth() - 2 * PADDING - LEGEND_WIDTH;
+        int plotHeight = getHeight() - 2 * PADDING;
+        long daysToExpiry = strategy.daysToExpiry(LocalDate.now());
+        int id = generation.incrementAndGet(); // Invalidates every tile still queued for the old surface
+        if (plotWidth <= 0 || plotHeight <= 0 || daysToExpiry <= 0 || !(strategy.referencePrice() > 0)) {
+            surface = null;
+        } else {
+            surface = new Surface(id, strategy, greek, volatility, riskFreeRate,
+                    strategy.referencePrice() * 2, daysToExpiry, plotWidth, plotHeight);
+            surface.submitPass(0);
+        }
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Surface current = surface;
+        g2d.setColor(Color.BLACK);
+        if (current == null) {
+            g2d.drawString("Greeks heatmap needs a strategy with a future expiration date (YYYY-MM-DD).", PADDING, PADDING);
+            return;
+        }
+        String status = current.pass < BLOCK_SIZES.length ? " (refining " + (current.pass + 1) + "/" + BLOCK_SIZES.length + ")" : "";
+        g2d.drawString(current.greek + " heatmap - " + current.strategy.name() + ", Expiration: "
+                + current.strategy.expirationDate() + status, 10, 20);
+
+        g2d.drawImage(current.image, PADDING, PADDING, null);
+        g2d.drawRect(PADDING, PADDING, current.width, current.height);
+
+        // Price axis along the bottom, days to expiry down the side
+        int numLabs = 5;
+        for (int i = 0; i <= numLabs; i++) {
+            double fraction = (double) i / numLabs;
+            int x = PADDING + (int) (fraction * current.width);
+            g2d.drawString("$" + df.format(fraction * current.endPrice), x - 15, PADDING + current.height + 18);
+            int y = PADDING + (int) (fraction * current.height);
+            g2d.drawString(df.format(current.daysToExpiry * (1 - fraction)) + "d", PADDING - 40, y + 5);
+        }
+        g2d.drawString("Underlying Price", PADDING + current.width / 2 - 45, PADDING + current.height + 35);
+        g2d.drawString("Days to Expiry", 10, PADDING - 10);
+
+        // Legend: colour bar from -scale (bottom) to +scale (top)
+        int legendX = PADDING + current.width + 20;
+        for (int y = 0; y < current.height; y++) {
+            double value = current.colorScale * (1 - 2.0 * y / current.height);
+            g2d.setColor(new Color(current.color(value)));
+            g2d.drawLine(legendX, PADDING + y, legendX + 15, PADDING + y);
+        }
+        g2d.setColor(Color.BLACK);
+        g2d.drawString(df.format(current.colorScale), legendX + 20, PADDING + 5);
+        g2d.drawString("0", legendX + 20, PADDING + current.height / 2 + 5);
+        g2d.drawString(df.format(-current.colorScale), legendX + 20, PADDING + current.height);
+    }
+
+    private final class Surface {
+
+        final int id;
+        final OptionStrategy strategy;
+        final Greek greek;
+        final double volatility;
+        final double riskFreeRate;
+        final double endPrice;
+        final double daysToExpiry;
+        final int width;
+        final int height;
+        final BufferedImage image; // EDT only
+        final int tilesX;
+        final int tilesY;
+        final int coarseColumns;
+        final double[] coarseValues;
+        final AtomicInteger pendingTiles = new AtomicInteger();
+        volatile double colorScale = 1;
+        volatile int pass;
+
+        Surface(int id, OptionStrategy strategy, Greek greek, double volatility, double riskFreeRate,
+                double endPrice, double daysToExpiry, int width, int height) {
+            this.id = id;
+            this.strategy = strategy;
+            this.greek = greek;
+            this.volatility = volatility;
+            this.riskFreeRate = riskFreeRate;
+            this.endPrice = endPrice;
+            this.daysToExpiry = daysToExpiry;
+            this.width = width;
+            this.height = height;
+            this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            this.tilesX = (width + TILE - 1) / TILE;
+            this.tilesY = (height + TILE - 1) / TILE;
+            int block = BLOCK_SIZES[0];
+            this.coarseColumns = (width + block - 1) / block;
+            this.coarseValues = new double[coarseColumns * ((height + block - 1) / block)];
+        }
+
+        boolean isStale() {
+            return id != generation.get();
+        }
+
+        void submitPass(int pass) {
+            this.pass = pass;
+            pendingTiles.set(tilesX * tilesY);
+            for (int tileY = 0; tileY < tilesY; tileY++) {
+                for (int tileX = 0; tileX < tilesX; tileX++) {
+                    int x = tileX;
+                    int y = tileY;
+                    ForkJoinPool.commonPool().execute(() -> computeTile(pass, x, y));
+                }
+            }
+        }
+
+        private void computeTile(int pass, int tileX, int tileY) {
+            if (isStale()) {
+                return;
+            }
+            int block = BLOCK_SIZES[pass];
+            int x0 = tileX * TILE;
+            int y0 = tileY * TILE;
+            int x1 = Math.min(width, x0 + TILE);
+            int y1 = Math.min(height, y0 + TILE);
+            int[] tile = pass == 0 ? null : new int[(x1 - x0) * (y1 - y0)];
+            for (int y = y0; y < y1; y += block) {
+                if (isStale()) {
+                    return;
+                }
+                double years = BlackScholes.yearsFromDays(daysToExpiry * (1 - (y + block / 2.0) / height));
+                for (int x = x0; x < x1; x += block) {
+                    double price = endPrice * (x + block / 2.0) / width;
+                    double value = strategy.greek(greek, price, years, volatility, riskFreeRate);
+                    if (pass == 0) {
+                        coarseValues[(y / block) * coarseColumns + x / block] = value;
+                    } else {
+                        fillBlock(tile, x1 - x0, y1 - y0, x - x0, y - y0, block, color(value));
+                    }
+                }
+            }
+            if (pass > 0) {
+                publish(tile, x0, y0, x1 - x0, y1 - y0);
+            }
+            if (pendingTiles.decrementAndGet() == 0) {
+                passCompleted(pass);
+            }
+        }
+
+        // The coarse pass fixes the colour scale, so refinements only sharpen the picture
+        private void passCompleted(int pass) {
+            if (pass == 0) {
+                double scale = 0;
+                for (double value : coarseValues) {
+                    scale = Math.max(scale, Math.abs(value));
+                }
+                colorScale = scale > 0 ? scale : 1;
+                int block = BLOCK_SIZES[0];
+                int[] coarse = new int[width * height];
+                for (int i = 0; i < coarseValues.length; i++) {
+                    fillBlock(coarse, width, height, (i % coarseColumns) * block, (i / coarseColumns) * block, block, color(coarseValues[i]));
+                }
+                publish(coarse, 0, 0, width, height);
+            }
+            if (pass + 1 < BLOCK_SIZES.length) {
+                submitPass(pass + 1);
+            } else {
+                this.pass = BLOCK_SIZES.length;
+                repaint();
+            }
+        }
+
+        // Copies finished pixels into the image on the EDT, in the order they were handed over, so a
+        // refinement always lands on top of the coarse pass.
+        private void publish(int[] rgb, int x, int y, int w, int h) {
+            SwingUtilities.invokeLater(() -> {
+                if (!isStale()) {
+                    image.setRGB(x, y, w, h, rgb, 0, w);
+                    repaint(PADDING + x, PADDING + y, w, h);
+                }
+            });
+        }
+
+        // Fills a block of a bufferWidth x bufferHeight buffer, clipped to its edges.
+        private void fillBlock(int[] buffer, int bufferWidth, int bufferHeight, int x, int y, int block, int rgb) {
+            int xEnd = Math.min(bufferWidth, x + block);
+            int yEnd = Math.min(bufferHeight, y + block);
+            for (int row = y; row < yEnd; row++) {
+                int offset = row * bufferWidth;
+                for (int column = x; column < xEnd; column++) {
+                    buffer[offset + column] = rgb;
+                }
+            }
+        }
+
+        // Diverging scale: blue for negative values, white at zero, red for positive values
+        int color(double value) {
+            double t = Math.max(-1, Math.min(1, value / colorScale));
+            int fade = (int) Math.round(255 * (1 - Math.abs(t)));
+            return t >= 0 ? (255 << 16) | (fade << 8) | fade : (fade << 16) | (fade << 8) | 255;
+        }
+    }
+}
\ No newline at end of file
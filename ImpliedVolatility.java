@@ -0,0 +1,133 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Black-Scholes implied volatility for whole option chains in one call, over parallel primitive arrays.
+//
+// Each quote is solved by Newton's method on the volatility, safeguarded by a bracket that every
+// iteration tightens: the price is increasing in volatility, so the sign of the pricing error tells
+// which side of the root the iterate is on, and a Newton step that leaves the bracket (or a vega too
+// small to trust) falls back to bisection. Convergence is quadratic near the root and never worse
+// than bisection.
+//
+// Quotes are grouped by expiry and each expiry is solved on its own fork-join task, walking its
+// strikes in ascending order so each solve starts from its neighbour's volatility: smiles are smooth,
+// so the warm start is usually within a few Newton steps of the answer.
+public final class ImpliedVolatility {
+
+    public static final byte CALL = 0;
+    public static final byte PUT = 1;
+
+    private static final double MIN_VOLATILITY = 1e-6;
+    private static final double MAX_VOLATILITY = 10; // 1000%
+    private static final double DEFAULT_GUESS = 0.3;
+    private static final double PRICE_TOLERANCE = 1e-10;
+    private static final double VOLATILITY_TOLERANCE = 1e-12;
+    private static final int MAX_ITERATIONS = 100;
+
+    private ImpliedVolatility() {
+    }
+
+    // Solves every quote of a chain into volatilities (same length as the inputs). Types are CALL or PUT,
+    // years the time to expiry and prices the option premiums. A quote gets NaN when no volatility
+    // reproduces its price: at or beyond the no-arbitrage bounds, above MAX_VOLATILITY, or already expired.
+    public static void solve(double spot, double rate, byte[] types, double[] strikes, double[] years,
+                             double[] prices, double[] volatilities) {
+        int count = types.length;
+        if (strikes.length != count || years.length != count || prices.length != count || volatilities.length != count) {
+            throw new IllegalArgumentException("Chain arrays differ in length");
+        }
+        if (count == 0) {
+            return;
+        }
+        // Order quotes by (expiry, strike) with one primitive sort: each key is the quote's rank in
+        // that order times the quote count, plus its index
+        double[] distinctYears = distinct(years);
+        double[] distinctStrikes = distinct(strikes);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            long expiryRank = Arrays.binarySearch(distinctYears, years[i]);
+            long strikeRank = Arrays.binarySearch(distinctStrikes, strikes[i]);
+            keys[i] = Math.addExact(Math.multiplyExact(expiryRank * distinctStrikes.length + strikeRank, (long) count), i);
+        }
+        Arrays.sort(keys);
+        int[] order = new int[count];
+        int[] groupStart = new int[distinctYears.length + 1];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) (keys[i] % count);
+            groupStart[(int) (keys[i] / count / distinctStrikes.length) + 1]++;
+        }
+        for (int group = 0; group < distinctYears.length; group++) {
+            groupStart[group + 1] += groupStart[group];
+        }
+
+        IntStream.range(0, distinctYears.length).parallel().forEach(group -> {
+            double guess = DEFAULT_GUESS;
+            for (int position = groupStart[group]; position < groupStart[group + 1]; position++) {
+                int i = order[position];
+                double volatility = solve(types[i] == CALL, spot, strikes[i], years[i], rate, prices[i], guess);
+                volatilities[i] = volatility;
+                if (!Double.isNaN(volatility)) {
+                    guess = volatility;
+                }
+            }
+        });
+    }
+
+    // Single quote, starting from the given volatility guess; NaN when no volatility reproduces the price.
+    public static double solve(boolean call, double spot, double strike, double years, double rate, double price, double guess) {
+        if (!(years > 0) || !(spot > 0) || !(strike > 0) || !(price > 0)) {
+            return Double.NaN;
+        }
+        double discountedStrike = strike * Math.exp(-rate * years);
+        double lowerBound = call ? Math.max(0, spot - discountedStrike) : Math.max(0, discountedStrike - spot);
+        double upperBound = call ? spot : discountedStrike;
+        if (!(price > lowerBound) || !(price < upperBound)) {
+            return Double.NaN;
+        }
+        double logMoneyness = Math.log(spot / strike);
+        double sqrtYears = Math.sqrt(years);
+        double low = MIN_VOLATILITY;
+        double high = MAX_VOLATILITY;
+        double volatility = Math.max(low, Math.min(high, guess > 0 ? guess : DEFAULT_GUESS));
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double volSqrtT = volatility * sqrtYears;
+            double d1 = (logMoneyness + (rate + 0.5 * volatility * volatility) * years) / volSqrtT;
+            double d2 = d1 - volSqrtT;
+            double model = call
+                    ? spot * BlackScholes.cumulativeNormal(d1) - discountedStrike * BlackScholes.cumulativeNormal(d2)
+                    : discountedStrike * BlackScholes.cumulativeNormal(-d2) - spot * BlackScholes.cumulativeNormal(-d1);
+            double error = model - price;
+            if (Math.abs(error) <= PRICE_TOLERANCE) {
+                return volatility;
+            }
+            if (error > 0) {
+                high = volatility;
+            } else {
+                low = volatility;
+            }
+            double vega = spot * BlackScholes.normalDensity(d1) * sqrtYears;
+            double next = volatility - error / vega;
+            if (!(next > low && next < high)) {
+                next = 0.5 * (low + high);
+            }
+            if (Math.abs(next - volatility) <= VOLATILITY_TOLERANCE || high - low <= VOLATILITY_TOLERANCE) {
+                // Converging on the cap with every iterate still under the price: the root lies above it
+                return high == MAX_VOLATILITY && MAX_VOLATILITY - next <= VOLATILITY_TOLERANCE ? Double.NaN : next;
+            }
+            volatility = next;
+        }
+        return Double.NaN; // Not converged
+    }
+
+    private static double[] distinct(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || Double.compare(sorted[i], sorted[size - 1]) != 0) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+}
\ No newline at end of file
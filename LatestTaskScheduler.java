@@ -0,0 +1,84 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.SwingUtilities;
+
+// Runs background computations where only the newest request matters, such as re-rendering a chart
+// while its inputs are being typed. Scheduling a task makes every earlier one stale: a stale task sees
+// its cancellation flag turn true (and may throw CancellationException to stop early), and its result
+// is dropped instead of being handed to the EDT. At most one task per scheduler runs at a time; newer
+// requests made meanwhile collapse into a single pending one, so a burst of edits costs at most one
+// wasted computation. Tasks of every scheduler share one VirtualThreads executor.
+public final class LatestTaskScheduler<T> {
+
+    private static final ExecutorService EXECUTOR = VirtualThreads.newExecutor("background-work");
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+    private boolean running;
+    private Runnable pending;
+
+    // work receives a flag that turns true once the task is stale; onEventThread runs on the EDT with the result.
+    // A failure is printed to stderr.
+    public void schedule(Function<BooleanSupplier, T> work, Consumer<T> onEventThread) {
+        schedule(work, onEventThread, e -> System.err.println("Background computation failed: " + e));
+    }
+
+    // As above, but a task that fails while still current hands what it threw to onFailure on the EDT.
+    public void schedule(Function<BooleanSupplier, T> work, Consumer<T> onEventThread, Consumer<Throwable> onFailure) {
+        long id = generation.incrementAndGet();
+        Runnable task = () -> run(id, work, onEventThread, onFailure);
+        synchronized (lock) {
+            if (running) {
+                pending = task;
+                return;
+            }
+            running = true;
+        }
+        EXECUTOR.execute(task);
+    }
+
+    // Makes the current and pending tasks stale without scheduling a new one.
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    private void run(long id, Function<BooleanSupplier, T> work, Consumer<T> onEventThread, Consumer<Throwable> onFailure) {
+        BooleanSupplier cancelled = () -> generation.get() != id;
+        try {
+            if (!cancelled.getAsBoolean()) {
+                T result = work.apply(cancelled);
+                if (!cancelled.getAsBoolean()) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (!cancelled.getAsBoolean()) {
+                            onEventThread.accept(result);
+                        }
+                    });
+                }
+            }
+        } catch (CancellationException e) {
+            // Superseded by a newer request
+        } catch (RuntimeException | Error e) {
+            if (!cancelled.getAsBoolean()) {
+                SwingUtilities.invokeLater(() -> {
+                    if (!cancelled.getAsBoolean()) {
+                        onFailure.accept(e);
+                    }
+                });
+            }
+        } finally {
+            Runnable next;
+            synchronized (lock) {
+                next = pending;
+                pending = null;
+                running = next != null;
+            }
+            if (next != null) {
+                EXECUTOR.execute(next);
+            }
+        }
+    }
+}
\ No newline at end of file
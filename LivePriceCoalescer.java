@@ -0,0 +1,58 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+import javax.swing.Timer;
+
+// Collapses a burst of ticks into at most one update per frame. Feed threads only publish the
+// latest price into an atomic; a Swing timer running at the configured frame rate hands the
+// newest price to the EDT callback, and only when a tick has arrived since the previous frame.
+public final class LivePriceCoalescer implements DoubleConsumer {
+
+    private final AtomicLong latestPriceBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+    private final AtomicLong ticksReceived = new AtomicLong();
+    private final DoubleConsumer onFrame;
+    private final Timer frameTimer;
+    private long ticksDelivered;
+    private long framesDelivered;
+
+    public LivePriceCoalescer(int framesPerSecond, DoubleConsumer onFrame) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Frame rate must be positive: " + framesPerSecond);
+        }
+        this.onFrame = onFrame;
+        this.frameTimer = new Timer(Math.max(1, 1000 / framesPerSecond), e -> deliverFrame());
+        frameTimer.setCoalesce(true);
+    }
+
+    // Called on the feed thread for every tick.
+    @Override
+    public void accept(double price) {
+        latestPriceBits.set(Double.doubleToRawLongBits(price));
+        ticksReceived.incrementAndGet();
+    }
+
+    public void start() {
+        frameTimer.start();
+    }
+
+    public void stop() {
+        frameTimer.stop();
+    }
+
+    public long ticksReceived() {
+        return ticksReceived.get();
+    }
+
+    public long framesDelivered() {
+        return framesDelivered;
+    }
+
+    private void deliverFrame() {
+        long ticks = ticksReceived.get();
+        if (ticks == ticksDelivered) {
+            return;
+        }
+        ticksDelivered = ticks;
+        framesDelivered++;
+        onFrame.accept(Double.longBitsToDouble(latestPriceBits.get()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+import java.awt.GridLayout;
+import java.time.LocalDate;
+import java.util.Map;
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentListener;
+
+public final class LongPutCard implements StrategyCard {
+
+    private JTextField strikeField;
+    private JTextField premiumField;
+    private JTextField expirationField;
+    private LongPutPayoff chart;
+
+    @Override
+    public String name() {
+        return "Long Put";
+    }
+
+    @Override
+    public JComponent createInput(DocumentListener onEdit) {
+        JPanel input = new JPanel(new GridLayout(3, 2, 5, 5));
+        input.setBorder(new TitledBorder("Long Put Parameters"));
+        input.add(new JLabel("Strike Price:"));
+        strikeField = new JTextField();
+        input.add(strikeField);
+        input.add(new JLabel("Premium:"));
+        premiumField = new JTextField();
+        input.add(premiumField);
+        input.add(new JLabel("Expiration Date (YYYY-MM-DD):"));
+        expirationField = new JTextField();
+        input.add(expirationField);
+        for (JTextField field : new JTextField[] {strikeField, premiumField, expirationField}) {
+            field.getDocument().addDocumentListener(onEdit);
+        }
+        return input;
+    }
+
+    @Override
+    public PayoffChart createChart() {
+        chart = new LongPutPayoff(0, 0, "");
+        return chart;
+    }
+
+    @Override
+    public void apply() {
+        double strikePrice = Double.parseDouble(strikeField.getText());
+        double premium = Double.parseDouble(premiumField.getText());
+        chart.updateParameters(strikePrice, premium, expirationField.getText());
+    }
+
+    @Override
+    public void fillFromChain(OptionChain chain, int symbolId, LocalDate expiration) {
+        int row = chain.nearest(symbolId, (int) expiration.toEpochDay(), PositionBook.PUT,
+                StrategyCard.chainStrike(strikeField, chain, symbolId, expiration));
+        StrategyCard.fillQuote(chain, row, strikeField, premiumField);
+        expirationField.setText(expiration.toString());
+    }
+
+    @Override
+    public void save(Map<String, String> settings) {
+        settings.put("put.strike", strikeField.getText());
+        settings.put("put.premium", premiumField.getText());
+        settings.put("put.expiration", expirationField.getText());
+    }
+
+    @Override
+    public void restore(Map<String, String> settings) {
+        strikeField.setText(settings.getOrDefault("put.strike", strikeField.getText()));
+        premiumField.setText(settings.getOrDefault("put.premium", premiumField.getText()));
+        expirationField.setText(settings.getOrDefault("put.expiration", expirationField.getText()));
+    }
+}
\ No newline at end of file
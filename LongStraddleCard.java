@@ -0,0 +1,84 @@
+import java.awt.GridLayout;
+import java.time.LocalDate;
+import java.util.Map;
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentListener;
+
+public final class LongStraddleCard implements StrategyCard {
+
+    private JTextField strikeField;
+    private JTextField callPremiumField;
+    private JTextField putPremiumField;
+    private JTextField expirationField;
+    private LongStraddlePayoff chart;
+
+    @Override
+    public String name() {
+        return "Long Straddle";
+    }
+
+    @Override
+    public JComponent createInput(DocumentListener onEdit) {
+        JPanel input = new JPanel(new GridLayout(4, 2, 5, 5));
+        input.setBorder(new TitledBorder("Long Straddle Parameters"));
+        input.add(new JLabel("Strike Price:"));
+        strikeField = new JTextField();
+        input.add(strikeField);
+        input.add(new JLabel("Call Premium:"));
+        callPremiumField = new JTextField();
+        input.add(callPremiumField);
+        input.add(new JLabel("Put Premium:"));
+        putPremiumField = new JTextField();
+        input.add(putPremiumField);
+        input.add(new JLabel("Expiration Date (YYYY-MM-DD):"));
+        expirationField = new JTextField();
+        input.add(expirationField);
+        for (JTextField field : new JTextField[] {strikeField, callPremiumField, putPremiumField, expirationField}) {
+            field.getDocument().addDocumentListener(onEdit);
+        }
+        return input;
+    }
+
+    @Override
+    public PayoffChart createChart() {
+        chart = new LongStraddlePayoff(0, 0, 0, "");
+        return chart;
+    }
+
+    @Override
+    public void apply() {
+        double strikePrice = Double.parseDouble(strikeField.getText());
+        double callPremium = Double.parseDouble(callPremiumField.getText());
+        double putPremium = Double.parseDouble(putPremiumField.getText());
+        chart.updateParameters(strikePrice, callPremium, putPremium, expirationField.getText());
+    }
+
+    // The put is the one quoted at the call's strike, so both legs share it.
+    @Override
+    public void fillFromChain(OptionChain chain, int symbolId, LocalDate expiration) {
+        int expiryDay = (int) expiration.toEpochDay();
+        int callRow = chain.nearest(symbolId, expiryDay, PositionBook.CALL,
+                StrategyCard.chainStrike(strikeField, chain, symbolId, expiration));
+        StrategyCard.fillQuote(chain, callRow, strikeField, callPremiumField);
+        int putRow = callRow < 0 ? -1 : chain.nearest(symbolId, expiryDay, PositionBook.PUT, chain.strike(callRow));
+        StrategyCard.fillQuote(chain, putRow, null, putPremiumField);
+        expirationField.setText(expiration.toString());
+    }
+
+    @Override
+    public void save(Map<String, String> settings) {
+        settings.put("straddle.strike", strikeField.getText());
+        settings.put("straddle.callPremium", callPremiumField.getText());
+        settings.put("straddle.putPremium", putPremiumField.getText());
+        settings.put("straddle.expiration", expirationField.getText());
+    }
+
+    @Override
+    public void restore(Map<String, String> settings) {
+        strikeField.setText(settings.getOrDefault("straddle.strike", strikeField.getText()));
+        callPremiumField.setText(settings.getOrDefault("straddle.callPremium", callPremiumField.getText()));
+        putPremiumField.setText(settings.getOrDefault("straddle.putPremium", putPremiumField.getText()));
+        expirationField.setText(settings.getOrDefault("straddle.expiration", expirationField.getText()));
+    }
+}
\ No newline at end of file
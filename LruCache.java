@@ -0,0 +1,134 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+// Thread-safe least-recently-used cache bounded by an estimate of the bytes its values hold. Values are
+// weighed when stored; values that keep growing after being cached (such as a CurveTileCache filling in
+// tiles) call reweigh so they are charged for what they hold now. Keeps hit, miss and eviction counts
+// for tuning the budget.
+public final class LruCache<K, V> {
+
+    private final String name;
+    private final long maxBytes;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruCache(String name, long maxBytes, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    // Budget for a cache allowed the given fraction of the maximum heap.
+    public static long heapFraction(double fraction) {
+        return (long) (Runtime.getRuntime().maxMemory() * fraction);
+    }
+
+    // Returns the cached value, or null (counted as a miss) when there is none.
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    // Weighs the value cached for the key again, evicting others if it grew past the budget. Does nothing
+    // when the key is not cached, or holds a different value (one put since the caller fetched its own).
+    public synchronized void reweigh(K key, V value) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.value != value) {
+            return;
+        }
+        long weight = weigher.applyAsLong(value);
+        bytes += weight - entry.weight;
+        entry.weight = weight;
+        if (weight > maxBytes) {
+            entries.remove(key);
+            bytes -= weight;
+            evictions++;
+        } else {
+            evict(key);
+        }
+    }
+
+    // Stores the value unless it alone exceeds the budget, evicting the least recently used entries to make room.
+    public synchronized void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        Entry<V> previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.weight;
+        }
+        if (weight > maxBytes) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, weight));
+        bytes += weight;
+        evict(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("%s: %d entries, %.1f of %.1f MB, %d hits, %d misses (%.0f%% hit rate), %d evictions",
+                name, entries.size(), bytes / 1e6, maxBytes / 1e6, hits, misses,
+                lookups == 0 ? 0.0 : 100.0 * hits / lookups, evictions);
+    }
+
+    // Drops the eldest entries until the cache fits its budget again, sparing the one just used.
+    private void evict(K keep) {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            bytes -= entry.getValue().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Parallel CSV parsing straight from memory-mapped bytes. The file is split into byte ranges, each
+// mapped and parsed by its own chunk; a line belongs to the range its first byte falls in. Subclasses
+// parse one line at a time into their own columns with the field helpers here, which create no String
+// or object per line except for the symbol table.
+abstract class MappedCsvChunk {
+
+    static final long CHUNK_BYTES = 32L << 20;
+    static final int MAX_LINE = 4096;
+    private static final int SCANNED_SYMBOLS = 16;
+
+    final List<String> symbols = new ArrayList<>();
+    ByteBuffer bytes;
+    long fileOffset;
+
+    private final Map<String, Integer> symbolTable = new HashMap<>();
+    private final List<byte[]> symbolBytes = new ArrayList<>(); // Raw bytes each symbol was first seen as, by id
+    private byte[] lastSymbol = new byte[0];
+    private int lastSymbolId = -1;
+
+    // Parses the whole file with one chunk per byte range, returned in file order.
+    static <T extends MappedCsvChunk> T[] parse(FileChannel channel, Supplier<T> newChunk, IntFunction<T[]> newArray) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, (size + CHUNK_BYTES - 1) / CHUNK_BYTES);
+        T[] parsed = newArray.apply(chunks);
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            long from = chunk * CHUNK_BYTES;
+            long to = Math.min(size, from + CHUNK_BYTES);
+            // Map one byte early to see whether the range starts a line, and a little past the end so
+            // the last line that starts inside the range can be finished
+            long mapStart = Math.max(0, from - 1);
+            long mapEnd = Math.min(size, to + MAX_LINE);
+            T parser = newChunk.get();
+            parser.run(mapStart, map(channel, mapStart, mapEnd - mapStart), (int) (to - mapStart), mapEnd == size);
+            parsed[chunk] = parser;
+        });
+        return parsed;
+    }
+
+    static MappedByteBuffer map(FileChannel channel, long position, long length) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Parses the line between start and end (exclusive, without the line break); blank lines are skipped.
+    abstract void parseLine(int start, int end);
+
+    // Parses every line whose first byte lies before rangeEnd. All but the first chunk skip to the byte
+    // after the first new line, since the line in progress there belongs to the previous chunk.
+    void run(long fileOffset, ByteBuffer bytes, int rangeEnd, boolean endOfFile) {
+        this.fileOffset = fileOffset;
+        this.bytes = bytes;
+        int limit = bytes.limit();
+        int position = 0;
+        if (fileOffset > 0) {
+            while (position < limit && bytes.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+        while (position < rangeEnd && position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && !endOfFile) {
+                throw new IllegalArgumentException("Line longer than " + MAX_LINE + " bytes at offset " + (fileOffset + position));
+            }
+            int end = lineEnd > position && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (end > position) {
+                parseLine(position, end);
+            }
+            position = lineEnd + 1;
+        }
+    }
+
+    // Fills fields with the start of each comma-separated field of the line, up to fields.length - 1 of
+    // them, and puts end + 1 after the last, so field i spans fields[i] to fields[i + 1] - 1. Returns the count.
+    int split(int start, int end, int[] fields) {
+        int count = 0;
+        fields[count++] = start;
+        for (int i = start; i < end && count < fields.length - 1; i++) {
+            if (bytes.get(i) == ',') {
+                fields[count++] = i + 1;
+            }
+        }
+        fields[count] = end + 1;
+        return count;
+    }
+
+    // Symbols are normally grouped, so the previous symbol is checked first; files with a few underlyings
+    // interleaved match the raw bytes of one seen before, and only then is a String made for the table
+    int symbolId(int start, int end) {
+        if (sameBytes(start, end, lastSymbol)) {
+            return lastSymbolId;
+        }
+        for (int i = 0; i < Math.min(symbolBytes.size(), SCANNED_SYMBOLS); i++) {
+            byte[] seen = symbolBytes.get(i);
+            if (sameBytes(start, end, seen)) {
+                lastSymbol = seen;
+                lastSymbolId = i;
+                return i;
+            }
+        }
+        byte[] name = new byte[end - start];
+        bytes.get(start, name);
+        String symbol = new String(name, StandardCharsets.UTF_8).trim();
+        int id = symbolTable.computeIfAbsent(symbol, s -> {
+            symbols.add(s);
+            symbolBytes.add(name);
+            return symbols.size() - 1;
+        });
+        lastSymbol = name;
+        lastSymbolId = id;
+        return id;
+    }
+
+    private boolean sameBytes(int start, int end, byte[] name) {
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (bytes.get(start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Plain decimal numbers of up to 15 digits are parsed from the bytes, where one division by a power of
+    // ten rounds exactly as the JDK would; anything else (longer mantissas, exponents, NaN) falls back to it.
+    // A field that is not a number, such as a lone sign or point, throws IllegalArgumentException.
+    double parseDouble(int start, int end, double missing) {
+        while (start < end && bytes.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && bytes.get(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            return missing;
+        }
+        int i = start;
+        boolean negative = bytes.get(i) == '-';
+        if (negative || bytes.get(i) == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b >= '0' && b <= '9') {
+                if (digits >= 15) {
+                    return slowParse(start, end);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction) {
+                    scale++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return slowParse(start, end);
+            }
+        }
+        if (digits == 0) {
+            throw notANumber(start, end);
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double slowParse(int start, int end) {
+        byte[] text = new byte[end - start];
+        bytes.get(start, text);
+        try {
+            return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw notANumber(start, end);
+        }
+    }
+
+    private IllegalArgumentException notANumber(int start, int end) {
+        byte[] text = new byte[end - start];
+        bytes.get(start, text);
+        return new IllegalArgumentException("Not a number at offset " + (fileOffset + start) + ": "
+                + new String(text, StandardCharsets.US_ASCII));
+    }
+
+    // YYYY-MM-DD as an epoch day; an empty field gives Integer.MAX_VALUE (no expiry)
+    int parseDate(int start, int end) {
+        while (start < end && bytes.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && bytes.get(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            return Integer.MAX_VALUE;
+        }
+        if (end - start != 10 || bytes.get(start + 4) != '-' || bytes.get(start + 7) != '-') {
+            throw new IllegalArgumentException("Expiration must be YYYY-MM-DD at offset " + (fileOffset + start));
+        }
+        try {
+            return (int) LocalDate.of(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2)).toEpochDay();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid expiration at offset " + (fileOffset + start) + ": " + e.getMessage());
+        }
+    }
+
+    private int digits(int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            byte b = bytes.get(i);
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("Expiration must be YYYY-MM-DD at offset " + (fileOffset + start));
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    // C, P or S (either case) as PositionBook.CALL, PUT or STOCK; -1 for anything else
+    byte parseType(int position) {
+        byte code = bytes.get(position);
+        return code == 'C' || code == 'c' ? PositionBook.CALL : code == 'P' || code == 'p' ? PositionBook.PUT
+                : code == 'S' || code == 's' ? PositionBook.STOCK : -1;
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Distribution of a strategy's expiry P&L when the underlying follows geometric Brownian motion:
+//
+//     S_T = S_0 * exp((drift - vol^2 / 2) * T + vol * sqrt(T) * Z),   Z ~ N(0, 1)
+//
+// Paths are simulated in fixed blocks, each with its own SplittableRandom split from the seed in
+// block order, so every path sees the same random numbers whatever the number of threads. Block sums
+// are added up in block order and the histogram holds integer counts, which makes the whole result
+// bit-for-bit reproducible for a given seed. Each block's terminal prices go through the PayoffEngine
+// grid kernel in one call.
+public final class MonteCarloSimulation {
+
+    private static final int BLOCK = 1 << 14;
+    private static final int HISTOGRAM_BINS = 4096;
+    private static final double Z_RANGE = 8.5; // Beyond any normal draw the generator can realistically produce
+
+    private final OptionStrategy strategy;
+    private final long paths;
+    private final double expectedValue;
+    private final double standardError;
+    private final double probabilityOfProfit;
+    private final double pnlLow;
+    private final double binWidth;
+    private final long[] histogram;
+    private final long elapsedNanos;
+
+    private MonteCarloSimulation(OptionStrategy strategy, long paths, double expectedValue, double standardError,
+                                 double probabilityOfProfit, double pnlLow, double binWidth, long[] histogram, long elapsedNanos) {
+        this.strategy = strategy;
+        this.paths = paths;
+        this.expectedValue = expectedValue;
+        this.standardError = standardError;
+        this.probabilityOfProfit = probabilityOfProfit;
+        this.pnlLow = pnlLow;
+        this.binWidth = binWidth;
+        this.histogram = histogram;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public static MonteCarloSimulation run(OptionStrategy strategy, double spot, double years, double volatility,
+                                           double drift, long paths, long seed) {
+        return run(strategy, spot, years, volatility, drift, paths, seed, 0);
+    }
+
+    // threads <= 0 runs on the common fork-join pool; the result does not depend on the thread count.
+    public static MonteCarloSimulation run(OptionStrategy strategy, double spot, double years, double volatility,
+                                           double drift, long paths, long seed, int threads) {
+        if (!(spot > 0) || !(years > 0) || volatility < 0 || paths <= 0) {
+            throw new IllegalArgumentException("Simulation needs a positive spot, time to expiry and path count");
+        }
+        if ((paths + BLOCK - 1) / BLOCK > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many paths: " + paths);
+        }
+        long start = System.nanoTime();
+        int blocks = (int) ((paths + BLOCK - 1) / BLOCK);
+        double driftTerm = (drift - 0.5 * volatility * volatility) * years;
+        double diffusion = volatility * Math.sqrt(years);
+
+        // The histogram spans every P&L reachable for |Z| <= Z_RANGE; the curve's extremes on that
+        // price range lie on its vertices
+        double[] vertices = strategy.curveVertices(spot * Math.exp(driftTerm - diffusion * Z_RANGE),
+                spot * Math.exp(driftTerm + diffusion * Z_RANGE));
+        double[] vertexPnl = new double[vertices.length];
+        strategy.engine().evaluate(vertices, vertexPnl);
+        double low = Double.POSITIVE_INFINITY;
+        double high = Double.NEGATIVE_INFINITY;
+        for (double pnl : vertexPnl) {
+            low = Math.min(low, pnl);
+            high = Math.max(high, pnl);
+        }
+        double binWidth = Math.max(high - low, 1e-9) / HISTOGRAM_BINS;
+
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] generators = new SplittableRandom[blocks];
+        for (int block = 0; block < blocks; block++) {
+            generators[block] = root.split();
+        }
+        double[] blockSums = new double[blocks];
+        double[] blockSquares = new double[blocks];
+        double pnlLow = low;
+        ForkJoinPool pool = threads <= 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(threads);
+        Accumulator total;
+        try {
+            total = pool.submit(() -> IntStream.range(0, blocks).parallel().collect(Accumulator::new, (accumulator, block) -> {
+                int count = (int) Math.min(BLOCK, paths - (long) block * BLOCK);
+                accumulator.simulate(strategy, generators[block], count, spot, driftTerm, diffusion, pnlLow, binWidth);
+                blockSums[block] = accumulator.lastSum;
+                blockSquares[block] = accumulator.lastSquares;
+            }, Accumulator::merge)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) {
+                pool.shutdown();
+            }
+        }
+
+        double sum = 0;
+        double squares = 0;
+        for (int block = 0; block < blocks; block++) {
+            sum += blockSums[block];
+            squares += blockSquares[block];
+        }
+        double mean = sum / paths;
+        double variance = Math.max(0, squares / paths - mean * mean);
+        return new MonteCarloSimulation(strategy, paths, mean, Math.sqrt(variance / paths), (double) total.wins / paths,
+                pnlLow, binWidth, total.histogram, System.nanoTime() - start);
+    }
+
+    public OptionStrategy strategy() {
+        return strategy;
+    }
+
+    public long paths() {
+        return paths;
+    }
+
+    public double expectedValue() {
+        return expectedValue;
+    }
+
+    public double standardError() {
+        return standardError;
+    }
+
+    public double probabilityOfProfit() {
+        return probabilityOfProfit;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Loss not exceeded with the given confidence (0.95 for 95% VaR), as a positive number when the
+    // quantile is a loss. Interpolated linearly inside the histogram bin holding the quantile.
+    public double valueAtRisk(double confidence) {
+        double target = (1 - confidence) * paths;
+        long cumulative = 0;
+        for (int bin = 0; bin < histogram.length; bin++) {
+            if (cumulative + histogram[bin] >= target && histogram[bin] > 0) {
+                double fraction = (target - cumulative) / histogram[bin];
+                return -(pnlLow + (bin + fraction) * binWidth);
+            }
+            cumulative += histogram[bin];
+        }
+        return -(pnlLow + histogram.length * binWidth);
+    }
+
+    public int binCount() {
+        return histogram.length;
+    }
+
+    public double binLow(int bin) {
+        return pnlLow + bin * binWidth;
+    }
+
+    public double binWidth() {
+        return binWidth;
+    }
+
+    public double probability(int bin) {
+        return (double) histogram[bin] / paths;
+    }
+
+    public String summary() {
+        return String.format("EV $%.2f (+/-%.2f), P(profit) %.1f%%, VaR95 $%.2f, VaR99 $%.2f, %,d paths",
+                expectedValue, standardError, probabilityOfProfit * 100, valueAtRisk(0.95), valueAtRisk(0.99), paths);
+    }
+
+    // Per-worker state: scratch buffers, the P&L histogram and the profitable path count.
+    private static final class Accumulator {
+
+        final long[] histogram = new long[HISTOGRAM_BINS];
+        final double[] prices = new double[BLOCK];
+        final double[] pnl = new double[BLOCK];
+        long wins;
+        double lastSum;
+        double lastSquares;
+
+        void simulate(OptionStrategy strategy, SplittableRandom random, int count, double spot,
+                      double driftTerm, double diffusion, double pnlLow, double binWidth) {
+            for (int i = 0; i < count; i++) {
+                double z = Math.max(-Z_RANGE, Math.min(Z_RANGE, random.nextGaussian()));
+                prices[i] = spot * Math.exp(driftTerm + diffusion * z);
+            }
+            strategy.engine().evaluate(prices, 0, pnl, 0, count);
+            double sum = 0;
+            double squares = 0;
+            for (int i = 0; i < count; i++) {
+                double value = pnl[i];
+                sum += value;
+                squares += value * value;
+                if (value > 0) {
+                    wins++;
+                }
+                int bin = (int) ((value - pnlLow) / binWidth);
+                histogram[Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin))]++;
+            }
+            lastSum = sum;
+            lastSquares = squares;
+        }
+
+        void merge(Accumulator other) {
+            for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+                histogram[bin] += other.histogram[bin];
+            }
+            wins += other.wins;
+        }
+    }
+}
\ No newline at end of file
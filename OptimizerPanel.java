@@ -0,0 +1,99 @@
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+// Results of a StrategyOptimizer search: the top candidates in a table, best first, above a payoff
+// chart of the selected one.
+public class OptimizerPanel extends JPanel {
+
+    private static final String[] COLUMNS = {"#", "Strategy", "Expiry", "Legs", "Score", "E[P&L]", "Max Loss", "Breakeven Move"};
+
+    private final StrategyPayoff chart = new StrategyPayoff(OptionStrategy.longCall(0, 0, ""));
+    private final JLabel statusLabel = new JLabel("Load a chain, pick an underlying and press Update Chart to search it.");
+    private final ResultsModel model = new ResultsModel();
+    private final JTable table = new JTable(model);
+
+    public OptimizerPanel() {
+        super(new BorderLayout());
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(0).setMaxWidth(30);
+        table.getColumnModel().getColumn(3).setPreferredWidth(220);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            int row = table.getSelectedRow();
+            if (!e.getValueIsAdjusting() && row >= 0) {
+                chart.updateStrategy(model.candidates.get(row).strategy());
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(0, 150));
+        JPanel header = new JPanel(new BorderLayout());
+        header.add(statusLabel, BorderLayout.NORTH);
+        header.add(scrollPane, BorderLayout.CENTER);
+        add(header, BorderLayout.NORTH);
+        add(chart, BorderLayout.CENTER);
+    }
+
+    // Chart of the selected candidate, priced and fed live prices like the other strategy charts.
+    public StrategyPayoff chart() {
+        return chart;
+    }
+
+    public void updateResults(StrategyOptimizer result) {
+        model.candidates = result.candidates();
+        model.fireTableDataChanged();
+        statusLabel.setText(result.candidates().isEmpty() ? result.summary() + "; nothing within the limits" : result.summary());
+        if (!result.candidates().isEmpty()) {
+            table.setRowSelectionInterval(0, 0);
+        }
+    }
+
+    public void setStatus(String status) {
+        statusLabel.setText(status);
+    }
+
+    private static final class ResultsModel extends AbstractTableModel {
+
+        List<StrategyOptimizer.Candidate> candidates = new ArrayList<>();
+
+        @Override
+        public int getRowCount() {
+            return candidates.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            StrategyOptimizer.Candidate candidate = candidates.get(row);
+            OptionStrategy strategy = candidate.strategy();
+            switch (column) {
+                case 0:
+                    return row + 1;
+                case 1:
+                    return candidate.family().toString();
+                case 2:
+                    return strategy.expirationDate();
+                case 3:
+                    return strategy.toSpec();
+                case 4:
+                    return String.format("%.3f", candidate.score());
+                case 5:
+                    return String.format("$%.2f", candidate.expectedPnl());
+                case 6:
+                    return String.format("$%.2f", -strategy.maxLoss());
+                default:
+                    return String.format("%.1f%%", candidate.breakevenMove() * 100);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,380 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Quotes of an option chain held column-wise in primitive arrays and indexed for lookups by underlying,
+// expiry, type and strike. Chain files are CSV, read through memory-mapped NIO and parsed in parallel
+// straight from the mapped bytes (see MappedCsvChunk):
+//
+//   underlying,expiration,type,strike,bid,ask    e.g.  SPY,2025-06-20,C,450,3.10,3.25
+//
+// (type is C or P; a header line and blank lines are skipped.) After loading, rows are sorted by
+// underlying, expiry, strike and type. The rows of one underlying and expiry are then contiguous, found
+// through a dense table of group offsets, and a strike is a binary search inside its group.
+public final class OptionChain {
+
+    private final String[] symbols;
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final int[] expiries; // Distinct expiry epoch days, ascending
+    private final int[] groupStart; // Rows of symbol s and expiries[e] are groupStart[g] until groupStart[g + 1], g = s * expiries.length + e
+    private final int[] expiryDays;
+    private final byte[] types;
+    private final double[] strikes;
+    private final double[] bids;
+    private final double[] asks;
+
+    private OptionChain(String[] symbols, int[] expiries, int[] groupStart, int[] expiryDays, byte[] types,
+                        double[] strikes, double[] bids, double[] asks) {
+        this.symbols = symbols;
+        this.expiries = expiries;
+        this.groupStart = groupStart;
+        this.expiryDays = expiryDays;
+        this.types = types;
+        this.strikes = strikes;
+        this.bids = bids;
+        this.asks = asks;
+        for (int i = 0; i < symbols.length; i++) {
+            symbolIds.put(symbols[i], i);
+        }
+    }
+
+    public static OptionChain load(Path file) throws IOException {
+        Chunk[] parsed;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            parsed = MappedCsvChunk.parse(channel, Chunk::new, Chunk[]::new);
+        }
+
+        // Merge the chunks' columns, remapping chunk-local symbol ids onto one table
+        Map<String, Integer> symbolTable = new HashMap<>();
+        List<String> symbols = new ArrayList<>();
+        int count = 0;
+        for (Chunk chunk : parsed) {
+            count += chunk.count;
+        }
+        int[] symbolIds = new int[count];
+        int[] expiryDays = new int[count];
+        byte[] types = new byte[count];
+        double[] strikes = new double[count];
+        double[] bids = new double[count];
+        double[] asks = new double[count];
+        int offset = 0;
+        for (Chunk chunk : parsed) {
+            int[] remap = new int[chunk.symbols.size()];
+            for (int i = 0; i < remap.length; i++) {
+                remap[i] = symbolTable.computeIfAbsent(chunk.symbols.get(i), s -> {
+                    symbols.add(s);
+                    return symbols.size() - 1;
+                });
+            }
+            for (int i = 0; i < chunk.count; i++) {
+                symbolIds[offset + i] = remap[chunk.symbolIds[i]];
+            }
+            System.arraycopy(chunk.expiryDays, 0, expiryDays, offset, chunk.count);
+            System.arraycopy(chunk.types, 0, types, offset, chunk.count);
+            System.arraycopy(chunk.strikes, 0, strikes, offset, chunk.count);
+            System.arraycopy(chunk.bids, 0, bids, offset, chunk.count);
+            System.arraycopy(chunk.asks, 0, asks, offset, chunk.count);
+            offset += chunk.count;
+        }
+
+        // Counting sort into (symbol, expiry) groups, then each group sorted by strike and type on its own
+        int[] expiries = distinct(expiryDays);
+        long groupCount = (long) symbols.size() * expiries.length;
+        if (groupCount >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many underlyings and expiries to index: " + groupCount);
+        }
+        int[] groups = new int[count];
+        int[] groupStart = new int[(int) groupCount + 1];
+        for (int row = 0; row < count; row++) {
+            groups[row] = symbolIds[row] * expiries.length + Arrays.binarySearch(expiries, expiryDays[row]);
+            groupStart[groups[row] + 1]++;
+        }
+        for (int group = 0; group < groupCount; group++) {
+            groupStart[group + 1] += groupStart[group];
+        }
+        int[] unsorted = new int[count];
+        int[] next = Arrays.copyOf(groupStart, (int) groupCount);
+        for (int row = 0; row < count; row++) {
+            unsorted[next[groups[row]]++] = row;
+        }
+        double[] distinctStrikes = distinct(strikes);
+        long[] keys = new long[count];
+        int[] order = new int[count];
+        IntStream.range(0, (int) groupCount).parallel().forEach(group -> {
+            int from = groupStart[group];
+            int to = groupStart[group + 1];
+            // Key: strike rank, then type, then the position inside the group
+            for (int position = from; position < to; position++) {
+                int row = unsorted[position];
+                keys[position] = (long) Arrays.binarySearch(distinctStrikes, strikes[row]) << 32
+                        | (long) types[row] << 31 | (position - from);
+            }
+            Arrays.sort(keys, from, to);
+            for (int position = from; position < to; position++) {
+                order[position] = unsorted[from + (int) (keys[position] & Integer.MAX_VALUE)];
+            }
+        });
+
+        return new OptionChain(symbols.toArray(new String[0]), expiries, groupStart, permute(expiryDays, order),
+                permute(types, order), permute(strikes, order), permute(bids, order), permute(asks, order));
+    }
+
+    public int quoteCount() {
+        return types.length;
+    }
+
+    public int symbolCount() {
+        return symbols.length;
+    }
+
+    public String symbol(int symbolId) {
+        return symbols[symbolId];
+    }
+
+    public int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    public List<String> symbols() {
+        return List.of(symbols);
+    }
+
+    // Expiration dates quoted for the underlying, earliest first.
+    public List<LocalDate> expirations(int symbolId) {
+        List<LocalDate> expirations = new ArrayList<>();
+        for (int e = 0; e < expiries.length; e++) {
+            int group = symbolId * expiries.length + e;
+            if (groupStart[group + 1] > groupStart[group]) {
+                expirations.add(LocalDate.ofEpochDay(expiries[e]));
+            }
+        }
+        return expirations;
+    }
+
+    // Row of the exact quote, or -1. Types are PositionBook.CALL or PUT.
+    public int find(int symbolId, int expiryDay, byte type, double strike) {
+        int row = nearest(symbolId, expiryDay, type, strike);
+        return row >= 0 && strikes[row] == strike ? row : -1;
+    }
+
+    // Row of the quote of that type whose strike is closest to the given one, or -1 when the expiry has none.
+    public int nearest(int symbolId, int expiryDay, byte type, double strike) {
+        int e = Arrays.binarySearch(expiries, expiryDay);
+        if (symbolId < 0 || symbolId >= symbols.length || e < 0) {
+            return -1;
+        }
+        int group = symbolId * expiries.length + e;
+        int from = groupStart[group];
+        int to = groupStart[group + 1];
+        // First row at or above the strike; rows of either type interleave, so look both ways for the type
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (strikes[middle] < strike) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int above = low;
+        while (above < to && types[above] != type) {
+            above++;
+        }
+        int below = low - 1;
+        while (below >= from && types[below] != type) {
+            below--;
+        }
+        if (below < from) {
+            return above < to ? above : -1;
+        }
+        if (above >= to) {
+            return below;
+        }
+        return strike - strikes[below] <= strikes[above] - strike ? below : above;
+    }
+
+    // Strike in the middle of the expiry's quoted range, a stand-in for at the money when no spot is known.
+    public double middleStrike(int symbolId, int expiryDay) {
+        int e = Arrays.binarySearch(expiries, expiryDay);
+        if (symbolId < 0 || symbolId >= symbols.length || e < 0) {
+            return Double.NaN;
+        }
+        int group = symbolId * expiries.length + e;
+        int from = groupStart[group];
+        int to = groupStart[group + 1];
+        return from < to ? strikes[(from + to - 1) >>> 1] : Double.NaN;
+    }
+
+    public double strike(int row) {
+        return strikes[row];
+    }
+
+    public byte type(int row) {
+        return types[row];
+    }
+
+    public LocalDate expiration(int row) {
+        return LocalDate.ofEpochDay(expiryDays[row]);
+    }
+
+    public double bid(int row) {
+        return bids[row];
+    }
+
+    public double ask(int row) {
+        return asks[row];
+    }
+
+    // Mid price; one-sided quotes use the side that is there.
+    public double mid(int row) {
+        if (Double.isNaN(bids[row])) {
+            return asks[row];
+        }
+        return Double.isNaN(asks[row]) ? bids[row] : 0.5 * (bids[row] + asks[row]);
+    }
+
+    // Implied volatility of every quote of the underlying from its mid price, solved as one batch;
+    // index i is the quote at row firstRow(symbolId) + i.
+    public double[] impliedVolatilities(int symbolId, double spot, double rate, LocalDate valuationDate) {
+        int from = firstRow(symbolId);
+        int to = firstRow(symbolId + 1);
+        int count = to - from;
+        byte[] solverTypes = new byte[count];
+        double[] years = new double[count];
+        double[] prices = new double[count];
+        long today = valuationDate.toEpochDay();
+        for (int i = 0; i < count; i++) {
+            int row = from + i;
+            solverTypes[i] = types[row] == PositionBook.CALL ? ImpliedVolatility.CALL : ImpliedVolatility.PUT;
+            years[i] = BlackScholes.yearsFromDays(expiryDays[row] - today);
+            prices[i] = mid(row);
+        }
+        double[] volatilities = new double[count];
+        ImpliedVolatility.solve(spot, rate, solverTypes, Arrays.copyOfRange(strikes, from, to), years, prices, volatilities);
+        return volatilities;
+    }
+
+    // Rows of one underlying and expiry, sorted by strike and type, run from firstRow to endRow; both
+    // are 0 when the expiry is not quoted at all.
+    public int firstRow(int symbolId, int expiryDay) {
+        int e = Arrays.binarySearch(expiries, expiryDay);
+        return e < 0 ? 0 : groupStart[symbolId * expiries.length + e];
+    }
+
+    public int endRow(int symbolId, int expiryDay) {
+        int e = Arrays.binarySearch(expiries, expiryDay);
+        return e < 0 ? 0 : groupStart[symbolId * expiries.length + e + 1];
+    }
+
+    // First row of the underlying; its rows run up to firstRow(symbolId + 1), which for the last
+    // underlying is quoteCount().
+    public int firstRow(int symbolId) {
+        return groupStart[symbolId * expiries.length];
+    }
+
+    // The distinct values, ascending.
+    static int[] distinct(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.parallelSort(sorted);
+        int size = 0;
+        for (int value : sorted) {
+            if (size == 0 || value != sorted[size - 1]) {
+                sorted[size++] = value;
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    static double[] distinct(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.parallelSort(sorted);
+        int size = 0;
+        for (double value : sorted) {
+            if (size == 0 || Double.compare(value, sorted[size - 1]) != 0) {
+                sorted[size++] = value;
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] permuted = new int[order.length];
+        Arrays.parallelSetAll(permuted, i -> values[order[i]]);
+        return permuted;
+    }
+
+    private static byte[] permute(byte[] values, int[] order) {
+        byte[] permuted = new byte[order.length];
+        for (int i = 0; i < order.length; i++) {
+            permuted[i] = values[order[i]];
+        }
+        return permuted;
+    }
+
+    private static double[] permute(double[] values, int[] order) {
+        double[] permuted = new double[order.length];
+        Arrays.parallelSetAll(permuted, i -> values[order[i]]);
+        return permuted;
+    }
+
+    // Columns of the quotes on the lines that start inside one byte range of the mapped file.
+    private static final class Chunk extends MappedCsvChunk {
+
+        private final int[] fields = new int[7];
+        int count;
+        int[] symbolIds = new int[1024];
+        int[] expiryDays = new int[1024];
+        byte[] types = new byte[1024];
+        double[] strikes = new double[1024];
+        double[] bids = new double[1024];
+        double[] asks = new double[1024];
+
+        @Override
+        void parseLine(int start, int end) {
+            if (split(start, end, fields) < 6) {
+                throw new IllegalArgumentException("Expected underlying,expiration,type,strike,bid,ask at offset " + (fileOffset + start));
+            }
+            byte type = parseType(fields[2]);
+            if (type != PositionBook.CALL && type != PositionBook.PUT) {
+                if (count == 0 && fileOffset == 0) {
+                    return; // Header line
+                }
+                throw new IllegalArgumentException("Option type must be C or P at offset " + (fileOffset + fields[2]));
+            }
+            ensureCapacity();
+            symbolIds[count] = symbolId(fields[0], fields[1] - 1);
+            expiryDays[count] = parseDate(fields[1], fields[2] - 1);
+            types[count] = type;
+            strikes[count] = parseDouble(fields[3], fields[4] - 1, Double.NaN);
+            bids[count] = parseDouble(fields[4], fields[5] - 1, Double.NaN);
+            asks[count] = parseDouble(fields[5], fields[6] - 1, Double.NaN);
+            if (expiryDays[count] == Integer.MAX_VALUE || !(strikes[count] > 0)) {
+                throw new IllegalArgumentException("Missing expiration or strike at offset " + (fileOffset + start));
+            }
+            count++;
+        }
+
+        private void ensureCapacity() {
+            if (count < types.length) {
+                return;
+            }
+            int capacity = types.length * 2;
+            symbolIds = Arrays.copyOf(symbolIds, capacity);
+            expiryDays = Arrays.copyOf(expiryDays, capacity);
+            types = Arrays.copyOf(types, capacity);
+            strikes = Arrays.copyOf(strikes, capacity);
+            bids = Arrays.copyOf(bids, capacity);
+            asks = Arrays.copyOf(asks, capacity);
+        }
+    }
+}
\ No newline at end of file
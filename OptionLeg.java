@@ -0,0 +1,147 @@
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+// One leg of a strategy. Quantity is signed: positive for long, negative for short.
+// Premium is the per-unit price paid (or received when short); for stock it is the entry price.
+public final class OptionLeg {
+
+    public enum Type {
+        CALL("C"), PUT("P"), STOCK("S");
+
+        private final String code;
+
+        Type(String code) {
+            this.code = code;
+        }
+
+        public String code() {
+            return code;
+        }
+
+        static Type fromCode(String code) {
+            for (Type type : values()) {
+                if (type.code.equalsIgnoreCase(code)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown leg type: " + code);
+        }
+    }
+
+    private static final DecimalFormat SPEC_FORMAT = new DecimalFormat("0.######", DecimalFormatSymbols.getInstance(Locale.ROOT));
+
+    private final Type type;
+    private final double strike;
+    private final double quantity;
+    private final double premium;
+
+    public OptionLeg(Type type, double strike, double quantity, double premium) {
+        if (type != Type.STOCK && !(strike >= 0)) {
+            throw new IllegalArgumentException("Strike must be a non-negative number: " + strike);
+        }
+        if (Double.isNaN(quantity) || Double.isNaN(premium)) {
+            throw new IllegalArgumentException("Quantity and premium must be numbers");
+        }
+        this.type = type;
+        this.strike = type == Type.STOCK ? 0 : strike;
+        this.quantity = quantity;
+        this.premium = premium;
+    }
+
+    public static OptionLeg call(double quantity, double strike, double premium) {
+        return new OptionLeg(Type.CALL, strike, quantity, premium);
+    }
+
+    public static OptionLeg put(double quantity, double strike, double premium) {
+        return new OptionLeg(Type.PUT, strike, quantity, premium);
+    }
+
+    public static OptionLeg stock(double quantity, double entryPrice) {
+        return new OptionLeg(Type.STOCK, 0, quantity, entryPrice);
+    }
+
+    // Parses "+1 C 100 @2.5", "-2 P 95 @1.10" or "+100 S @50" (the same format toSpec writes).
+    public static OptionLeg parse(String spec) {
+        String[] tokens = spec.trim().replace("@", " @ ").trim().split("\\s+");
+        try {
+            double quantity = Double.parseDouble(tokens[0]);
+            Type type = Type.fromCode(tokens[1]);
+            int next = 2;
+            double strike = 0;
+            if (type != Type.STOCK) {
+                strike = Double.parseDouble(tokens[next++]);
+            }
+            if (tokens.length != next + 2 || !tokens[next].equals("@")) {
+                throw new IllegalArgumentException("Expected '@ <premium>' in leg: " + spec);
+            }
+            return new OptionLeg(type, strike, quantity, Double.parseDouble(tokens[next + 1]));
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed leg: " + spec, e);
+        }
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public double strike() {
+        return strike;
+    }
+
+    public double quantity() {
+        return quantity;
+    }
+
+    public double premium() {
+        return premium;
+    }
+
+    public boolean isOption() {
+        return type != Type.STOCK;
+    }
+
+    // Value of the leg at expiry for the given underlying price, before premium.
+    public double intrinsicValue(double underlyingPrice) {
+        switch (type) {
+            case CALL:
+                return quantity * Math.max(0, underlyingPrice - strike);
+            case PUT:
+                return quantity * Math.max(0, strike - underlyingPrice);
+            default:
+                return quantity * underlyingPrice;
+        }
+    }
+
+    public String toSpec() {
+        String sign = quantity >= 0 ? "+" : "";
+        synchronized (SPEC_FORMAT) {
+            String strikePart = type == Type.STOCK ? "" : " " + SPEC_FORMAT.format(strike);
+            return String.format(Locale.ROOT, "%s%s %s%s @%s", sign, SPEC_FORMAT.format(quantity), type.code(),
+                    strikePart, SPEC_FORMAT.format(premium));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof OptionLeg)) {
+            return false;
+        }
+        OptionLeg other = (OptionLeg) o;
+        return type == other.type && Double.compare(strike, other.strike) == 0
+                && Double.compare(quantity, other.quantity) == 0 && Double.compare(premium, other.premium) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + Double.hashCode(strike);
+        result = 31 * result + Double.hashCode(quantity);
+        return 31 * result + Double.hashCode(premium);
+    }
+
+    @Override
+    public String toString() {
+        return toSpec();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,314 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// An arbitrary combination of call, put and stock legs sharing one expiration date.
+// The expiry payoff is piecewise linear with kinks only at the strikes, so the curve is
+// fully described by its value at 0, its value at each distinct strike and its final slope.
+// Breakevens and the profit/loss extremes are derived from those points exactly.
+public final class OptionStrategy {
+
+    private static final double EPSILON = 1e-9;
+
+    private final String name;
+    private final String expirationDate;
+    private final List<OptionLeg> legs;
+    private final double netPremium;
+    private final double[] kinkPrices;
+    private final double[] kinkValues;
+    private final double valueAtZero;
+    private final double finalSlope;
+    private final double[] breakevens;
+    private final PayoffEngine engine;
+
+    public OptionStrategy(String name, String expirationDate, List<OptionLeg> legs) {
+        if (legs.isEmpty()) {
+            throw new IllegalArgumentException("A strategy needs at least one leg");
+        }
+        this.name = name;
+        this.expirationDate = expirationDate;
+        this.legs = Collections.unmodifiableList(new ArrayList<>(legs));
+
+        double premium = 0;
+        double stockQuantity = 0;
+        double slope = 0;
+        List<OptionLeg> options = new ArrayList<>();
+        for (OptionLeg leg : legs) {
+            premium += leg.quantity() * leg.premium();
+            if (leg.isOption()) {
+                options.add(leg);
+                if (leg.type() == OptionLeg.Type.PUT) {
+                    slope -= leg.quantity();
+                }
+            } else {
+                stockQuantity += leg.quantity();
+                slope += leg.quantity();
+            }
+        }
+        this.netPremium = premium;
+        options.sort(Comparator.comparingDouble(OptionLeg::strike));
+
+        int[] kinds = new int[options.size()];
+        double[] strikes = new double[options.size()];
+        double[] quantities = new double[options.size()];
+        double[] prices = new double[options.size()];
+        double[] values = new double[options.size()];
+        int kinkCount = 0;
+        double value = -premium; // Every option is worthless at 0 except puts, added below
+        for (OptionLeg leg : options) {
+            if (leg.type() == OptionLeg.Type.PUT) {
+                value += leg.quantity() * leg.strike();
+            }
+        }
+        this.valueAtZero = value;
+
+        // Walk the strikes in order, carrying the slope of the current linear segment
+        double previousPrice = 0;
+        for (int i = 0; i < options.size(); i++) {
+            OptionLeg leg = options.get(i);
+            kinds[i] = leg.type() == OptionLeg.Type.CALL ? PayoffEngine.CALL : PayoffEngine.PUT;
+            strikes[i] = leg.strike();
+            quantities[i] = leg.quantity();
+            if (kinkCount == 0 || leg.strike() != prices[kinkCount - 1]) {
+                value += slope * (leg.strike() - previousPrice);
+                previousPrice = leg.strike();
+                prices[kinkCount] = leg.strike();
+                values[kinkCount] = value;
+                kinkCount++;
+            }
+            slope += leg.quantity(); // Crossing a strike adds +q for calls and removes -q for puts
+        }
+        this.kinkPrices = Arrays.copyOf(prices, kinkCount);
+        this.kinkValues = Arrays.copyOf(values, kinkCount);
+        this.finalSlope = slope;
+        this.breakevens = findBreakevens();
+        this.engine = new PayoffEngine(kinds, strikes, quantities, stockQuantity, premium);
+    }
+
+    public static OptionStrategy longCall(double strikePrice, double callPrice, String expirationDate) {
+        return new OptionStrategy("Long Call", expirationDate, List.of(OptionLeg.call(1, strikePrice, callPrice)));
+    }
+
+    public static OptionStrategy longPut(double strikePrice, double putPrice, String expirationDate) {
+        return new OptionStrategy("Long Put", expirationDate, List.of(OptionLeg.put(1, strikePrice, putPrice)));
+    }
+
+    public static OptionStrategy longStraddle(double strikePrice, double callPrice, double putPrice, String expirationDate) {
+        return new OptionStrategy("Long Straddle", expirationDate,
+                List.of(OptionLeg.call(1, strikePrice, callPrice), OptionLeg.put(1, strikePrice, putPrice)));
+    }
+
+    // Legs are separated by ';' or new lines, each in the OptionLeg.parse format.
+    public static OptionStrategy parse(String name, String expirationDate, String legsSpec) {
+        List<OptionLeg> legs = new ArrayList<>();
+        for (String leg : legsSpec.split("[;\\n]")) {
+            if (!leg.isBlank()) {
+                legs.add(OptionLeg.parse(leg));
+            }
+        }
+        return new OptionStrategy(name, expirationDate, legs);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String expirationDate() {
+        return expirationDate;
+    }
+
+    public List<OptionLeg> legs() {
+        return legs;
+    }
+
+    public PayoffEngine engine() {
+        return engine;
+    }
+
+    // Total premium paid to open the strategy; negative for a net credit.
+    public double netPremium() {
+        return netPremium;
+    }
+
+    public double payoffAt(double underlyingPrice) {
+        return engine.payoffAt(underlyingPrice);
+    }
+
+    // Theoretical P&L before expiry: the Black-Scholes value of every leg minus the premium paid.
+    public double theoreticalPnl(double underlyingPrice, double years, double volatility, double rate) {
+        double value = -netPremium;
+        for (OptionLeg leg : legs) {
+            value += leg.quantity() * BlackScholes.price(leg.type(), underlyingPrice, leg.strike(), years, volatility, rate);
+        }
+        return value;
+    }
+
+    // Theoretical P&L before expiry with every option priced as American on a binomial tree of the given steps.
+    public double americanPnl(double underlyingPrice, double years, double volatility, double rate,
+                              BinomialTree.Dividends dividends, int steps) {
+        double value = -netPremium;
+        for (OptionLeg leg : legs) {
+            value += leg.quantity() * BinomialTree.price(leg.type(), underlyingPrice, leg.strike(), years, volatility,
+                    rate, dividends, steps);
+        }
+        return value;
+    }
+
+    // Sum of the legs' Greek, weighted by quantity.
+    public double greek(Greek greek, double underlyingPrice, double years, double volatility, double rate) {
+        double value = 0;
+        for (OptionLeg leg : legs) {
+            value += leg.quantity() * greek.value(leg.type(), underlyingPrice, leg.strike(), years, volatility, rate);
+        }
+        return value;
+    }
+
+    // Calendar days from the valuation date to expiry; zero or negative once expired or when the
+    // expiration date is not a valid YYYY-MM-DD string.
+    public long daysToExpiry(LocalDate valuationDate) {
+        try {
+            return ChronoUnit.DAYS.between(valuationDate, LocalDate.parse(expirationDate.trim()));
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    // Distinct strikes in ascending order; these are the only points where the slope changes.
+    public double[] strikes() {
+        return kinkPrices.clone();
+    }
+
+    public double maxStrike() {
+        return kinkPrices.length == 0 ? 0 : kinkPrices[kinkPrices.length - 1];
+    }
+
+    // Largest strike or stock entry price; charts span 0 to twice this price by default.
+    public double referencePrice() {
+        double referencePrice = maxStrike();
+        for (OptionLeg leg : legs) {
+            if (!leg.isOption()) {
+                referencePrice = Math.max(referencePrice, leg.premium());
+            }
+        }
+        return referencePrice;
+    }
+
+    public double[] breakevens() {
+        return breakevens.clone();
+    }
+
+    // Largest expiry profit over prices >= 0, or +Infinity when the payoff grows without bound.
+    public double maxProfit() {
+        if (finalSlope > EPSILON) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double max = valueAtZero;
+        for (double value : kinkValues) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    // Most negative expiry payoff over prices >= 0, or -Infinity when the loss is unbounded.
+    public double maxLoss() {
+        if (finalSlope < -EPSILON) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double min = valueAtZero;
+        for (double value : kinkValues) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    // Prices at which the expiry curve has to be sampled to draw it exactly between the two bounds:
+    // the bounds themselves plus every strike and breakeven in between, in ascending order.
+    public double[] curveVertices(double fromPrice, double toPrice) {
+        double[] vertices = new double[kinkPrices.length + breakevens.length + 2];
+        int count = 0;
+        vertices[count++] = fromPrice;
+        int k = 0;
+        int b = 0;
+        while (k < kinkPrices.length || b < breakevens.length) {
+            double next = b >= breakevens.length || (k < kinkPrices.length && kinkPrices[k] <= breakevens[b])
+                    ? kinkPrices[k++] : breakevens[b++];
+            if (next > vertices[count - 1] && next < toPrice) {
+                vertices[count++] = next;
+            }
+        }
+        if (toPrice > vertices[count - 1]) {
+            vertices[count++] = toPrice;
+        }
+        return Arrays.copyOf(vertices, count);
+    }
+
+    public String toSpec() {
+        StringBuilder spec = new StringBuilder();
+        for (OptionLeg leg : legs) {
+            if (spec.length() > 0) {
+                spec.append("; ");
+            }
+            spec.append(leg.toSpec());
+        }
+        return spec.toString();
+    }
+
+    private double[] findBreakevens() {
+        List<Double> roots = new ArrayList<>();
+        double segmentStart = 0;
+        double startValue = valueAtZero;
+        for (int i = 0; i <= kinkPrices.length; i++) {
+            if (Math.abs(startValue) < EPSILON) {
+                addRoot(roots, segmentStart);
+            }
+            if (i == kinkPrices.length) {
+                // Last segment is a ray; it crosses zero once if it slopes back towards the axis
+                if (Math.abs(finalSlope) > EPSILON && Math.signum(startValue) == -Math.signum(finalSlope)) {
+                    addRoot(roots, segmentStart - startValue / finalSlope);
+                }
+                break;
+            }
+            double endValue = kinkValues[i];
+            if ((startValue < -EPSILON && endValue > EPSILON) || (startValue > EPSILON && endValue < -EPSILON)) {
+                addRoot(roots, segmentStart + (kinkPrices[i] - segmentStart) * (-startValue / (endValue - startValue)));
+            }
+            segmentStart = kinkPrices[i];
+            startValue = endValue;
+        }
+        double[] result = new double[roots.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = roots.get(i);
+        }
+        return result;
+    }
+
+    private static void addRoot(List<Double> roots, double price) {
+        if (roots.isEmpty() || price - roots.get(roots.size() - 1) > EPSILON) {
+            roots.add(price);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof OptionStrategy)) {
+            return false;
+        }
+        OptionStrategy other = (OptionStrategy) o;
+        return name.equals(other.name) && expirationDate.equals(other.expirationDate) && legs.equals(other.legs);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * name.hashCode() + expirationDate.hashCode()) + legs.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + toSpec() + "]";
+    }
+}
\ No newline at end of file
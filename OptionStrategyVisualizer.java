@@ -1,8 +1,27 @@
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
 
 public class OptionStrategyVisualizer extends JFrame implements ActionListener {
 
@@ -12,154 +31,1034 @@ public class OptionStrategyVisualizer extends JFrame implements ActionListener {
     private JPanel controlPanel;       // Bottom 1/4 for inputs and button
     private CardLayout inputCardLayout;
     private CardLayout chartCardLayout;
-    private LongCallPayoff longCallGraph;
-    private LongPutPayoff longPutGraph;
-    private LongStraddlePayoff longStraddleGraph;
+    private ScenarioPanel scenarioPanel;
+    private JCheckBox scenarioCheckBox;
 
-    private JTextField callStrikeField;
-    private JTextField callPremiumField;
-    private JTextField callExpirationField;
+    // Strategy cards by name, in selector order, then the tool cards. A card's form and chart are built
+    // the first time it is selected or its chart is needed; until then restored settings wait in savedSettings.
+    private static final String[] TOOL_CARDS = {"Greeks Heatmap", "Portfolio", "Optimizer", "Dashboard", "Backtest"};
+    private static final System.Logger LOG = System.getLogger(OptionStrategyVisualizer.class.getName());
+    private final CustomStrategyCard customCard = new CustomStrategyCard();
+    private Map<String, StrategyCard> strategyCards;
+    private final Map<String, PayoffChart> charts = new LinkedHashMap<>(); // Of the strategy cards built so far
+    private final Set<String> builtCards = new HashSet<>();
+    private final Map<String, JTextComponent> toolFields = new LinkedHashMap<>(); // Of the tool cards built so far
+    private boolean painted;
 
-   private JTextField putStrikeField;
-    private JTextField putPremiumField;
-    private JTextField putExpirationField;
+    // Live updates while typing: every edit reschedules the chart render and cancels the stale one
+    private final DocumentListener liveUpdate = new DocumentListener() {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            applyInputs(false);
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            applyInputs(false);
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+            // Attribute changes only
+        }
+    };
+
+    private GreeksHeatmap greeksHeatmap;
+    private JComboBox<Greek> heatmapGreekSelector;
+    private JComboBox<String> heatmapSourceSelector;
 
-    private JTextField straddleStrikeField;
-    private JTextField straddleCallPremiumField;
-    private JTextField straddlePutPremiumField;
-    private JTextField straddleExpirationField;
+    private static final int PORTFOLIO_POINTS = 1000;
+    private PortfolioChart portfolioGraph;
+    private JTextField portfolioFileField;
+    private JComboBox<String> portfolioSymbolSelector;
+    private PositionBook portfolioBook;
+    private Path portfolioPath;
+
+    private JTextField volatilityField;
+    private JTextField rateField;
+    private JTextField timeSlicesField;
+    private JCheckBox americanCheckBox;
+    private JTextField dividendYieldField;
 
     private JButton updateChartButton;
 
+    private JCheckBox simulateCheckBox;
+    private JTextField simulationPathsField;
+    private JTextField simulationDriftField;
+    private JTextField simulationSeedField;
+
+    private JTextField chainFileField;
+    private JButton chainLoadButton;
+    private JComboBox<String> chainSymbolSelector;
+    private JComboBox<LocalDate> chainExpirySelector;
+    private OptionChain chain;
+
+    private OptimizerPanel optimizerPanel;
+    private JTextField optimizerTopKField;
+    private JTextField optimizerMaxLossField;
+    private JTextField optimizerMaxMoveField;
+    private JTextField optimizerSpotField;
+
+    private static final String[] DASHBOARD_SOURCES = {"Saved Strategies", "Portfolio Underlyings"};
+    private StrategyDashboard dashboard;
+    private BacktestPanel backtestPanel;
+    private JTextField backtestFileField;
+    private JTextField backtestStrategiesField;
+    private JTextField backtestStrikesField;
+    private JTextField backtestPremiumsField;
+    private JTextField backtestTenorsField;
+    private JTextField backtestResultsField;
+    private JLabel dashboardStatusLabel;
+    private JComboBox<String> dashboardSourceSelector;
+    private JTextField dashboardCellWidthField;
+    private JTextField dashboardCellHeightField;
+
+    // Saved on close and reopened on start, unless another workspace was opened or saved since
+    private static final Path DEFAULT_WORKSPACE = Paths.get(System.getProperty("user.home"), ".fluffy-options", "workspace.bin");
+    private Path workspacePath = DEFAULT_WORKSPACE;
+    private Workspace openedWorkspace;
+    private Map<String, String> savedSettings = Map.of(); // Of openedWorkspace, for cards built after it opened
+    private boolean restoring; // Set while a workspace fills in the inputs, to hold back live updates
+
+    private static final int REPLAY_TICKS_PER_SECOND = 2000;
+    private JTextField feedSourceField;
+    private JTextField feedFpsField;
+    private JButton feedButton;
+    private PriceFeed priceFeed;
+    private LivePriceCoalescer priceCoalescer;
+
     public OptionStrategyVisualizer() {
+        long start = System.nanoTime();
         setTitle("Option Strategy Visualizer");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLayout(new BorderLayout());
+        setContentPane(new JPanel(new BorderLayout()) {
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                if (!painted) {
+                    painted = true;
+                    LOG.log(System.Logger.Level.INFO, String.format("First paint %d ms after JVM start",
+                            ManagementFactory.getRuntimeMXBean().getUptime()));
+                }
+            }
+        });
 
         // Chart Panel Container (Top 3/4)
         chartPanelContainer = new JPanel(new CardLayout());
-        add(chartPanelContainer, BorderLayout.CENTER); // Center gets the larger portion
         chartCardLayout = (CardLayout) chartPanelContainer.getLayout();
+        JPanel chartArea = new JPanel(new BorderLayout());
+        chartArea.add(chartPanelContainer, BorderLayout.CENTER);
+        add(chartArea, BorderLayout.CENTER); // Center gets the larger portion
 
-        // Initial empty chart panels
-        longCallGraph = new LongCallPayoff(0, 0, "");
-        longPutGraph = new LongPutPayoff(0, 0, "");
-        longStraddleGraph = new LongStraddlePayoff(0, 0, 0, "");
-        chartPanelContainer.add(longCallGraph, "Long Call");
-        chartPanelContainer.add(longPutGraph, "Long Put");
-        chartPanelContainer.add(longStraddleGraph, "Long Straddle");
-        chartCardLayout.show(chartPanelContainer, "Long Call"); // Initial display
+        // What-if grid under the chart, shown on demand
+        scenarioPanel = new ScenarioPanel();
+        scenarioPanel.setVisible(false);
+        chartArea.add(scenarioPanel, BorderLayout.SOUTH);
 
         // Control Panel (Bottom 1/4)
         controlPanel = new JPanel(new BorderLayout());
         add(controlPanel, BorderLayout.SOUTH);
 
-        // Strategy Selection (within Control Panel)
+        // Strategy Selection (within Control Panel): the built-in strategies, any plugged in, then the tools
         JPanel strategySelectPanel = new JPanel();
         strategySelectPanel.setBorder(new TitledBorder("Select Strategy"));
-        String[] strategies = {"Long Call", "Long Straddle", "Long Put"};
-        strategySelector = new JComboBox<>(strategies);
+        strategyCards = StrategyCard.discover(new LongCallCard(), new LongStraddleCard(), new LongPutCard(), customCard);
+        List<String> cardNames = new ArrayList<>(strategyCards.keySet());
+        cardNames.addAll(Arrays.asList(TOOL_CARDS));
+        strategySelector = new JComboBox<>(cardNames.toArray(new String[0]));
         strategySelectPanel.add(strategySelector);
+        strategySelectPanel.add(new JLabel("Volatility %:"));
+        volatilityField = new JTextField("30", 4);
+        strategySelectPanel.add(volatilityField);
+        JButton impliedButton = new JButton("Implied");
+        impliedButton.setToolTipText("Set the volatility implied by the premiums of the selected strategy");
+        impliedButton.addActionListener(e -> applyImpliedVolatility());
+        strategySelectPanel.add(impliedButton);
+        strategySelectPanel.add(new JLabel("Rate %:"));
+        rateField = new JTextField("5", 4);
+        strategySelectPanel.add(rateField);
+        strategySelectPanel.add(new JLabel("Time Slices:"));
+        timeSlicesField = new JTextField("5", 3);
+        strategySelectPanel.add(timeSlicesField);
+        americanCheckBox = new JCheckBox("American");
+        americanCheckBox.setToolTipText("Price the pre-expiry curves as American options on binomial trees");
+        americanCheckBox.addActionListener(e -> applyInputs(false));
+        strategySelectPanel.add(americanCheckBox);
+        strategySelectPanel.add(new JLabel("Div Yield %:"));
+        dividendYieldField = new JTextField("0", 3);
+        strategySelectPanel.add(dividendYieldField);
         controlPanel.add(strategySelectPanel, BorderLayout.NORTH);
 
-        // Input Panel (within Control Panel)
+        // Input Panel (within Control Panel), filled in card by card as they are first selected
         inputPanel = new JPanel(new CardLayout());
         controlPanel.add(inputPanel, BorderLayout.CENTER);
         inputCardLayout = (CardLayout) inputPanel.getLayout();
 
-        // Long Call Input Fields
-        JPanel longCallInput = new JPanel(new GridLayout(3, 2, 5, 5));
-        longCallInput.setBorder(new TitledBorder("Long Call Parameters"));
-        longCallInput.add(new JLabel("Strike Price:"));
-        callStrikeField = new JTextField();
-        longCallInput.add(callStrikeField);
-        longCallInput.add(new JLabel("Premium:"));
-        callPremiumField = new JTextField();
-        longCallInput.add(callPremiumField);
-        longCallInput.add(new JLabel("Expiration Date (YYYY-MM-DD):"));
-        callExpirationField = new JTextField();
-        longCallInput.add(callExpirationField);
-        inputPanel.add(longCallInput, "Long Call");
-
-        // Long Put Input Fields
-        JPanel longPutInput = new JPanel(new GridLayout(3, 2, 5, 5));
-        longPutInput.setBorder(new TitledBorder("Long Put Parameters"));
-        longPutInput.add(new JLabel("Strike Price:"));
-        putStrikeField = new JTextField();
-        longPutInput.add(putStrikeField);
-        longPutInput.add(new JLabel("Premium:"));
-        putPremiumField = new JTextField();
-        longPutInput.add(putPremiumField);
-        longPutInput.add(new JLabel("Expiration Date (YYYY-MM-DD):"));
-        putExpirationField = new JTextField();
-        longPutInput.add(putExpirationField);
-        inputPanel.add(longPutInput, "Long Put");
-
-        // Long Straddle Input Fields
-        JPanel longStraddleInput = new JPanel(new GridLayout(4, 2, 5, 5));
-        longStraddleInput.setBorder(new TitledBorder("Long Straddle Parameters"));
-        longStraddleInput.add(new JLabel("Strike Price:"));
-        straddleStrikeField = new JTextField();
-        longStraddleInput.add(straddleStrikeField);
-        longStraddleInput.add(new JLabel("Call Premium:"));
-        straddleCallPremiumField = new JTextField();
-        longStraddleInput.add(straddleCallPremiumField);
-        longStraddleInput.add(new JLabel("Put Premium:"));
-        straddlePutPremiumField = new JTextField();
-        longStraddleInput.add(straddlePutPremiumField);
-        longStraddleInput.add(new JLabel("Expiration Date (YYYY-MM-DD):"));
-        straddleExpirationField = new JTextField();
-        longStraddleInput.add(straddleExpirationField);
-        inputPanel.add(longStraddleInput, "Long Straddle");
-
         // Update Button (within Control Panel)
         updateChartButton = new JButton("Update Chart");
         updateChartButton.addActionListener(this);
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.add(updateChartButton);
-        controlPanel.add(buttonPanel, BorderLayout.SOUTH);
+        scenarioCheckBox = new JCheckBox("Scenario Grid");
+        scenarioCheckBox.addActionListener(e -> {
+            scenarioPanel.setVisible(scenarioCheckBox.isSelected());
+            revalidate();
+            applyInputs(false);
+        });
+        buttonPanel.add(scenarioCheckBox);
+
+        // Live Feed Controls (tick file path or host:port)
+        buttonPanel.add(new JLabel("Feed:"));
+        feedSourceField = new JTextField("ticks.csv", 14);
+        buttonPanel.add(feedSourceField);
+        buttonPanel.add(new JLabel("FPS:"));
+        feedFpsField = new JTextField("30", 3);
+        buttonPanel.add(feedFpsField);
+        feedButton = new JButton("Start Feed");
+        feedButton.addActionListener(e -> toggleFeed());
+        buttonPanel.add(feedButton);
+
+        // Monte Carlo Controls (spot is the live feed price when running, else the chart's reference price)
+        JPanel simulationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        simulateCheckBox = new JCheckBox("Monte Carlo");
+        simulationPanel.add(simulateCheckBox);
+        simulationPanel.add(new JLabel("Paths:"));
+        simulationPathsField = new JTextField("10000000", 8);
+        simulationPanel.add(simulationPathsField);
+        simulationPanel.add(new JLabel("Drift %:"));
+        simulationDriftField = new JTextField("5", 4);
+        simulationPanel.add(simulationDriftField);
+        simulationPanel.add(new JLabel("Seed:"));
+        simulationSeedField = new JTextField("42", 6);
+        simulationPanel.add(simulationSeedField);
+
+        // Option Chain Controls (fill the strategy inputs from quoted strikes, mid premiums and expiries)
+        JPanel chainPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        chainPanel.add(new JLabel("Chain:"));
+        chainFileField = new JTextField("chain.csv", 12);
+        chainPanel.add(chainFileField);
+        chainLoadButton = new JButton("Load");
+        chainLoadButton.addActionListener(e -> loadChain());
+        chainPanel.add(chainLoadButton);
+        chainSymbolSelector = new JComboBox<>();
+        chainSymbolSelector.addActionListener(e -> showChainExpirations());
+        chainPanel.add(chainSymbolSelector);
+        chainExpirySelector = new JComboBox<>();
+        chainPanel.add(chainExpirySelector);
+        JButton chainFillButton = new JButton("Fill From Chain");
+        chainFillButton.addActionListener(e -> fillFromChain());
+        chainPanel.add(chainFillButton);
+
+        JPanel southPanel = new JPanel(new GridLayout(3, 1));
+        southPanel.add(chainPanel);
+        southPanel.add(simulationPanel);
+        southPanel.add(buttonPanel);
+        controlPanel.add(southPanel, BorderLayout.SOUTH);
 
         // Event Listener for Strategy Selection
-        strategySelector.addActionListener(e -> {
-            inputCardLayout.show(inputPanel, (String) strategySelector.getSelectedItem());
-            chartCardLayout.show(chartPanelContainer, (String) strategySelector.getSelectedItem());
+        strategySelector.addActionListener(e -> showCard((String) strategySelector.getSelectedItem()));
+        for (JTextComponent field : new JTextComponent[] {volatilityField, rateField, timeSlicesField, dividendYieldField}) {
+            field.getDocument().addDocumentListener(liveUpdate);
+        }
+
+        // Workspace: everything above survives restarts
+        JMenuBar menuBar = new JMenuBar();
+        JMenu workspaceMenu = new JMenu("Workspace");
+        JMenuItem openItem = new JMenuItem("Open...");
+        openItem.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(workspacePath.toAbsolutePath().getParent().toFile());
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                openWorkspace(chooser.getSelectedFile().toPath());
+            }
+        });
+        workspaceMenu.add(openItem);
+        JMenuItem saveItem = new JMenuItem("Save");
+        saveItem.addActionListener(e -> saveWorkspace(workspacePath));
+        workspaceMenu.add(saveItem);
+        JMenuItem saveAsItem = new JMenuItem("Save As...");
+        saveAsItem.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(workspacePath.toAbsolutePath().getParent().toFile());
+            if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+                saveWorkspace(chooser.getSelectedFile().toPath());
+            }
+        });
+        workspaceMenu.add(saveAsItem);
+        menuBar.add(workspaceMenu);
+        // Render and repaint timings of the charts, for diagnosing slow repaints without a profiler
+        JMenu viewMenu = new JMenu("View");
+        JCheckBoxMenuItem paintStatsItem = new JCheckBoxMenuItem("Paint Statistics", PayoffChart.isStatsOverlay());
+        paintStatsItem.addActionListener(e -> {
+            PayoffChart.setStatsOverlay(paintStatsItem.isSelected());
+            chartPanelContainer.repaint();
+        });
+        viewMenu.add(paintStatsItem);
+        menuBar.add(viewMenu);
+        setJMenuBar(menuBar);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                saveWorkspace(workspacePath);
+            }
         });
 
-        setSize(800, 700); // Adjust size as needed
+        setSize(800, 760); // Adjust size as needed
         setLocationRelativeTo(null);
+        if (Files.exists(DEFAULT_WORKSPACE)) {
+            openWorkspace(DEFAULT_WORKSPACE);
+        }
+        showCard((String) strategySelector.getSelectedItem());
         setVisible(true);
+        LOG.log(System.Logger.Level.INFO, String.format("Started in %d ms, %d ms after JVM start; %d of %d cards built",
+                (System.nanoTime() - start) / 1_000_000, ManagementFactory.getRuntimeMXBean().getUptime(),
+                builtCards.size(), strategySelector.getItemCount()));
+    }
+
+    private void showCard(String name) {
+        buildCard(name);
+        inputCardLayout.show(inputPanel, name);
+        chartCardLayout.show(chartPanelContainer, name);
+    }
+
+    // Builds a card's form and chart the first time it is needed, fills in what the open workspace saved
+    // for it and logs what that took.
+    private void buildCard(String name) {
+        if (!builtCards.add(name)) {
+            return;
+        }
+        long start = System.nanoTime();
+        StrategyCard card = strategyCards.get(name);
+        boolean wasRestoring = restoring;
+        restoring = true; // Filling in the new form is not an edit
+        try {
+            if (card != null) {
+                inputPanel.add(card.createInput(liveUpdate), name);
+                PayoffChart chart = card.createChart();
+                charts.put(name, chart);
+                chartPanelContainer.add(chart, name);
+                card.restore(savedSettings);
+            } else if (name.equals("Greeks Heatmap")) {
+                buildHeatmapCard();
+            } else if (name.equals("Portfolio")) {
+                buildPortfolioCard();
+            } else if (name.equals("Optimizer")) {
+                buildOptimizerCard();
+            } else if (name.equals("Dashboard")) {
+                buildDashboardCard();
+            } else if (name.equals("Backtest")) {
+                buildBacktestCard();
+            }
+        } finally {
+            restoring = wasRestoring;
+        }
+        if (card != null && openedWorkspace != null && !restoring) {
+            replot(name);
+        }
+        LOG.log(System.Logger.Level.INFO, String.format("Built card %s in %.1f ms", name, (System.nanoTime() - start) / 1e6));
+    }
+
+    // Greeks Heatmap (plots the strategy last applied on another card)
+    private void buildHeatmapCard() {
+        JPanel heatmapInput = new JPanel(new GridLayout(2, 2, 5, 5));
+        heatmapInput.setBorder(new TitledBorder("Greeks Heatmap Parameters"));
+        heatmapInput.add(new JLabel("Greek:"));
+        heatmapGreekSelector = new JComboBox<>(Greek.values());
+        heatmapInput.add(heatmapGreekSelector);
+        heatmapInput.add(new JLabel("Strategy:"));
+        List<String> sources = new ArrayList<>(strategyCards.keySet());
+        sources.add("Optimizer");
+        heatmapSourceSelector = new JComboBox<>(sources.toArray(new String[0]));
+        heatmapInput.add(heatmapSourceSelector);
+        for (Greek greek : Greek.values()) {
+            if (greek.name().equals(savedSettings.get("heatmap.greek"))) {
+                heatmapGreekSelector.setSelectedItem(greek);
+            }
+        }
+        if (savedSettings.containsKey("heatmap.source")) {
+            heatmapSourceSelector.setSelectedItem(savedSettings.get("heatmap.source"));
+        }
+        inputPanel.add(heatmapInput, "Greeks Heatmap");
+        greeksHeatmap = new GreeksHeatmap(OptionStrategy.longCall(0, 0, ""));
+        chartPanelContainer.add(greeksHeatmap, "Greeks Heatmap");
+    }
+
+    // Portfolio (positions file, CSV or binary, aggregated per underlying)
+    private void buildPortfolioCard() {
+        JPanel portfolioInput = new JPanel(new GridLayout(2, 2, 5, 5));
+        portfolioInput.setBorder(new TitledBorder("Portfolio Parameters"));
+        portfolioInput.add(new JLabel("Positions File:"));
+        portfolioFileField = toolField("portfolio.file", new JTextField("positions.csv"));
+        portfolioInput.add(portfolioFileField);
+        portfolioInput.add(new JLabel("Underlying:"));
+        portfolioSymbolSelector = new JComboBox<>();
+        portfolioInput.add(portfolioSymbolSelector);
+        inputPanel.add(portfolioInput, "Portfolio");
+        portfolioGraph = new PortfolioChart();
+        chartPanelContainer.add(portfolioGraph, "Portfolio");
+    }
+
+    // Optimizer (searches the underlying picked in the chain controls; empty limits are unbounded)
+    private void buildOptimizerCard() {
+        JPanel optimizerInput = new JPanel(new GridLayout(2, 4, 5, 5));
+        optimizerInput.setBorder(new TitledBorder("Optimizer Parameters (scored at the volatility and Monte Carlo drift)"));
+        optimizerInput.add(new JLabel("Results:"));
+        optimizerTopKField = toolField("optimizer.topK", new JTextField("20"));
+        optimizerInput.add(optimizerTopKField);
+        optimizerInput.add(new JLabel("Max Loss $:"));
+        optimizerMaxLossField = toolField("optimizer.maxLoss", new JTextField("500"));
+        optimizerInput.add(optimizerMaxLossField);
+        optimizerInput.add(new JLabel("Max Breakeven Move %:"));
+        optimizerMaxMoveField = toolField("optimizer.maxMove", new JTextField("10"));
+        optimizerInput.add(optimizerMaxMoveField);
+        optimizerInput.add(new JLabel("Spot (empty: chain middle):"));
+        optimizerSpotField = toolField("optimizer.spot", new JTextField());
+        optimizerInput.add(optimizerSpotField);
+        inputPanel.add(optimizerInput, "Optimizer");
+        optimizerPanel = new OptimizerPanel();
+        chartPanelContainer.add(optimizerPanel, "Optimizer");
+    }
+
+    // Backtest (replays a price file; lists are comma-separated values or from:to:step ranges)
+    private void buildBacktestCard() {
+        JPanel backtestInput = new JPanel(new GridLayout(2, 6, 5, 5));
+        backtestInput.setBorder(new TitledBorder("Backtest Parameters (marked at the volatility and rate; empty premiums: Black-Scholes)"));
+        backtestInput.add(new JLabel("Price File:"));
+        backtestFileField = toolField("backtest.file", new JTextField("prices.csv"));
+        backtestInput.add(backtestFileField);
+        backtestInput.add(new JLabel("Strategies:"));
+        backtestStrategiesField = toolField("backtest.strategies", new JTextField("call, put, straddle"));
+        backtestInput.add(backtestStrategiesField);
+        backtestInput.add(new JLabel("Strikes vs Spot %:"));
+        backtestStrikesField = toolField("backtest.strikes", new JTextField("-10:10:5"));
+        backtestInput.add(backtestStrikesField);
+        backtestInput.add(new JLabel("Premiums % of Spot:"));
+        backtestPremiumsField = toolField("backtest.premiums", new JTextField());
+        backtestInput.add(backtestPremiumsField);
+        backtestInput.add(new JLabel("Tenors (days):"));
+        backtestTenorsField = toolField("backtest.tenors", new JTextField("30"));
+        backtestInput.add(backtestTenorsField);
+        backtestInput.add(new JLabel("Results:"));
+        backtestResultsField = toolField("backtest.results", new JTextField("50"));
+        backtestInput.add(backtestResultsField);
+        inputPanel.add(backtestInput, "Backtest");
+        backtestPanel = new BacktestPanel();
+        chartPanelContainer.add(backtestPanel, "Backtest");
+    }
+
+    // Dashboard (thumbnails of every saved strategy, or of the loaded portfolio per underlying and expiry)
+    private void buildDashboardCard() {
+        JPanel dashboardInput = new JPanel(new GridLayout(2, 4, 5, 5));
+        dashboardInput.setBorder(new TitledBorder("Dashboard Parameters (double-click a chart to open it as a custom strategy)"));
+        dashboardInput.add(new JLabel("Show:"));
+        dashboardSourceSelector = new JComboBox<>(DASHBOARD_SOURCES);
+        if (savedSettings.containsKey("dashboard.source")) {
+            dashboardSourceSelector.setSelectedItem(savedSettings.get("dashboard.source"));
+        }
+        dashboardInput.add(dashboardSourceSelector);
+        dashboardInput.add(new JLabel());
+        dashboardInput.add(new JLabel());
+        dashboardInput.add(new JLabel("Chart Width:"));
+        dashboardCellWidthField = toolField("dashboard.cellWidth", new JTextField("180"));
+        dashboardInput.add(dashboardCellWidthField);
+        dashboardInput.add(new JLabel("Chart Height:"));
+        dashboardCellHeightField = toolField("dashboard.cellHeight", new JTextField("120"));
+        dashboardInput.add(dashboardCellHeightField);
+        inputPanel.add(dashboardInput, "Dashboard");
+
+        dashboard = new StrategyDashboard();
+        dashboard.setOnOpen(strategy -> {
+            buildCard(customCard.name());
+            customCard.show(strategy);
+            strategySelector.setSelectedItem(customCard.name());
+            applyInputs(false);
+        });
+        JPanel dashboardPanel = new JPanel(new BorderLayout());
+        dashboardStatusLabel = new JLabel("Press Update Chart to show the selected strategies.");
+        dashboardPanel.add(dashboardStatusLabel, BorderLayout.NORTH);
+        dashboardPanel.add(new JScrollPane(dashboard), BorderLayout.CENTER);
+        chartPanelContainer.add(dashboardPanel, "Dashboard");
+    }
+
+    // Registers a tool card's field for workspaces and fills in its saved value.
+    private JTextField toolField(String key, JTextField field) {
+        toolFields.put(key, field);
+        field.setText(savedSettings.getOrDefault(key, field.getText()));
+        return field;
     }
 
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == updateChartButton) {
-            String selectedStrategy = (String) strategySelector.getSelectedItem();
-            try {
-                if (selectedStrategy.equals("Long Call")) {
-                    double strikePrice = Double.parseDouble(callStrikeField.getText());
-                    double premium = Double.parseDouble(callPremiumField.getText());
-                    String expirationDate = callExpirationField.getText();
-                    longCallGraph.updateParameters(strikePrice, premium, expirationDate);
-                } else if (selectedStrategy.equals("Long Straddle")) {
-                    double strikePrice = Double.parseDouble(straddleStrikeField.getText());
-                    double callPremium = Double.parseDouble(straddleCallPremiumField.getText());
-                    double putPremium = Double.parseDouble(straddlePutPremiumField.getText());
-                    String expirationDate = straddleExpirationField.getText();
-                    longStraddleGraph.updateParameters(strikePrice, callPremium, putPremium, expirationDate);
-                } else if (selectedStrategy.equals("Long Put")){
-                    double strikePrice = Double.parseDouble(putStrikeField.getText());
-                    double Premium = Double.parseDouble(putPremiumField.getText());
-                    String expirationDate = putExpirationField.getText();
-                    longPutGraph.updateParameters(strikePrice, Premium, expirationDate);
-                }
-                chartPanelContainer.repaint();
-            } catch (NumberFormatException ex) {
+            applyInputs(true);
+        }
+    }
+
+    // Pushes the current inputs to the visible chart. The button applies everything and reports bad input;
+    // typing (fromButton false) only redraws the strategy charts, whose renders run off the EDT and are
+    // cancelled by the next keystroke, and leaves incomplete input to be finished.
+    private void applyInputs(boolean fromButton) {
+        if (restoring) {
+            return;
+        }
+        String selectedStrategy = (String) strategySelector.getSelectedItem();
+        if (!fromButton && selectedStrategy.equals("Portfolio")) {
+            return; // Loading a positions file is too heavy to repeat per keystroke
+        }
+        try {
+            double volatility = Double.parseDouble(volatilityField.getText()) / 100;
+            double rate = Double.parseDouble(rateField.getText()) / 100;
+            int timeSlices = Integer.parseInt(timeSlicesField.getText().trim());
+            StrategyCard card = strategyCards.get(selectedStrategy);
+            if (card != null) {
+                card.apply();
+            }
+            if (fromButton && selectedStrategy.equals("Optimizer")) {
+                optimize(volatility);
+            }
+            if (selectedStrategy.equals("Portfolio")) {
+                updatePortfolio(volatility, rate);
+            } else if (selectedStrategy.equals("Greeks Heatmap")) {
+                OptionStrategy source = chartFor((String) heatmapSourceSelector.getSelectedItem()).getStrategy();
+                greeksHeatmap.updateHeatmap(source, (Greek) heatmapGreekSelector.getSelectedItem(), volatility, rate);
+            } else if (selectedStrategy.equals("Dashboard")) {
+                if (fromButton) {
+                    updateDashboard();
+                }
+            } else if (selectedStrategy.equals("Backtest")) {
+                if (fromButton) {
+                    backtest(volatility, rate);
+                }
+            } else {
+                PayoffChart chart = chartFor(selectedStrategy);
+                chart.updatePricing(volatility, rate, timeSlices);
+                chart.setAmerican(americanDividends());
+                if (scenarioCheckBox.isSelected()) {
+                    OptionStrategy strategy = chart.getStrategy();
+                    double spot = Double.isNaN(chart.getCurrentPrice()) ? strategy.referencePrice() : chart.getCurrentPrice();
+                    scenarioPanel.update(strategy, spot, volatility, rate);
+                }
+                // Typing keeps the last simulation, which is only drawn while it still matches the strategy
+                if (fromButton && simulateCheckBox.isSelected()) {
+                    simulate(chart, volatility);
+                } else if (fromButton) {
+                    chart.setSimulation(null);
+                }
+            }
+            chartPanelContainer.repaint();
+        } catch (NumberFormatException ex) {
+            if (fromButton) {
                 JOptionPane.showMessageDialog(this, "Invalid input. Please enter numbers for prices.", "Input Error", JOptionPane.ERROR_MESSAGE);
             }
+        } catch (IllegalArgumentException ex) {
+            if (fromButton) {
+                JOptionPane.showMessageDialog(this, "Invalid strategy: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    // The dividends American pricing uses, from the yield field, or null while the charts price European options.
+    private BinomialTree.Dividends americanDividends() {
+        if (!americanCheckBox.isSelected()) {
+            return null;
+        }
+        return BinomialTree.Dividends.yield(Double.parseDouble(dividendYieldField.getText()) / 100);
+    }
+
+    // Inverts the option legs' premiums into implied volatilities at the spot the charts use (the live
+    // price when a feed runs, else the reference price) and sets the volatility to their average, weighted
+    // by leg size. Editing the field then redraws the chart like any other edit.
+    private void applyImpliedVolatility() {
+        String selectedStrategy = (String) strategySelector.getSelectedItem();
+        if (!isPayoffCard(selectedStrategy)) {
+            JOptionPane.showMessageDialog(this, "Implied volatility works on the payoff charts.", "Implied Volatility", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        try {
+            applyInputs(false);
+            PayoffChart chart = chartFor(selectedStrategy);
+            OptionStrategy strategy = chart.getStrategy();
+            double spot = Double.isNaN(chart.getCurrentPrice()) ? strategy.referencePrice() : chart.getCurrentPrice();
+            double years = BlackScholes.yearsFromDays(strategy.daysToExpiry(LocalDate.now()));
+            double rate = Double.parseDouble(rateField.getText()) / 100;
+            List<OptionLeg> legs = new ArrayList<>();
+            for (OptionLeg leg : strategy.legs()) {
+                if (leg.isOption()) {
+                    legs.add(leg);
+                }
+            }
+            byte[] types = new byte[legs.size()];
+            double[] strikes = new double[legs.size()];
+            double[] expiries = new double[legs.size()];
+            double[] premiums = new double[legs.size()];
+            for (int i = 0; i < legs.size(); i++) {
+                types[i] = legs.get(i).type() == OptionLeg.Type.CALL ? ImpliedVolatility.CALL : ImpliedVolatility.PUT;
+                strikes[i] = legs.get(i).strike();
+                expiries[i] = years;
+                premiums[i] = legs.get(i).premium();
+            }
+            double[] volatilities = new double[legs.size()];
+            ImpliedVolatility.solve(spot, rate, types, strikes, expiries, premiums, volatilities);
+            double weighted = 0;
+            double weights = 0;
+            for (int i = 0; i < legs.size(); i++) {
+                if (!Double.isNaN(volatilities[i])) {
+                    weighted += Math.abs(legs.get(i).quantity()) * volatilities[i];
+                    weights += Math.abs(legs.get(i).quantity());
+                }
+            }
+            if (weights == 0) {
+                JOptionPane.showMessageDialog(this, "No volatility reproduces these premiums at a spot of $" + spot
+                        + " (expired, or outside the no-arbitrage bounds).", "Implied Volatility", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            volatilityField.setText(String.format("%.2f", weighted / weights * 100));
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid input. Please enter a number for the rate.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Tens of millions of paths take a moment even across all cores, so the simulation runs off the EDT
+    // and the chart keeps showing the deterministic payoff until it completes.
+    private void simulate(PayoffChart chart, double volatility) {
+        OptionStrategy strategy = chart.getStrategy();
+        long paths = Long.parseLong(simulationPathsField.getText().trim());
+        double drift = Double.parseDouble(simulationDriftField.getText()) / 100;
+        long seed = Long.parseLong(simulationSeedField.getText().trim());
+        long daysToExpiry = strategy.daysToExpiry(LocalDate.now());
+        double spot = Double.isNaN(chart.getCurrentPrice()) ? strategy.referencePrice() : chart.getCurrentPrice();
+        if (daysToExpiry <= 0) {
+            throw new IllegalArgumentException("Monte Carlo needs a future expiration date (YYYY-MM-DD)");
+        }
+        double years = BlackScholes.yearsFromDays(daysToExpiry);
+        new SwingWorker<MonteCarloSimulation, Void>() {
+            @Override
+            protected MonteCarloSimulation doInBackground() {
+                return MonteCarloSimulation.run(strategy, spot, years, volatility, drift, paths, seed);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    chart.setSimulation(get());
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(OptionStrategyVisualizer.this, "Simulation failed: " + cause.getMessage(),
+                            "Simulation Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    // Loading and aggregating millions of legs takes seconds, so both run off the EDT. The file is only
+    // reloaded when its path changes; switching underlying or pricing reuses the loaded book.
+    private void updatePortfolio(double volatility, double rate) {
+        Path path = Paths.get(portfolioFileField.getText().trim());
+        String requestedSymbol = (String) portfolioSymbolSelector.getSelectedItem();
+        PositionBook loadedBook = path.equals(portfolioPath) ? portfolioBook : null;
+        updateChartButton.setEnabled(false);
+        portfolioGraph.setStatus(loadedBook == null ? "Loading " + path + "..." : "Aggregating...");
+        new SwingWorker<PortfolioCurves, Void>() {
+            private PositionBook book = loadedBook;
+            private String status;
+
+            @Override
+            protected PortfolioCurves doInBackground() throws Exception {
+                long start = System.nanoTime();
+                if (book == null) {
+                    book = PositionBook.load(path);
+                }
+                long loaded = System.nanoTime();
+                int symbolId = requestedSymbol == null ? -1 : book.symbolId(requestedSymbol);
+                if (book.symbolCount() == 0) {
+                    throw new IllegalArgumentException("No positions in " + path);
+                }
+                PortfolioCurves curves = PortfolioCurves.aggregate(book, Math.max(0, symbolId), PORTFOLIO_POINTS,
+                        LocalDate.now(), volatility, rate);
+                status = String.format("%d legs loaded in %d ms, aggregated in %d ms", book.legCount(),
+                        (loaded - start) / 1_000_000, (System.nanoTime() - loaded) / 1_000_000);
+                return curves;
+            }
+
+            @Override
+            protected void done() {
+                updateChartButton.setEnabled(true);
+                try {
+                    PortfolioCurves curves = get();
+                    if (book != portfolioBook) {
+                        portfolioBook = book;
+                        portfolioPath = path;
+                        portfolioSymbolSelector.setModel(new DefaultComboBoxModel<>(book.symbols().toArray(new String[0])));
+                    }
+                    portfolioSymbolSelector.setSelectedItem(curves.symbol());
+                    portfolioGraph.updateCurves(curves, status);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    portfolioGraph.setStatus("Cannot load portfolio: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    // Millions of strike combinations take a moment even pruned and across all cores, so the search runs
+    // off the EDT; the chart keeps the previous pick until the new results arrive.
+    private void optimize(double volatility) {
+        String symbol = (String) chainSymbolSelector.getSelectedItem();
+        if (chain == null || symbol == null) {
+            throw new IllegalArgumentException("load an option chain and pick an underlying first");
+        }
+        OptionChain searched = chain;
+        int symbolId = chain.symbolId(symbol);
+        int topK = Integer.parseInt(optimizerTopKField.getText().trim());
+        double maxLoss = optimizerMaxLossField.getText().isBlank() ? Double.POSITIVE_INFINITY
+                : Double.parseDouble(optimizerMaxLossField.getText());
+        double maxMove = optimizerMaxMoveField.getText().isBlank() ? Double.POSITIVE_INFINITY
+                : Double.parseDouble(optimizerMaxMoveField.getText()) / 100;
+        double drift = Double.parseDouble(simulationDriftField.getText()) / 100;
+        LocalDate expiration = (LocalDate) chainExpirySelector.getSelectedItem();
+        double spot = optimizerSpotField.getText().isBlank()
+                ? chain.middleStrike(symbolId, (int) (expiration != null ? expiration : chain.expirations(symbolId).get(0)).toEpochDay())
+                : Double.parseDouble(optimizerSpotField.getText());
+        updateChartButton.setEnabled(false);
+        optimizerPanel.setStatus("Searching " + symbol + "...");
+        new SwingWorker<StrategyOptimizer, Void>() {
+            @Override
+            protected StrategyOptimizer doInBackground() {
+                return StrategyOptimizer.search(searched, symbolId, spot, volatility, drift, maxLoss, maxMove, topK, LocalDate.now());
+            }
+
+            @Override
+            protected void done() {
+                updateChartButton.setEnabled(true);
+                try {
+                    optimizerPanel.updateResults(get());
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    optimizerPanel.setStatus("Search failed: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    // Years of bars stream through in one pass for every parameter set, which still takes seconds, so the
+    // replay runs off the EDT like the optimizer's search.
+    private void backtest(double volatility, double rate) {
+        Path file = Paths.get(backtestFileField.getText().trim());
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("no price file at " + file.toAbsolutePath());
+        }
+        List<Backtest.Kind> kinds = new ArrayList<>();
+        for (String name : backtestStrategiesField.getText().split(",")) {
+            if (!name.isBlank()) {
+                kinds.add(Backtest.Kind.parse(name));
+            }
+        }
+        double[] strikeOffsets = Backtest.percentages(backtestStrikesField.getText());
+        double[] premiums = Backtest.percentages(backtestPremiumsField.getText());
+        int[] tenors = Arrays.stream(Backtest.values(backtestTenorsField.getText())).mapToInt(days -> (int) days).toArray();
+        int rows = Integer.parseInt(backtestResultsField.getText().trim());
+        updateChartButton.setEnabled(false);
+        backtestPanel.setStatus("Replaying " + file + "...");
+        new SwingWorker<Backtest, Void>() {
+            @Override
+            protected Backtest doInBackground() throws IOException {
+                return Backtest.run(file, kinds, strikeOffsets, premiums, tenors, volatility, rate);
+            }
+
+            @Override
+            protected void done() {
+                updateChartButton.setEnabled(true);
+                try {
+                    backtestPanel.updateResults(get(), rows);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    backtestPanel.setStatus("Backtest failed: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    // Saved strategies are shown as they are now, decoded only as far as the dashboard is scrolled; the
+    // portfolio is netted per underlying and expiry off the EDT, from the book last loaded on the Portfolio card.
+    private void updateDashboard() {
+        dashboard.setCellSize(Integer.parseInt(dashboardCellWidthField.getText().trim()),
+                Integer.parseInt(dashboardCellHeightField.getText().trim()));
+        if (dashboardSourceSelector.getSelectedIndex() == 0) {
+            dashboard.setStrategies(customCard.savedStrategies());
+            showDashboardStatus();
+            return;
+        }
+        PositionBook book = portfolioBook;
+        if (book == null) {
+            throw new IllegalArgumentException("load a positions file on the Portfolio card first");
         }
+        updateChartButton.setEnabled(false);
+        dashboardStatusLabel.setText(String.format("Netting %,d legs...", book.legCount()));
+        new SwingWorker<List<OptionStrategy>, Void>() {
+            @Override
+            protected List<OptionStrategy> doInBackground() {
+                return book.netStrategies();
+            }
+
+            @Override
+            protected void done() {
+                updateChartButton.setEnabled(true);
+                try {
+                    dashboard.setStrategies(get());
+                    showDashboardStatus();
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    dashboardStatusLabel.setText("Cannot net the portfolio: " + cause.getMessage());
+                }
+            }
+        }.execute();
     }
 
-    public static void main(String[] args) {
+    private void showDashboardStatus() {
+        dashboardStatusLabel.setText(String.format("%,d strategies; %s", dashboard.strategyCount(), StrategyDashboard.thumbnailCache()));
+    }
+
+    private void loadChain() {
+        Path path = Paths.get(chainFileField.getText().trim());
+        chainLoadButton.setEnabled(false);
+        new SwingWorker<OptionChain, Void>() {
+            @Override
+            protected OptionChain doInBackground() throws Exception {
+                return OptionChain.load(path);
+            }
+
+            @Override
+            protected void done() {
+                chainLoadButton.setEnabled(true);
+                try {
+                    chain = get();
+                    chainSymbolSelector.setModel(new DefaultComboBoxModel<>(chain.symbols().toArray(new String[0])));
+                    showChainExpirations();
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(OptionStrategyVisualizer.this, "Cannot load chain: " + cause.getMessage(),
+                            "Option Chain", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void showChainExpirations() {
+        String symbol = (String) chainSymbolSelector.getSelectedItem();
+        if (chain == null || symbol == null) {
+            return;
+        }
+        chainExpirySelector.setModel(new DefaultComboBoxModel<>(chain.expirations(chain.symbolId(symbol)).toArray(new LocalDate[0])));
+    }
+
+    // Snaps the strikes of the selected strategy to the nearest quoted ones (the middle of the chain when a
+    // strike field is empty) and fills in their mid premiums and the chosen expiration.
+    private void fillFromChain() {
+        String symbol = (String) chainSymbolSelector.getSelectedItem();
+        LocalDate expiration = (LocalDate) chainExpirySelector.getSelectedItem();
+        if (chain == null || symbol == null || expiration == null) {
+            JOptionPane.showMessageDialog(this, "Load a chain and pick an underlying and expiration first.", "Option Chain", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StrategyCard card = strategyCards.get((String) strategySelector.getSelectedItem());
+        if (card == null) {
+            return;
+        }
+        try {
+            card.fillFromChain(chain, chain.symbolId(symbol), expiration);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid strategy: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Input fields shared by all cards and saved in workspaces, by the key they are saved under.
+    private Map<String, JTextComponent> workspaceFields() {
+        Map<String, JTextComponent> fields = new LinkedHashMap<>();
+        fields.put("volatility", volatilityField);
+        fields.put("rate", rateField);
+        fields.put("timeSlices", timeSlicesField);
+        fields.put("dividendYield", dividendYieldField);
+        fields.put("simulation.paths", simulationPathsField);
+        fields.put("simulation.drift", simulationDriftField);
+        fields.put("simulation.seed", simulationSeedField);
+        fields.put("chain.file", chainFileField);
+        fields.put("feed.source", feedSourceField);
+        fields.put("feed.fps", feedFpsField);
+        return fields;
+    }
+
+    // Writes the inputs, zoom ranges, strategy library and the charts' sampled curves; reported on failure.
+    // Cards never opened since the last workspace was opened write back what it saved for them.
+    private void saveWorkspace(Path path) {
+        Map<String, String> settings = new LinkedHashMap<>(savedSettings);
+        workspaceFields().forEach((key, field) -> settings.put(key, field.getText()));
+        toolFields.forEach((key, field) -> settings.put(key, field.getText()));
+        for (String card : charts.keySet()) {
+            strategyCards.get(card).save(settings);
+        }
+        settings.put("strategy", (String) strategySelector.getSelectedItem());
+        if (heatmapGreekSelector != null) {
+            settings.put("heatmap.greek", ((Greek) heatmapGreekSelector.getSelectedItem()).name());
+            settings.put("heatmap.source", (String) heatmapSourceSelector.getSelectedItem());
+        }
+        if (dashboardSourceSelector != null) {
+            settings.put("dashboard.source", (String) dashboardSourceSelector.getSelectedItem());
+        }
+        settings.put("simulate", Boolean.toString(simulateCheckBox.isSelected()));
+        settings.put("scenario", Boolean.toString(scenarioCheckBox.isSelected()));
+        settings.put("american", Boolean.toString(americanCheckBox.isSelected()));
+        Map<String, double[]> views = new LinkedHashMap<>();
+        List<CurveTileCache> curves = new ArrayList<>();
+        for (String card : strategyCards.keySet()) {
+            PayoffChart chart = charts.get(card);
+            double[] view = chart != null ? chart.getView() : openedWorkspace != null ? openedWorkspace.view(card) : null;
+            if (view != null) {
+                views.put(card, view);
+            }
+            CurveTileCache tiles = chart != null ? chart.curveTiles() : null;
+            if (tiles != null && tiles.sliceCount() > 0 && tiles.strategy().equals(chart.getStrategy()) && !curves.contains(tiles)) {
+                curves.add(tiles);
+            }
+        }
+        try {
+            Workspace.save(path, settings, views, customCard.savedStrategies(), curves);
+            workspacePath = path;
+            setTitle("Option Strategy Visualizer - " + path.getFileName());
+        } catch (IOException | RuntimeException ex) {
+            JOptionPane.showMessageDialog(this, "Cannot save workspace: " + ex.getMessage(), "Workspace", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Fills in the saved inputs and replots the strategy cards built so far; the others are filled in and
+    // plotted when first opened. Saved strategies stay encoded until the library list shows them, and
+    // charts saved today draw from their saved curves.
+    private void openWorkspace(Path path) {
+        Workspace workspace;
+        try {
+            workspace = Workspace.load(path);
+            workspace.restoreCurves();
+        } catch (IOException | RuntimeException ex) {
+            JOptionPane.showMessageDialog(this, "Cannot open workspace: " + ex.getMessage(), "Workspace", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Map<String, String> settings = workspace.settings();
+        openedWorkspace = workspace;
+        savedSettings = settings;
+        restoring = true;
+        try {
+            workspaceFields().forEach((key, field) -> {
+                if (settings.containsKey(key)) {
+                    field.setText(settings.get(key));
+                }
+            });
+            toolFields.forEach((key, field) -> {
+                if (settings.containsKey(key)) {
+                    field.setText(settings.get(key));
+                }
+            });
+            for (String card : charts.keySet()) {
+                strategyCards.get(card).restore(settings);
+            }
+            if (heatmapGreekSelector != null) {
+                for (Greek greek : Greek.values()) {
+                    if (greek.name().equals(settings.get("heatmap.greek"))) {
+                        heatmapGreekSelector.setSelectedItem(greek);
+                    }
+                }
+                if (settings.containsKey("heatmap.source")) {
+                    heatmapSourceSelector.setSelectedItem(settings.get("heatmap.source"));
+                }
+            }
+            if (dashboardSourceSelector != null && settings.containsKey("dashboard.source")) {
+                dashboardSourceSelector.setSelectedItem(settings.get("dashboard.source"));
+            }
+            simulateCheckBox.setSelected(Boolean.parseBoolean(settings.get("simulate")));
+            scenarioCheckBox.setSelected(Boolean.parseBoolean(settings.get("scenario")));
+            americanCheckBox.setSelected(Boolean.parseBoolean(settings.get("american")));
+            scenarioPanel.setVisible(scenarioCheckBox.isSelected());
+            customCard.openLibrary(workspace);
+        } finally {
+            restoring = false;
+        }
+        for (String card : charts.keySet()) {
+            replot(card);
+        }
+        if (settings.containsKey("strategy")) {
+            strategySelector.setSelectedItem(settings.get("strategy"));
+        }
+        workspacePath = path;
+        setTitle("Option Strategy Visualizer - " + path.getFileName());
+        revalidate();
+    }
+
+    // Plots a strategy card's restored inputs at the current pricing and the open workspace's zoom.
+    private void replot(String card) {
+        try {
+            double volatility = Double.parseDouble(volatilityField.getText()) / 100;
+            double rate = Double.parseDouble(rateField.getText()) / 100;
+            int timeSlices = Integer.parseInt(timeSlicesField.getText().trim());
+            strategyCards.get(card).apply();
+            PayoffChart chart = charts.get(card);
+            chart.updatePricing(volatility, rate, timeSlices);
+            chart.setAmerican(americanDividends());
+            chart.setView(openedWorkspace.view(card));
+        } catch (IllegalArgumentException ex) {
+            // Saved half-filled; the card waits for its inputs as on a fresh start
+        }
+    }
+
+    private void toggleFeed() {
+        if (priceFeed != null) {
+            stopFeed();
+            return;
+        }
+        try {
+            int framesPerSecond = Integer.parseInt(feedFpsField.getText().trim());
+            priceCoalescer = new LivePriceCoalescer(framesPerSecond, this::showLivePrice);
+            priceFeed = PriceFeed.open(feedSourceField.getText().trim(), REPLAY_TICKS_PER_SECOND);
+            priceFeed.start(priceCoalescer);
+            priceCoalescer.start();
+            feedButton.setText("Stop Feed");
+        } catch (RuntimeException ex) {
+            stopFeed();
+            JOptionPane.showMessageDialog(this, "Cannot start feed: " + ex.getMessage(), "Feed Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void stopFeed() {
+        if (priceFeed != null) {
+            priceFeed.close();
+            priceFeed = null;
+        }
+        if (priceCoalescer != null) {
+            priceCoalescer.stop();
+            priceCoalescer = null;
+        }
+        feedButton.setText("Start Feed");
+    }
+
+    // Runs on the EDT at most once per frame, with the newest tick of the burst.
+    private void showLivePrice(double price) {
+        String selectedStrategy = (String) strategySelector.getSelectedItem();
+        if (isPayoffCard(selectedStrategy)) {
+            chartFor(selectedStrategy).setCurrentPrice(price);
+        }
+    }
+
+    private boolean isPayoffCard(String card) {
+        return strategyCards.containsKey(card) || card.equals("Optimizer");
+    }
+
+    // The chart of a strategy card or of the optimizer's pick, building the card if it never was.
+    private PayoffChart chartFor(String card) {
+        buildCard(card);
+        return card.equals("Optimizer") ? optimizerPanel.chart() : charts.get(card);
+    }
+
+    // With --server [port], runs the HTTP risk server instead of the window.
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            RiskServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SwingUtilities.invokeLater(OptionStrategyVisualizer::new);
     }
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+import java.lang.management.ManagementFactory;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Paint-path counters of one chart panel. Every frame drawn off screen records the time spent sampling
+// curves (compute) and drawing them (paint), the points sampled and the bytes its thread allocated;
+// every repaint on the EDT records its time and allocation and whether the image came from the render
+// cache. Both are also committed as JFR events (category Fluffy Options / Rendering), so slow repaints
+// show up in a recording, e.g. java -XX:StartFlightRecording:filename=paint.jfr, without attaching a
+// profiler. Allocation needs a JVM that counts bytes per thread (HotSpot does); elsewhere it reads -1.
+public final class PaintStats {
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final String panel;
+    private long renders;
+    private long cancelledRenders;
+    private long computeNanos;
+    private long paintNanos;
+    private long points;
+    private long renderBytes;
+    private long repaints;
+    private long cachedRepaints;
+    private long repaintNanos;
+    private long repaintBytes;
+    private Frame lastRender;
+    private Frame lastRepaint;
+
+    public PaintStats(String panel) {
+        this.panel = panel;
+    }
+
+    // Starts timing a render or a repaint on the current thread.
+    Frame startRender() {
+        return new Frame(new RenderEvent());
+    }
+
+    Frame startRepaint() {
+        return new Frame(new RepaintEvent());
+    }
+
+    // Records a frame drawn off screen; cancelled frames count towards renders but not their totals.
+    void finishRender(Frame frame, String strategy, int width, int height, boolean cancelled) {
+        frame.finish();
+        RenderEvent event = (RenderEvent) frame.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.panel = panel;
+            event.strategy = strategy;
+            event.width = width;
+            event.height = height;
+            event.computeTime = frame.computeNanos;
+            event.paintTime = frame.totalNanos - frame.computeNanos;
+            event.points = frame.points;
+            event.allocated = frame.bytes;
+            event.cancelled = cancelled;
+            event.commit();
+        }
+        synchronized (this) {
+            renders++;
+            if (cancelled) {
+                cancelledRenders++;
+                return;
+            }
+            computeNanos += frame.computeNanos;
+            paintNanos += frame.totalNanos - frame.computeNanos;
+            points += frame.points;
+            renderBytes += Math.max(0, frame.bytes);
+            lastRender = frame;
+        }
+    }
+
+    // Records a repaint on the EDT; fromCache is true when the image was found in the render cache.
+    void finishRepaint(Frame frame, int width, int height, boolean fromCache) {
+        frame.finish();
+        RepaintEvent event = (RepaintEvent) frame.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.panel = panel;
+            event.width = width;
+            event.height = height;
+            event.allocated = frame.bytes;
+            event.fromCache = fromCache;
+            event.commit();
+        }
+        synchronized (this) {
+            repaints++;
+            if (fromCache) {
+                cachedRepaints++;
+            }
+            repaintNanos += frame.totalNanos;
+            repaintBytes += Math.max(0, frame.bytes);
+            lastRepaint = frame;
+        }
+    }
+
+    public synchronized long renders() {
+        return renders;
+    }
+
+    public synchronized long cancelledRenders() {
+        return cancelledRenders;
+    }
+
+    public synchronized long repaints() {
+        return repaints;
+    }
+
+    public synchronized long cachedRepaints() {
+        return cachedRepaints;
+    }
+
+    // Mean compute and paint time of the completed renders.
+    public synchronized double meanComputeMillis() {
+        long completed = renders - cancelledRenders;
+        return completed == 0 ? 0 : computeNanos / 1e6 / completed;
+    }
+
+    public synchronized double meanPaintMillis() {
+        long completed = renders - cancelledRenders;
+        return completed == 0 ? 0 : paintNanos / 1e6 / completed;
+    }
+
+    public synchronized double meanRepaintMillis() {
+        return repaints == 0 ? 0 : repaintNanos / 1e6 / repaints;
+    }
+
+    public synchronized long pointsSampled() {
+        return points;
+    }
+
+    public synchronized long renderBytes() {
+        return renderBytes;
+    }
+
+    public synchronized long repaintBytes() {
+        return repaintBytes;
+    }
+
+    // The latest render and repaint, then the totals; what the on-screen overlay shows.
+    public synchronized String[] overlayLines() {
+        String render = lastRender == null ? "Render: none yet" : String.format("Render %.1f ms: compute %.1f ms, paint %.1f ms, %,d points, %s",
+                lastRender.totalNanos / 1e6, lastRender.computeNanos / 1e6, (lastRender.totalNanos - lastRender.computeNanos) / 1e6,
+                lastRender.points, formatBytes(lastRender.bytes));
+        String repaint = lastRepaint == null ? "Repaint: none yet" : String.format("Repaint %.2f ms, %s",
+                lastRepaint.totalNanos / 1e6, formatBytes(lastRepaint.bytes));
+        String totals = String.format("%,d renders (%,d cancelled), %,d repaints (%,d from cache)",
+                renders, cancelledRenders, repaints, cachedRepaints);
+        return new String[] {render, repaint, totals};
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d renders (%d cancelled), %.1f ms compute and %.1f ms paint each, %,d points, %.1f MB allocated; "
+                        + "%d repaints (%d from cache), %.2f ms each, %.1f MB allocated",
+                panel, renders, cancelledRenders, meanComputeMillis(), meanPaintMillis(), points, renderBytes / 1e6,
+                repaints, cachedRepaints, meanRepaintMillis(), repaintBytes / 1e6);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 0) {
+            return "allocation not tracked";
+        }
+        return bytes < 10_000 ? bytes + " B" : bytes < 10_000_000 ? bytes / 1000 + " KB" : bytes / 1_000_000 + " MB";
+    }
+
+    // Bytes allocated so far by the current thread, or -1 when the JVM does not count them.
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                    return threads;
+                }
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Allocation is reported as -1
+        }
+        return null;
+    }
+
+    // One frame in progress on one thread: when it started, and what the painting code reports as it goes.
+    static final class Frame {
+
+        private final long start = System.nanoTime();
+        private final long startBytes = allocatedBytes();
+        private final Event event;
+        private long computeNanos;
+        private int points;
+        private long totalNanos;
+        private long bytes;
+
+        private Frame(Event event) {
+            this.event = event;
+            event.begin();
+        }
+
+        // Adds the time since computeStart (a System.nanoTime reading) to the frame's compute time.
+        void computed(long computeStart) {
+            computeNanos += System.nanoTime() - computeStart;
+        }
+
+        void sampled(int count) {
+            points += count;
+        }
+
+        private void finish() {
+            totalNanos = System.nanoTime() - start;
+            long endBytes = allocatedBytes();
+            bytes = startBytes < 0 || endBytes < 0 ? -1 : endBytes - startBytes;
+        }
+    }
+
+    @Name("fluffyoptions.ChartRender")
+    @Label("Chart Render")
+    @Category({"Fluffy Options", "Rendering"})
+    @Description("A payoff chart drawn into its off-screen image")
+    static final class RenderEvent extends Event {
+
+        @Label("Panel")
+        String panel;
+
+        @Label("Strategy")
+        String strategy;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Compute Time")
+        @Description("Sampling the payoff and pre-expiry curves")
+        @Timespan(Timespan.NANOSECONDS)
+        long computeTime;
+
+        @Label("Paint Time")
+        @Description("Drawing into the image")
+        @Timespan(Timespan.NANOSECONDS)
+        long paintTime;
+
+        @Label("Points Sampled")
+        int points;
+
+        @Label("Allocated")
+        @DataAmount(DataAmount.BYTES)
+        long allocated;
+
+        @Label("Cancelled")
+        boolean cancelled;
+    }
+
+    @Name("fluffyoptions.ChartRepaint")
+    @Label("Chart Repaint")
+    @Category({"Fluffy Options", "Rendering"})
+    @Description("A payoff chart panel painted on the event dispatch thread")
+    static final class RepaintEvent extends Event {
+
+        @Label("Panel")
+        String panel;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Allocated")
+        @DataAmount(DataAmount.BYTES)
+        long allocated;
+
+        @Label("From Render Cache")
+        boolean fromCache;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,881 @@
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import javax.swing.*;
+
+// Shared drawing for the payoff panels. The chart is rendered once into an off-screen image
+// (profit/loss regions as filled paths plus a single payoff polyline) and that image is blitted
+// on every repaint until the parameters change, the panel is resized or the view moves.
+// Rendering happens on a background thread: the EDT keeps showing the previous image until the
+// new one is ready, and a newer change cancels a render still in flight. The render thread only reads
+// a Scene, a snapshot of the panel's inputs taken on the EDT, never the panel's own fields; a render
+// that fails leaves its error on the chart until the inputs change.
+// The mouse wheel zooms around the cursor (shift: price axis only, ctrl: P&L axis only), dragging
+// pans and a double click restores the default view.
+// Each panel times its renders and repaints in a PaintStats (also reported as JFR events), which the
+// stats overlay draws in the corner of every chart when switched on.
+public abstract class PayoffChart extends JPanel {
+
+    protected static final int PADDING = 50;
+    private static final Color PROFIT_FILL = new Color(0, 255, 0, 100);
+    private static final Color LOSS_FILL = new Color(255, 0, 0, 100);
+    private static final Color LIVE_MARKER = new Color(255, 140, 0);
+    private static final Color SIMULATION_FILL = new Color(128, 0, 160, 90);
+    private static final int SIMULATION_ROW = 3; // Histogram bar height in pixels
+    private static final double ZOOM_STEP = 1.15;
+    private static final int THUMBNAIL_INSET = 6;
+    private static final Color OVERLAY_FILL = new Color(255, 255, 255, 210);
+
+    private static volatile boolean statsOverlay = Boolean.getBoolean("paint.overlay");
+
+    // Finished renders of every panel, so switching strategies or sizes back and forth redraws nothing
+    private static final LruCache<Scene, Rendered> RENDERED =
+            new LruCache<>("Chart images", LruCache.heapFraction(1.0 / 8), Rendered::bytes);
+
+    protected final DecimalFormat df = new DecimalFormat("#.##");
+    private final LatestTaskScheduler<Rendered> renderer = new LatestTaskScheduler<>();
+    private final PaintStats paintStats = new PaintStats(getClass().getSimpleName());
+    private volatile Rendered shown; // Last finished render, drawn by paintComponent
+    private boolean renderStale = true; // EDT only
+    private boolean renderScheduled; // EDT only
+    private Scene failedScene; // EDT only; not rendered again until it succeeds or the inputs change
+    private String renderError; // EDT only; drawn over the chart until the next render is shown
+    private double viewMinPrice = Double.NaN; // NaN until the user zooms or pans
+    private double viewMaxPrice;
+    private double viewMinPnl;
+    private double viewMaxPnl;
+    private OptionStrategy viewStrategy;
+    private volatile CurveTileCache curveTiles; // Set by the render thread
+    private boolean sharedCurves = true; // False keeps sampled curves out of CurveTileCache.shared()
+    private Point dragPoint;
+    private double volatility = 0.30;
+    private double riskFreeRate = 0.05;
+    private int timeSlices = 5;
+    private BinomialTree.Dividends american; // Null prices options with Black-Scholes
+    private double currentPrice = Double.NaN;
+    private MonteCarloSimulation simulation;
+
+    protected PayoffChart() {
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                invalidateChart();
+            }
+        });
+        MouseAdapter navigation = new MouseAdapter() {
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double factor = Math.pow(ZOOM_STEP, e.getPreciseWheelRotation());
+                zoom(e.getX(), e.getY(), e.isControlDown() ? 1 : factor, e.isShiftDown() ? 1 : factor);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragPoint = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragPoint != null) {
+                    pan(e.getX() - dragPoint.x, e.getY() - dragPoint.y);
+                    dragPoint = e.getPoint();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragPoint = null;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    resetView();
+                }
+            }
+        };
+        addMouseListener(navigation);
+        addMouseMotionListener(navigation);
+        addMouseWheelListener(navigation);
+    }
+
+    // Volatility and rate are annualized decimals; timeSlices is the number of pre-expiry curves (0 hides them).
+    public void updatePricing(double volatility, double riskFreeRate, int timeSlices) {
+        this.volatility = volatility;
+        this.riskFreeRate = riskFreeRate;
+        this.timeSlices = timeSlices;
+        invalidateChart();
+    }
+
+    // Prices the pre-expiry curves as American options on binomial trees over the given dividends, or
+    // as European options with Black-Scholes when null.
+    public void setAmerican(BinomialTree.Dividends american) {
+        this.american = american;
+        invalidateChart();
+    }
+
+    // Moves the live underlying price marker. Only the overlay changes, so the cached chart is kept.
+    public void setCurrentPrice(double currentPrice) {
+        this.currentPrice = currentPrice;
+        repaint();
+    }
+
+    // Monte Carlo P&L distribution to overlay; it is only drawn while it matches the plotted strategy.
+    public void setSimulation(MonteCarloSimulation simulation) {
+        this.simulation = simulation;
+        invalidateChart();
+    }
+
+    public double getCurrentPrice() {
+        return currentPrice;
+    }
+
+    // Scales the visible ranges around the given panel point; factors above 1 zoom out.
+    public void zoom(int x, int y, double priceFactor, double pnlFactor) {
+        Rendered frame = navigationFrame();
+        if (frame == null || !frame.hasPlot()) {
+            return;
+        }
+        double price = frame.price(x);
+        double pnl = frame.pnl(y);
+        setView(price - (price - frame.minPrice) * priceFactor, price + (frame.maxPrice - price) * priceFactor,
+                pnl - (pnl - frame.minPnl) * pnlFactor, pnl + (frame.maxPnl - pnl) * pnlFactor);
+    }
+
+    // Moves the visible ranges by a drag of dx, dy pixels.
+    public void pan(int dx, int dy) {
+        Rendered frame = navigationFrame();
+        if (frame == null || !frame.hasPlot()) {
+            return;
+        }
+        double priceShift = -dx * (frame.maxPrice - frame.minPrice) / (frame.width - 2 * PADDING);
+        priceShift = Math.max(priceShift, -frame.minPrice); // Prices stay non-negative
+        double pnlShift = dy * (frame.maxPnl - frame.minPnl) / (frame.height - 2 * PADDING);
+        setView(frame.minPrice + priceShift, frame.maxPrice + priceShift, frame.minPnl + pnlShift, frame.maxPnl + pnlShift);
+    }
+
+    // Mouse mapping for the panel as it is now: the requested view when one is set, so consecutive wheel
+    // and drag steps build on each other while their render is still in flight, else the shown frame's ranges.
+    private Rendered navigationFrame() {
+        Rendered frame = shown;
+        if (frame == null) {
+            return null;
+        }
+        if (Double.isNaN(viewMinPrice) || !strategy().equals(viewStrategy)) {
+            return new Rendered(frame.image, getWidth(), getHeight(), frame.scale,
+                    frame.minPrice, frame.maxPrice, frame.minPnl, frame.maxPnl);
+        }
+        return new Rendered(frame.image, getWidth(), getHeight(), frame.scale, viewMinPrice, viewMaxPrice, viewMinPnl, viewMaxPnl);
+    }
+
+    // The zoomed ranges {minPrice, maxPrice, minPnl, maxPnl}, or null while the chart fits its strategy.
+    public double[] getView() {
+        if (Double.isNaN(viewMinPrice) || !strategy().equals(viewStrategy)) {
+            return null;
+        }
+        return new double[] {viewMinPrice, viewMaxPrice, viewMinPnl, viewMaxPnl};
+    }
+
+    // Restores ranges from getView; null fits the chart to its strategy again.
+    public void setView(double[] view) {
+        if (view == null) {
+            resetView();
+        } else {
+            setView(view[0], view[1], view[2], view[3]);
+        }
+    }
+
+    // Off for charts that are not on screen, such as batch exports: their curves are sampled into a cache
+    // of the chart's own instead of the shared one, so they neither contend for its lock nor push out the
+    // curves of the strategies on screen.
+    public void setSharedCurves(boolean shared) {
+        sharedCurves = shared;
+        curveTiles = null;
+    }
+
+    // Pre-expiry curve tiles for the strategy and pricing last rendered, or null before the first render.
+    CurveTileCache curveTiles() {
+        return curveTiles;
+    }
+
+    public void resetView() {
+        viewMinPrice = Double.NaN;
+        invalidateChart();
+    }
+
+    private void setView(double minPrice, double maxPrice, double minPnl, double maxPnl) {
+        minPrice = Math.max(0, minPrice);
+        // Stop zooming where doubles or the tile index run out of resolution
+        if (!(maxPrice - minPrice > 1e-6 * Math.max(1, maxPrice)) || !(maxPnl - minPnl > 1e-9)
+                || maxPrice - minPrice > 1e9 || maxPnl - minPnl > 1e12) {
+            return;
+        }
+        viewMinPrice = minPrice;
+        viewMaxPrice = maxPrice;
+        viewMinPnl = minPnl;
+        viewMaxPnl = maxPnl;
+        viewStrategy = strategy();
+        invalidateChart();
+    }
+
+    // Marks the cached image stale and cancels any render in flight; called by subclasses from updateParameters.
+    protected void invalidateChart() {
+        renderStale = true;
+        renderScheduled = false;
+        renderer.cancel();
+        repaint();
+    }
+
+    protected abstract OptionStrategy strategy();
+
+    public OptionStrategy getStrategy() {
+        return strategy();
+    }
+
+    protected String title() {
+        OptionStrategy strategy = strategy();
+        return strategy.name() + " - Expiration: " + strategy.expirationDate() + ", Legs: " + strategy.toSpec();
+    }
+
+    protected Color curveColor() {
+        return Color.BLUE;
+    }
+
+    // Strike lines and break-even markers drawn on top of the payoff regions.
+    private static void drawAnnotations(Graphics2D g2d, OptionStrategy strategy, Plot plot, int width, int height, int zeroY) {
+        double[] strikes = strategy.strikes();
+        for (int i = 0; i < strikes.length; i++) {
+            drawStrikeLine(g2d, plot, strikes[i], width, height, zeroY - 15 - 15 * (i % 2));
+        }
+        double[] breakevens = strategy.breakevens();
+        if (breakevens.length == 1) {
+            drawBreakEven(g2d, plot, "BE", breakevens[0], width, zeroY, 15);
+        } else if (breakevens.length == 2) {
+            drawBreakEven(g2d, plot, "BE Down", breakevens[0], width, zeroY, 30);
+            drawBreakEven(g2d, plot, "BE Up", breakevens[1], width, zeroY, 15);
+        } else {
+            for (int i = 0; i < breakevens.length; i++) {
+                drawBreakEven(g2d, plot, "BE " + (i + 1), breakevens[i], width, zeroY, 15 * (1 + i % 2));
+            }
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        PaintStats.Frame frame = paintStats.startRepaint();
+        super.paintComponent(g);
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        boolean fromCache = false;
+        // Render at device resolution so HiDPI displays get a crisp image instead of an upscaled one
+        AffineTransform deviceTransform = ((Graphics2D) g).getTransform();
+        double scale = Math.max(1, Math.max(deviceTransform.getScaleX(), deviceTransform.getScaleY()));
+        Rendered current = shown;
+        if (!renderScheduled && (renderStale || current == null || current.scale != scale
+                || current.width != width || current.height != height)) {
+            Scene scene = scene(width, height, scale);
+            Rendered cached = RENDERED.get(scene);
+            if (cached != null) {
+                shown = current = cached;
+                renderStale = false;
+                fromCache = true;
+            } else if (!scene.equals(failedScene)) {
+                renderScheduled = true;
+                renderer.schedule(cancelled -> render(scene, cancelled), rendered -> {
+                    RENDERED.put(scene, rendered);
+                    install(rendered);
+                }, error -> renderFailed(scene, error));
+            }
+        }
+        if (current != null) {
+            // Possibly the previous frame, stretched to the new size until the fresh one arrives
+            g.drawImage(current.image, 0, 0, width, height, null);
+            if (!Double.isNaN(currentPrice)) {
+                drawCurrentPrice((Graphics2D) g, current, currentPrice);
+            }
+        }
+        if (renderError != null) {
+            g.setColor(Color.RED);
+            g.drawString(renderError, 10, 50);
+        }
+        if (statsOverlay) {
+            drawStatsOverlay((Graphics2D) g, width, height);
+        }
+        paintStats.finishRepaint(frame, width, height, fromCache);
+    }
+
+    // Draws the whole chart into a new image for the panel as it is now, on the calling thread.
+    Rendered render(int width, int height, double scale, BooleanSupplier cancelled) {
+        return render(scene(width, height, scale), cancelled);
+    }
+
+    // Draws the whole chart into a new image; runs on a background thread. Throws CancellationException
+    // when the cancelled flag turns true between stages.
+    private Rendered render(Scene scene, BooleanSupplier cancelled) {
+        PaintStats.Frame frame = paintStats.startRender();
+        BufferedImage image = new BufferedImage((int) Math.ceil(scene.width * scene.scale), (int) Math.ceil(scene.height * scene.scale),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D imageGraphics = image.createGraphics();
+        boolean finished = false;
+        Plot plot;
+        try {
+            imageGraphics.scale(scene.scale, scene.scale);
+            plot = plot(scene, frame);
+            paintChart(imageGraphics, scene, plot, cancelled, frame);
+            finished = true;
+        } finally {
+            imageGraphics.dispose();
+            paintStats.finishRender(frame, scene.strategy.name(), scene.width, scene.height, !finished);
+        }
+        return new Rendered(image, scene.width, scene.height, scene.scale, plot.minPrice, plot.maxPrice, plot.minPnl, plot.maxPnl);
+    }
+
+    // Everything the rendered image depends on, read from the panel on the calling thread. The live price
+    // marker is drawn on top and is not part of it.
+    private Scene scene(int width, int height, double scale) {
+        OptionStrategy strategy = strategy();
+        boolean zoomed = !Double.isNaN(viewMinPrice) && strategy.equals(viewStrategy);
+        return new Scene(getClass(), strategy, LocalDate.now().toEpochDay(), volatility, riskFreeRate, timeSlices, american,
+                zoomed ? new double[] {viewMinPrice, viewMaxPrice, viewMinPnl, viewMaxPnl} : new double[0],
+                simulation != null && simulation.strategy().equals(strategy) ? simulation : null, width, height, scale,
+                title(), curveColor(), getFont(), sharedCurves);
+    }
+
+    // A render that threw: its scene is not tried again, and the error stays on the chart until a render succeeds.
+    private void renderFailed(Scene scene, Throwable error) {
+        failedScene = scene;
+        renderError = "Chart could not be drawn: " + error;
+        renderScheduled = false;
+        renderStale = false;
+        repaint();
+    }
+
+    public static LruCache<?, ?> renderCache() {
+        return RENDERED;
+    }
+
+    // Render and repaint counters of this panel.
+    public PaintStats paintStats() {
+        return paintStats;
+    }
+
+    // Shows or hides the paint statistics in the corner of every chart; -Dpaint.overlay=true starts with it shown.
+    public static void setStatsOverlay(boolean shown) {
+        statsOverlay = shown;
+    }
+
+    public static boolean isStatsOverlay() {
+        return statsOverlay;
+    }
+
+    // Shows a finished render; called on the EDT.
+    void install(Rendered rendered) {
+        shown = rendered;
+        failedScene = null;
+        renderError = null;
+        renderStale = false;
+        renderScheduled = false;
+        repaint();
+    }
+
+    // The panel's paint statistics in a box in the bottom right corner, over the chart and the live marker.
+    private void drawStatsOverlay(Graphics2D g2d, int width, int height) {
+        String[] lines = paintStats.overlayLines();
+        FontMetrics metrics = g2d.getFontMetrics();
+        int boxWidth = 0;
+        for (String line : lines) {
+            boxWidth = Math.max(boxWidth, metrics.stringWidth(line));
+        }
+        boxWidth += 10;
+        int boxHeight = lines.length * metrics.getHeight() + 6;
+        int x = width - boxWidth - 5;
+        int y = height - boxHeight - 5;
+        g2d.setColor(OVERLAY_FILL);
+        g2d.fillRect(x, y, boxWidth, boxHeight);
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.drawRect(x, y, boxWidth, boxHeight);
+        for (int i = 0; i < lines.length; i++) {
+            g2d.drawString(lines[i], x + 5, y + 3 + metrics.getAscent() + i * metrics.getHeight());
+        }
+    }
+
+    private void drawCurrentPrice(Graphics2D g2d, Rendered frame, double price) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        double expiryPnl = strategy().payoffAt(price);
+        String label = "Spot: $" + df.format(price) + ", P&L at expiry: $" + df.format(expiryPnl);
+        long daysToExpiry = strategy().daysToExpiry(LocalDate.now());
+        if (daysToExpiry > 0) {
+            double years = BlackScholes.yearsFromDays(daysToExpiry);
+            double todayPnl = american != null
+                    ? strategy().americanPnl(price, years, volatility, riskFreeRate, american, BinomialTree.CURVE_STEPS)
+                    : strategy().theoreticalPnl(price, years, volatility, riskFreeRate);
+            label += ", today: $" + df.format(todayPnl);
+        }
+        g2d.setColor(LIVE_MARKER);
+        int width = frame.width;
+        int height = frame.height;
+        double x = frame.x(price);
+        if (x >= PADDING && x <= width - PADDING) {
+            g2d.draw(new Line2D.Double(x, PADDING, x, height - PADDING));
+            double y = frame.y(expiryPnl);
+            if (y >= PADDING && y <= height - PADDING) {
+                g2d.fill(new Ellipse2D.Double(x - 4, y - 4, 8, 8));
+            }
+        }
+        g2d.drawString(label, width - PADDING - g2d.getFontMetrics().stringWidth(label), PADDING - 5);
+    }
+
+    public void paintChart(Graphics2D g2d, int width, int height) {
+        Scene scene = scene(width, height, 1);
+        PaintStats.Frame frame = paintStats.startRender();
+        try {
+            paintChart(g2d, scene, plot(scene, frame), () -> false, frame);
+        } finally {
+            paintStats.finishRender(frame, scene.strategy.name(), width, height, false);
+        }
+    }
+
+    // The ranges a scene is drawn over: its zoomed view, else ones that fit the strategy.
+    private static Plot plot(Scene scene, PaintStats.Frame frame) {
+        long computeStart = System.nanoTime();
+        Plot plot = scene.view.length == 0 ? Plot.fit(scene.strategy, PADDING)
+                : new Plot(scene.view[0], scene.view[1], scene.view[2], scene.view[3], PADDING);
+        frame.computed(computeStart);
+        return plot;
+    }
+
+    private void paintChart(Graphics2D g2d, Scene scene, Plot plot, BooleanSupplier cancelled, PaintStats.Frame frame) {
+        int width = scene.width;
+        int height = scene.height;
+        OptionStrategy strategy = scene.strategy;
+        DecimalFormat df = plot.df;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setFont(scene.font);
+        // The price axis sits at zero P&L, or at the plot edge when zero is out of view
+        int zeroY = (int) Math.max(PADDING, Math.min(height - PADDING, plot.y(0, height)));
+
+        // Draw axes
+        g2d.setColor(Color.BLACK);
+        g2d.draw(new Line2D.Double(PADDING, zeroY, width - PADDING, zeroY)); // x-axis (Underlying Price)
+        g2d.draw(new Line2D.Double(PADDING, PADDING, PADDING, height - PADDING)); // y-axis (Profit/Loss)
+
+        // Draw labels
+        g2d.drawString("Underlying Price", width / 2 - 60, zeroY + 20);
+        g2d.drawString("Profit/Loss", PADDING - 35, height / 2);
+        g2d.drawString(scene.title, 10, 20);
+        checkCancelled(cancelled);
+        long computeStart = System.nanoTime();
+        CurveTileCache curves = preExpiryCurves(scene);
+        frame.computed(computeStart);
+        String summary = "Max Profit: " + formatBound(df, strategy.maxProfit()) + ", Max Loss: " + formatBound(df, strategy.maxLoss());
+        if (curves.sliceCount() > 0) {
+            summary += "  |  Pre-expiry P&L (darkest = today): Vol " + df.format(scene.volatility * 100) + "%, Rate "
+                    + df.format(scene.rate * 100) + "%, " + curves.sliceCount() + " slices";
+            if (curves.american() != null) {
+                summary += ", American, dividend yield " + df.format(curves.american().yield() * 100) + "%";
+            }
+        }
+        g2d.drawString(summary, 10, 35);
+
+        // Draw payoff area
+        Shape previousClip = g2d.getClip();
+        g2d.clipRect(PADDING, PADDING, width - 2 * PADDING, height - 2 * PADDING);
+        drawPayoffArea(g2d, strategy, scene.curveColor, plot, width, height, frame);
+        checkCancelled(cancelled);
+        drawPreExpiryCurves(g2d, curves, plot, width, height, frame);
+        checkCancelled(cancelled);
+        if (scene.simulation != null) {
+            drawSimulation(g2d, scene.simulation, plot, width, height);
+        }
+        g2d.setClip(previousClip);
+
+        drawAnnotations(g2d, strategy, plot, width, height, zeroY);
+
+        // Draw vertical profit/loss values
+        g2d.setColor(Color.BLUE);
+        int numYLabs = 5;
+        for (int i = 0; i <= numYLabs; i++) {
+            double yValue = (double) i / numYLabs;
+            int yCoord = PADDING + (int) (yValue * (height - 2 * PADDING));
+            double payoffValue = plot.maxPnl - yValue * (plot.maxPnl - plot.minPnl);
+            if (Math.abs(payoffValue) > 0.01) { // Avoid drawing near zero twice
+                g2d.drawString("$" + df.format(payoffValue), PADDING - 40, yCoord + 5);
+            }
+            g2d.draw(new Line2D.Double(PADDING - 5, yCoord, PADDING, yCoord)); // Tick mark
+        }
+
+        // Draw horizontal price values (starting from 0)
+        int numXLabs = 5;
+        for (int i = 0; i <= numXLabs; i++) {
+            double xValue = (double) i / numXLabs;
+            int xCoord = PADDING + (int) (xValue * (width - 2 * PADDING));
+            double priceValue = plot.minPrice + xValue * (plot.maxPrice - plot.minPrice);
+            g2d.drawString("$" + df.format(priceValue), xCoord - 15, zeroY + 35);
+            g2d.draw(new Line2D.Double(xCoord, zeroY, xCoord, zeroY + 5)); // Tick mark
+        }
+    }
+
+    // Small multiple of the chart for dashboards: the default view's profit and loss regions and payoff
+    // polyline, drawn by the same code as the full chart, over the zero line and strike ticks with the
+    // strategy's name. For charts that are not on screen, such as one per render thread.
+    public void paintThumbnail(Graphics2D g2d, int width, int height) {
+        OptionStrategy strategy = strategy();
+        PaintStats.Frame frame = paintStats.startRender();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setFont(getFont().deriveFont(10f));
+            long computeStart = System.nanoTime();
+            Plot plot = Plot.fit(strategy, THUMBNAIL_INSET);
+            frame.computed(computeStart);
+            double zeroY = plot.y(0, height);
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.draw(new Line2D.Double(THUMBNAIL_INSET, zeroY, width - THUMBNAIL_INSET, zeroY));
+            for (double strike : strategy.strikes()) {
+                double x = plot.x(strike, width);
+                g2d.draw(new Line2D.Double(x, zeroY - 3, x, zeroY + 3));
+            }
+            drawPayoffArea(g2d, strategy, curveColor(), plot, width, height, frame);
+            g2d.setColor(Color.BLACK);
+            g2d.drawString(strategy.name(), THUMBNAIL_INSET, THUMBNAIL_INSET + 10);
+        } finally {
+            paintStats.finishRender(frame, strategy.name(), width, height, false);
+        }
+    }
+
+    // The expiry payoff is linear between strikes and breakevens, so the curve is drawn exactly
+    // through those vertices instead of being sampled once per pixel column.
+    private static void drawPayoffArea(Graphics2D g2d, OptionStrategy strategy, Color curveColor, Plot plot,
+                                       int panelWidth, int panelHeight, PaintStats.Frame frame) {
+        if (!(plot.maxPrice > plot.minPrice) || panelWidth <= 2 * plot.inset) {
+            return;
+        }
+        double zeroY = plot.y(0, panelHeight);
+        long computeStart = System.nanoTime();
+        double[] vertices = strategy.curveVertices(plot.minPrice, plot.maxPrice);
+        double[] payoffs = new double[vertices.length];
+        strategy.engine().evaluate(vertices, payoffs);
+        frame.computed(computeStart);
+        frame.sampled(vertices.length);
+
+        // Profit region is the curve clamped above the zero line, loss region the curve clamped below it
+        Path2D.Double profit = new Path2D.Double(Path2D.WIND_NON_ZERO, vertices.length + 2);
+        Path2D.Double loss = new Path2D.Double(Path2D.WIND_NON_ZERO, vertices.length + 2);
+        Path2D.Double curve = new Path2D.Double(Path2D.WIND_NON_ZERO, vertices.length);
+        double startX = plot.x(vertices[0], panelWidth);
+        double endX = plot.x(vertices[vertices.length - 1], panelWidth);
+        profit.moveTo(startX, zeroY);
+        loss.moveTo(startX, zeroY);
+        for (int i = 0; i < vertices.length; i++) {
+            double x = plot.x(vertices[i], panelWidth);
+            double y = plot.y(payoffs[i], panelHeight);
+            profit.lineTo(x, Math.min(y, zeroY));
+            loss.lineTo(x, Math.max(y, zeroY));
+            if (i == 0) {
+                curve.moveTo(x, y);
+            } else {
+                curve.lineTo(x, y);
+            }
+        }
+        profit.lineTo(endX, zeroY);
+        profit.closePath();
+        loss.lineTo(endX, zeroY);
+        loss.closePath();
+
+        g2d.setColor(PROFIT_FILL);
+        g2d.fill(profit);
+        g2d.setColor(LOSS_FILL);
+        g2d.fill(loss);
+        g2d.setColor(curveColor);
+        g2d.draw(curve);
+    }
+
+    // Tiles stay valid while the strategy and pricing inputs are unchanged, so zooming and panning
+    // only sample the parts of the curves that were never on screen at the current level of detail.
+    // Shared caches are looked up again every frame rather than kept, so one the shared cache evicted
+    // is replaced and charged to the budget instead of growing outside it.
+    private CurveTileCache preExpiryCurves(Scene scene) {
+        long daysToExpiry = scene.strategy.daysToExpiry(LocalDate.ofEpochDay(scene.valuationDay));
+        CurveTileCache tiles = curveTiles;
+        if (scene.sharedCurves) {
+            tiles = CurveTileCache.of(scene.strategy, daysToExpiry, scene.timeSlices, scene.volatility, scene.rate, scene.american);
+        } else if (tiles == null || !tiles.matches(scene.strategy, daysToExpiry, scene.timeSlices, scene.volatility, scene.rate, scene.american)) {
+            tiles = new CurveTileCache(scene.strategy, daysToExpiry, scene.timeSlices, scene.volatility, scene.rate, scene.american);
+        }
+        curveTiles = tiles;
+        return tiles;
+    }
+
+    private static void drawPreExpiryCurves(Graphics2D g2d, CurveTileCache tiles, Plot plot, int panelWidth, int panelHeight,
+                                            PaintStats.Frame frame) {
+        int plotWidth = panelWidth - 2 * PADDING;
+        int plotHeight = panelHeight - 2 * PADDING;
+        if (tiles.sliceCount() == 0 || plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+        long computeStart = System.nanoTime();
+        double[][][] curves = tiles.curves(plot.minPrice, plot.maxPrice,
+                (plot.maxPrice - plot.minPrice) / plotWidth, (plot.maxPnl - plot.minPnl) / plotHeight);
+        frame.computed(computeStart);
+        for (double[][] curve : curves) {
+            frame.sampled(curve[0].length);
+        }
+        for (int slice = 0; slice < curves.length; slice++) {
+            // Fade from dark navy (today) to light blue (closest to expiry)
+            float shade = curves.length == 1 ? 0 : (float) slice / (curves.length - 1);
+            g2d.setColor(new Color(0.1f + 0.5f * shade, 0.1f + 0.55f * shade, 0.45f + 0.5f * shade));
+            double[] prices = curves[slice][0];
+            double[] pnl = curves[slice][1];
+            if (prices.length == 0) {
+                continue;
+            }
+            Path2D.Double curve = new Path2D.Double(Path2D.WIND_NON_ZERO, prices.length);
+            curve.moveTo(plot.x(prices[0], panelWidth), plot.y(pnl[0], panelHeight));
+            for (int i = 1; i < prices.length; i++) {
+                curve.lineTo(plot.x(prices[i], panelWidth), plot.y(pnl[i], panelHeight));
+            }
+            g2d.draw(curve);
+        }
+    }
+
+    // Sideways histogram of the simulated P&L, aligned with the P&L axis and growing from the right edge.
+    private static void drawSimulation(Graphics2D g2d, MonteCarloSimulation simulation, Plot plot, int panelWidth, int panelHeight) {
+        int plotHeight = panelHeight - 2 * PADDING;
+        if (plotHeight <= 0) {
+            return;
+        }
+        double[] rows = new double[plotHeight / SIMULATION_ROW + 1];
+        for (int bin = 0; bin < simulation.binCount(); bin++) {
+            double y = plot.y(simulation.binLow(bin) + simulation.binWidth() / 2, panelHeight) - PADDING;
+            if (y >= 0 && y < plotHeight) {
+                rows[(int) y / SIMULATION_ROW] += simulation.probability(bin);
+            }
+        }
+        double maxProbability = 0;
+        for (double probability : rows) {
+            maxProbability = Math.max(maxProbability, probability);
+        }
+        double maxBar = (panelWidth - 2 * PADDING) * 0.25;
+        g2d.setColor(SIMULATION_FILL);
+        for (int row = 0; row < rows.length; row++) {
+            if (rows[row] > 0) {
+                double length = rows[row] / maxProbability * maxBar;
+                g2d.fill(new Rectangle2D.Double(panelWidth - PADDING - length, PADDING + row * SIMULATION_ROW, length, SIMULATION_ROW));
+            }
+        }
+        g2d.setColor(new Color(90, 0, 120));
+        g2d.drawString("Monte Carlo: " + simulation.summary(), 10, panelHeight - 10);
+    }
+
+    private static void drawStrikeLine(Graphics2D g2d, Plot plot, double strikePrice, int width, int height, int labelY) {
+        int strikeX = (int) plot.x(strikePrice, width);
+        if (strikeX < PADDING || strikeX > width - PADDING) {
+            return;
+        }
+        g2d.setColor(Color.GRAY);
+        g2d.draw(new Line2D.Double(strikeX, PADDING, strikeX, height - PADDING));
+        g2d.drawString("Strike: $" + plot.df.format(strikePrice), strikeX - 25, labelY);
+    }
+
+    private static void drawBreakEven(Graphics2D g2d, Plot plot, String label, double breakEvenPrice, int width, int zeroY, int labelOffset) {
+        int breakEvenX = (int) plot.x(breakEvenPrice, width);
+        if (breakEvenX < PADDING || breakEvenX > width - PADDING) {
+            return;
+        }
+        g2d.setColor(Color.BLUE);
+        g2d.fillOval(breakEvenX - 3, zeroY - 3, 6, 6);
+        g2d.drawString(label + ": $" + plot.df.format(breakEvenPrice), breakEvenX + 5, zeroY + labelOffset);
+    }
+
+    private static String formatBound(DecimalFormat df, double payoff) {
+        return Double.isInfinite(payoff) ? "Unlimited" : "$" + df.format(payoff);
+    }
+
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException();
+        }
+    }
+
+    // A finished render: the image plus the panel size and visible ranges it was drawn for, which the
+    // EDT uses for overlays and mouse navigation while the next render is in flight.
+    static final class Rendered {
+
+        final BufferedImage image;
+        final int width;
+        final int height;
+        final double scale;
+        final double minPrice;
+        final double maxPrice;
+        final double minPnl;
+        final double maxPnl;
+
+        Rendered(BufferedImage image, int width, int height, double scale,
+                 double minPrice, double maxPrice, double minPnl, double maxPnl) {
+            this.image = image;
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.minPnl = minPnl;
+            this.maxPnl = maxPnl;
+        }
+
+        long bytes() {
+            return (long) image.getWidth() * image.getHeight() * 4 + 128;
+        }
+
+        boolean hasPlot() {
+            return maxPrice > minPrice && maxPnl > minPnl && width > 2 * PADDING && height > 2 * PADDING;
+        }
+
+        double x(double price) {
+            return PADDING + (price - minPrice) / (maxPrice - minPrice) * (width - 2 * PADDING);
+        }
+
+        double y(double pnl) {
+            return PADDING + (maxPnl - pnl) / (maxPnl - minPnl) * (height - 2 * PADDING);
+        }
+
+        double price(double x) {
+            return minPrice + (x - PADDING) / (width - 2 * PADDING) * (maxPrice - minPrice);
+        }
+
+        double pnl(double y) {
+            return maxPnl - (y - PADDING) / (height - 2 * PADDING) * (maxPnl - minPnl);
+        }
+    }
+
+    // The visible ranges and margin of one frame, with a number format of its own: frames are drawn on
+    // several threads at once and DecimalFormat is not thread-safe.
+    private static final class Plot {
+
+        final double minPrice;
+        final double maxPrice;
+        final double minPnl;
+        final double maxPnl;
+        final int inset;
+        final DecimalFormat df = new DecimalFormat("#.##");
+
+        Plot(double minPrice, double maxPrice, double minPnl, double maxPnl, int inset) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.minPnl = minPnl;
+            this.maxPnl = maxPnl;
+            this.inset = inset;
+        }
+
+        // The default view: prices from zero to twice the reference price, and a P&L axis symmetric around
+        // zero with room for the premium and every vertex of the visible curve.
+        static Plot fit(OptionStrategy strategy, int inset) {
+            double endPrice = strategy.referencePrice() * 2;
+            double maxAbsPayoff = Math.abs(strategy.netPremium()) * 2;
+            double[] vertices = strategy.curveVertices(0, endPrice);
+            double[] payoffs = new double[vertices.length];
+            strategy.engine().evaluate(vertices, payoffs);
+            for (double payoff : payoffs) {
+                maxAbsPayoff = Math.max(maxAbsPayoff, Math.abs(payoff));
+            }
+            maxAbsPayoff += 10; // Adjust scaling
+            return new Plot(0, endPrice, -maxAbsPayoff, maxAbsPayoff, inset);
+        }
+
+        double x(double price, int panelWidth) {
+            return inset + (price - minPrice) / (maxPrice - minPrice) * (panelWidth - 2 * inset);
+        }
+
+        double y(double pnl, int panelHeight) {
+            return inset + (maxPnl - pnl) / (maxPnl - minPnl) * (panelHeight - 2 * inset);
+        }
+    }
+
+    // A snapshot of everything a render reads from its panel, taken on the thread that asks for the frame.
+    // Equal scenes draw equal images, so it also keys the render cache; the title, colour, font and curve
+    // cache choice follow from the rest and are not compared.
+    private static final class Scene {
+
+        final Class<?> panel;
+        final OptionStrategy strategy;
+        final long valuationDay;
+        final double volatility;
+        final double rate;
+        final int timeSlices;
+        final BinomialTree.Dividends american;
+        final double[] view; // Empty for the default view
+        final MonteCarloSimulation simulation; // Compared by identity; null unless it matches the strategy
+        final int width;
+        final int height;
+        final double scale;
+        final String title;
+        final Color curveColor;
+        final Font font;
+        final boolean sharedCurves;
+
+        Scene(Class<?> panel, OptionStrategy strategy, long valuationDay, double volatility, double rate, int timeSlices,
+              BinomialTree.Dividends american, double[] view, MonteCarloSimulation simulation, int width, int height, double scale,
+              String title, Color curveColor, Font font, boolean sharedCurves) {
+            this.panel = panel;
+            this.strategy = strategy;
+            this.valuationDay = valuationDay;
+            this.volatility = volatility;
+            this.rate = rate;
+            this.timeSlices = timeSlices;
+            this.american = american;
+            this.view = view;
+            this.simulation = simulation;
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+            this.title = title;
+            this.curveColor = curveColor;
+            this.font = font;
+            this.sharedCurves = sharedCurves;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Scene)) {
+                return false;
+            }
+            Scene other = (Scene) o;
+            return panel == other.panel && strategy.equals(other.strategy) && valuationDay == other.valuationDay
+                    && Double.compare(volatility, other.volatility) == 0 && Double.compare(rate, other.rate) == 0
+                    && timeSlices == other.timeSlices && Objects.equals(american, other.american) && Arrays.equals(view, other.view) && simulation == other.simulation
+                    && width == other.width && height == other.height && Double.compare(scale, other.scale) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = panel.hashCode();
+            result = 31 * result + strategy.hashCode();
+            result = 31 * result + Long.hashCode(valuationDay);
+            result = 31 * result + Double.hashCode(volatility);
+            result = 31 * result + Double.hashCode(rate);
+            result = 31 * result + timeSlices;
+            result = 31 * result + Objects.hashCode(american);
+            result = 31 * result + Arrays.hashCode(view);
+            result = 31 * result + System.identityHashCode(simulation);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            return 31 * result + Double.hashCode(scale);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+import java.util.stream.IntStream;
+
+// Headless expiry payoff evaluation. A strategy is compiled into flat leg arrays once (see OptionStrategy.engine),
+// then whole price grids are evaluated into caller-owned double[] buffers without allocating.
+public final class PayoffEngine {
+
+    static final int CALL = 0;
+    static final int PUT = 1;
+
+    private static final int PARALLEL_CHUNK = 1 << 16;
+    private static final PayoffKernel KERNEL = selectKernel();
+
+    private final int[] kinds;
+    private final double[] strikes;
+    private final double[] quantities;
+    private final double stockQuantity;
+    private final double netPremium;
+
+    public PayoffEngine(int[] kinds, double[] strikes, double[] quantities, double stockQuantity, double netPremium) {
+        if (kinds.length != strikes.length || kinds.length != quantities.length) {
+            throw new IllegalArgumentException("Leg arrays must have the same length");
+        }
+        this.kinds = kinds.clone();
+        this.strikes = strikes.clone();
+        this.quantities = quantities.clone();
+        this.stockQuantity = stockQuantity;
+        this.netPremium = netPremium;
+    }
+
+    public double payoffAt(double underlyingPrice) {
+        double payoff = stockQuantity * underlyingPrice - netPremium;
+        for (int leg = 0; leg < kinds.length; leg++) {
+            double intrinsic = kinds[leg] == CALL ? underlyingPrice - strikes[leg] : strikes[leg] - underlyingPrice;
+            payoff += quantities[leg] * Math.max(0, intrinsic);
+        }
+        return payoff;
+    }
+
+    public void evaluate(double[] prices, double[] out) {
+        evaluate(prices, 0, out, 0, prices.length);
+    }
+
+    public void evaluate(double[] prices, int priceOffset, double[] out, int outOffset, int length) {
+        KERNEL.evaluate(this, prices, priceOffset, out, outOffset, length);
+    }
+
+    // Evaluates the evenly spaced grid startPrice + i * priceStep without materializing the prices.
+    public void evaluateGrid(double startPrice, double priceStep, double[] out, int outOffset, int length) {
+        KERNEL.evaluateGrid(this, startPrice, priceStep, out, outOffset, length);
+    }
+
+    public void evaluateGrid(double startPrice, double priceStep, double[] out) {
+        evaluateGrid(startPrice, priceStep, out, 0, out.length);
+    }
+
+    // Splits large grids into fixed chunks on the common fork-join pool; chunk results do not overlap.
+    public void evaluateParallel(double[] prices, double[] out) {
+        int length = prices.length;
+        if (length <= PARALLEL_CHUNK) {
+            evaluate(prices, out);
+            return;
+        }
+        int chunks = (length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * PARALLEL_CHUNK;
+            evaluate(prices, from, out, from, Math.min(PARALLEL_CHUNK, length - from));
+        });
+    }
+
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarKernel);
+    }
+
+    int legCount() {
+        return kinds.length;
+    }
+
+    int kind(int leg) {
+        return kinds[leg];
+    }
+
+    double strike(int leg) {
+        return strikes[leg];
+    }
+
+    double quantity(int leg) {
+        return quantities[leg];
+    }
+
+    double stockQuantity() {
+        return stockQuantity;
+    }
+
+    double netPremium() {
+        return netPremium;
+    }
+
+    // The Vector API is an incubator module, so the SIMD kernel is only loaded when the JVM was
+    // started with --add-modules jdk.incubator.vector. -Dpayoff.vector=false forces the scalar path.
+    private static PayoffKernel selectKernel() {
+        if (Boolean.parseBoolean(System.getProperty("payoff.vector", "true"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (PayoffKernel) Class.forName("VectorPayoffKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar kernel
+            }
+        }
+        return new ScalarKernel();
+    }
+
+    interface PayoffKernel {
+        void evaluate(PayoffEngine engine, double[] prices, int priceOffset, double[] out, int outOffset, int length);
+
+        void evaluateGrid(PayoffEngine engine, double startPrice, double priceStep, double[] out, int outOffset, int length);
+    }
+
+    static final class ScalarKernel implements PayoffKernel {
+
+        @Override
+        public void evaluate(PayoffEngine engine, double[] prices, int priceOffset, double[] out, int outOffset, int length) {
+            for (int i = 0; i < length; i++) {
+                out[outOffset + i] = engine.payoffAt(prices[priceOffset + i]);
+            }
+        }
+
+        @Override
+        public void evaluateGrid(PayoffEngine engine, double startPrice, double priceStep, double[] out, int outOffset, int length) {
+            for (int i = 0; i < length; i++) {
+                out[outOffset + i] = engine.payoffAt(startPrice + i * priceStep);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.text.DecimalFormat;
+import javax.swing.*;
+
+// Aggregate P&L of a loaded position book for one underlying: the expiry curve with its profit and
+// loss regions, and today's theoretical curve on top. The curves come precomputed from PortfolioCurves.
+public class PortfolioChart extends JPanel {
+
+    private static final int PADDING = 50;
+    private static final Color PROFIT_FILL = new Color(0, 255, 0, 100);
+    private static final Color LOSS_FILL = new Color(255, 0, 0, 100);
+    private static final Color TODAY_COLOR = new Color(26, 26, 115);
+
+    private final DecimalFormat df = new DecimalFormat("#.##");
+    private PortfolioCurves curves;
+    private String status = "Load a positions file (CSV or binary) to plot the aggregate P&L of an underlying.";
+
+    public void updateCurves(PortfolioCurves curves, String status) {
+        this.curves = curves;
+        this.status = status;
+        repaint();
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int width = getWidth();
+        int height = getHeight();
+        g2d.setColor(Color.BLACK);
+        g2d.drawString(status, 10, 35);
+        PortfolioCurves current = curves;
+        if (current == null || width <= 2 * PADDING || height <= 2 * PADDING) {
+            return;
+        }
+        g2d.drawString("Portfolio - " + current.symbol() + ": " + current.legCount() + " legs netted into "
+                + current.contractCount() + " contracts", 10, 20);
+
+        double[] prices = current.prices();
+        double[] expiry = current.expiryPnl();
+        double[] today = current.todayPnl();
+        double endPrice = prices[prices.length - 1];
+        double maxAbsPnl = 0;
+        for (int i = 0; i < prices.length; i++) {
+            maxAbsPnl = Math.max(maxAbsPnl, Math.max(Math.abs(expiry[i]), Math.abs(today[i])));
+        }
+        maxAbsPnl = maxAbsPnl > 0 ? maxAbsPnl * 1.1 : 1;
+        int zeroY = height / 2;
+        double xScale = endPrice > 0 ? (width - 2 * PADDING) / endPrice : 0;
+        double yScale = (height - 2 * PADDING) / (2 * maxAbsPnl);
+
+        // Axes
+        g2d.draw(new Line2D.Double(PADDING, zeroY, width - PADDING, zeroY));
+        g2d.draw(new Line2D.Double(PADDING, PADDING, PADDING, height - PADDING));
+        g2d.drawString("Underlying Price", width / 2 - 60, zeroY + 20);
+        g2d.drawString("Profit/Loss", PADDING - 35, height / 2);
+
+        // Expiry regions and curve, then today's curve
+        Path2D.Double profit = new Path2D.Double(Path2D.WIND_NON_ZERO, prices.length + 2);
+        Path2D.Double loss = new Path2D.Double(Path2D.WIND_NON_ZERO, prices.length + 2);
+        Path2D.Double expiryCurve = new Path2D.Double(Path2D.WIND_NON_ZERO, prices.length);
+        Path2D.Double todayCurve = new Path2D.Double(Path2D.WIND_NON_ZERO, prices.length);
+        profit.moveTo(PADDING, zeroY);
+        loss.moveTo(PADDING, zeroY);
+        for (int i = 0; i < prices.length; i++) {
+            double x = PADDING + prices[i] * xScale;
+            double expiryY = zeroY - expiry[i] * yScale;
+            double todayY = zeroY - today[i] * yScale;
+            profit.lineTo(x, Math.min(expiryY, zeroY));
+            loss.lineTo(x, Math.max(expiryY, zeroY));
+            if (i == 0) {
+                expiryCurve.moveTo(x, expiryY);
+                todayCurve.moveTo(x, todayY);
+            } else {
+                expiryCurve.lineTo(x, expiryY);
+                todayCurve.lineTo(x, todayY);
+            }
+        }
+        profit.lineTo(PADDING + endPrice * xScale, zeroY);
+        profit.closePath();
+        loss.lineTo(PADDING + endPrice * xScale, zeroY);
+        loss.closePath();
+        g2d.setColor(PROFIT_FILL);
+        g2d.fill(profit);
+        g2d.setColor(LOSS_FILL);
+        g2d.fill(loss);
+        g2d.setColor(Color.BLUE);
+        g2d.draw(expiryCurve);
+        g2d.setColor(TODAY_COLOR);
+        g2d.draw(todayCurve);
+        g2d.drawString("Today", width - PADDING - 40, PADDING - 5);
+        g2d.setColor(Color.BLUE);
+        g2d.drawString("Expiry", width - PADDING - 90, PADDING - 5);
+
+        // Tick labels
+        int numLabs = 5;
+        for (int i = 0; i <= numLabs; i++) {
+            double fraction = (double) i / numLabs;
+            int yCoord = PADDING + (int) (fraction * (height - 2 * PADDING));
+            double pnlValue = maxAbsPnl - fraction * 2 * maxAbsPnl;
+            if (Math.abs(pnlValue) > 0.01) {
+                g2d.drawString("$" + df.format(pnlValue), 2, yCoord + 5);
+            }
+            g2d.draw(new Line2D.Double(PADDING - 5, yCoord, PADDING, yCoord));
+            int xCoord = PADDING + (int) (fraction * (width - 2 * PADDING));
+            g2d.drawString("$" + df.format(fraction * endPrice), xCoord - 15, zeroY + 35);
+            g2d.draw(new Line2D.Double(xCoord, zeroY, xCoord, zeroY + 5));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+// Aggregate expiry and today's theoretical P&L of every leg of one underlying in a PositionBook,
+// sampled on an evenly spaced price grid.
+//
+// Expiry: each leg's payoff is linear on either side of its strike, so it only adds a slope and an
+// intercept from the first grid point past the strike onwards (calls) or up to it (puts). Legs are
+// reduced in parallel into difference arrays of those slopes and intercepts, and one prefix sum over
+// the grid then gives the exact aggregate at every point, in O(legs + points).
+//
+// Today: legs are first netted into distinct contracts (type, strike, expiry), which books with
+// millions of legs have only thousands of, and Black-Scholes is evaluated once per contract and point.
+public final class PortfolioCurves {
+
+    private static final int LEG_CHUNK = 1 << 16;
+
+    private final String symbol;
+    private final double[] prices;
+    private final double[] expiryPnl;
+    private final double[] todayPnl;
+    private final int legCount;
+    private final int contractCount;
+
+    private PortfolioCurves(String symbol, double[] prices, double[] expiryPnl, double[] todayPnl, int legCount, int contractCount) {
+        this.symbol = symbol;
+        this.prices = prices;
+        this.expiryPnl = expiryPnl;
+        this.todayPnl = todayPnl;
+        this.legCount = legCount;
+        this.contractCount = contractCount;
+    }
+
+    // Samples points prices from 0 to twice the underlying's reference price.
+    public static PortfolioCurves aggregate(PositionBook book, int symbolId, int points, LocalDate valuationDate,
+                                            double volatility, double rate) {
+        if (points < 2) {
+            throw new IllegalArgumentException("Need at least two price points: " + points);
+        }
+        double endPrice = book.referencePrice(symbolId) * 2;
+        double step = endPrice > 0 ? endPrice / (points - 1) : 1;
+        double[] prices = new double[points];
+        for (int i = 0; i < points; i++) {
+            prices[i] = step * i;
+        }
+
+        Reduction reduction = ForkJoinPool.commonPool().invoke(new ReduceTask(book, symbolId, step, points, 0, book.legCount()));
+
+        // Prefix sums turn the per-leg deltas into the slope and intercept in force at each grid point
+        double[] expiryPnl = new double[points];
+        double slope = 0;
+        double intercept = reduction.constant;
+        for (int i = 0; i < points; i++) {
+            slope += reduction.slopeDelta[i];
+            intercept += reduction.interceptDelta[i];
+            expiryPnl[i] = slope * prices[i] + intercept;
+        }
+
+        ContractTable contracts = reduction.contracts;
+        long today = valuationDate.toEpochDay();
+        double[] todayPnl = new double[points];
+        IntStream.range(0, points).parallel().forEach(i -> {
+            double price = prices[i];
+            double value = reduction.constant + reduction.stockQuantity * price;
+            for (int c = 0; c < contracts.size; c++) {
+                OptionLeg.Type type = contracts.types[c] == PositionBook.CALL ? OptionLeg.Type.CALL : OptionLeg.Type.PUT;
+                double years = contracts.expiryDays[c] == Integer.MAX_VALUE ? 0 : BlackScholes.yearsFromDays(contracts.expiryDays[c] - today);
+                value += contracts.quantities[c] * BlackScholes.price(type, price, contracts.strikes[c], years, volatility, rate);
+            }
+            todayPnl[i] = value;
+        });
+        return new PortfolioCurves(book.symbol(symbolId), prices, expiryPnl, todayPnl, reduction.legCount, contracts.size);
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public double[] prices() {
+        return prices;
+    }
+
+    public double[] expiryPnl() {
+        return expiryPnl;
+    }
+
+    public double[] todayPnl() {
+        return todayPnl;
+    }
+
+    public int legCount() {
+        return legCount;
+    }
+
+    public int contractCount() {
+        return contractCount;
+    }
+
+    // Partial sums for a range of legs; two partial results merge by adding them up.
+    private static final class Reduction {
+
+        final double[] slopeDelta;
+        final double[] interceptDelta;
+        final ContractTable contracts = new ContractTable();
+        double constant;
+        double stockQuantity;
+        int legCount;
+
+        Reduction(int points) {
+            slopeDelta = new double[points + 1];
+            interceptDelta = new double[points + 1];
+        }
+
+        void merge(Reduction other) {
+            for (int i = 0; i < slopeDelta.length; i++) {
+                slopeDelta[i] += other.slopeDelta[i];
+                interceptDelta[i] += other.interceptDelta[i];
+            }
+            constant += other.constant;
+            stockQuantity += other.stockQuantity;
+            legCount += other.legCount;
+            contracts.addAll(other.contracts);
+        }
+    }
+
+    private static final class ReduceTask extends RecursiveTask<Reduction> {
+
+        private final PositionBook book;
+        private final int symbolId;
+        private final double step;
+        private final int points;
+        private final int from;
+        private final int to;
+
+        ReduceTask(PositionBook book, int symbolId, double step, int points, int from, int to) {
+            this.book = book;
+            this.symbolId = symbolId;
+            this.step = step;
+            this.points = points;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Reduction compute() {
+            if (to - from > LEG_CHUNK) {
+                int middle = (from + to) >>> 1;
+                ReduceTask left = new ReduceTask(book, symbolId, step, points, from, middle);
+                left.fork();
+                Reduction right = new ReduceTask(book, symbolId, step, points, middle, to).compute();
+                Reduction result = left.join();
+                result.merge(right);
+                return result;
+            }
+            Reduction result = new Reduction(points);
+            for (int leg = from; leg < to; leg++) {
+                if (book.symbolIdAt(leg) != symbolId) {
+                    continue;
+                }
+                result.legCount++;
+                double quantity = book.quantity(leg);
+                result.constant -= quantity * book.premium(leg);
+                byte type = book.type(leg);
+                if (type == PositionBook.STOCK) {
+                    result.stockQuantity += quantity;
+                    result.slopeDelta[0] += quantity;
+                    continue;
+                }
+                double strike = book.strike(leg);
+                // First grid point at or past the strike; the payoff is zero at the strike either way
+                int kink = (int) Math.max(0, Math.min(points, Math.ceil(strike / step)));
+                if (type == PositionBook.CALL) {
+                    result.slopeDelta[kink] += quantity;
+                    result.interceptDelta[kink] -= quantity * strike;
+                } else {
+                    result.slopeDelta[0] -= quantity;
+                    result.interceptDelta[0] += quantity * strike;
+                    result.slopeDelta[kink] += quantity;
+                    result.interceptDelta[kink] -= quantity * strike;
+                }
+                result.contracts.add(type, strike, book.expiryDay(leg), quantity);
+            }
+            return result;
+        }
+    }
+
+    // Open-addressing map from (type, strike, expiry) to the net quantity, stored in parallel arrays.
+    private static final class ContractTable {
+
+        byte[] types = new byte[16];
+        double[] strikes = new double[16];
+        int[] expiryDays = new int[16];
+        double[] quantities = new double[16];
+        int size;
+        private int[] slots = newSlots(64);
+
+        void add(byte type, double strike, int expiryDay, double quantity) {
+            int mask = slots.length - 1;
+            int slot = hash(type, strike, expiryDay) & mask;
+            while (slots[slot] >= 0) {
+                int c = slots[slot];
+                if (types[c] == type && strikes[c] == strike && expiryDays[c] == expiryDay) {
+                    quantities[c] += quantity;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == types.length) {
+                types = Arrays.copyOf(types, size * 2);
+                strikes = Arrays.copyOf(strikes, size * 2);
+                expiryDays = Arrays.copyOf(expiryDays, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            types[size] = type;
+            strikes[size] = strike;
+            expiryDays[size] = expiryDay;
+            quantities[size] = quantity;
+            slots[slot] = size++;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+        }
+
+        void addAll(ContractTable other) {
+            for (int c = 0; c < other.size; c++) {
+                add(other.types[c], other.strikes[c], other.expiryDays[c], other.quantities[c]);
+            }
+        }
+
+        private void rehash() {
+            slots = newSlots(slots.length * 2);
+            int mask = slots.length - 1;
+            for (int c = 0; c < size; c++) {
+                int slot = hash(types[c], strikes[c], expiryDays[c]) & mask;
+                while (slots[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = c;
+            }
+        }
+
+        private static int[] newSlots(int capacity) {
+            int[] slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            return slots;
+        }
+
+        private static int hash(byte type, double strike, int expiryDay) {
+            long bits = Double.doubleToLongBits(strike) * 31 + expiryDay * 7 + type;
+            bits ^= bits >>> 33;
+            bits *= 0xff51afd7ed558ccdL;
+            return (int) (bits ^ (bits >>> 33));
+        }
+    }
+}
\ No newline at end of file
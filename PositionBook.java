@@ -0,0 +1,418 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// A book of option and stock positions held column-wise in primitive arrays, one slot per leg.
+// Files are read through memory-mapped NIO in either of two formats:
+//
+//   CSV     underlying,type,strike,quantity,premium,expiration    e.g.  SPY,C,450,-10,3.25,2025-06-20
+//           (type is C, P or S; for stock the strike and expiration are ignored and the premium is
+//           the entry price; a header line and blank lines are skipped)
+//   binary  see writeBinary: a symbol table followed by fixed-size little-endian records
+//
+// CSV files are parsed in parallel straight from the mapped bytes (see MappedCsvChunk); no String or
+// object is created per leg except for the underlying symbol table.
+public final class PositionBook {
+
+    public static final byte CALL = 0;
+    public static final byte PUT = 1;
+    public static final byte STOCK = 2;
+
+    private static final long MAGIC = 0x314F504646554C46L; // "FLUFFPO1" read as a little-endian long
+    private static final int RECORD_BYTES = 36;
+
+    private final String[] symbols;
+    private final int[] symbolIds;
+    private final byte[] types;
+    private final double[] strikes;
+    private final double[] quantities;
+    private final double[] premiums;
+    private final int[] expiryDays;
+
+    private PositionBook(String[] symbols, int[] symbolIds, byte[] types, double[] strikes, double[] quantities,
+                         double[] premiums, int[] expiryDays) {
+        this.symbols = symbols;
+        this.symbolIds = symbolIds;
+        this.types = types;
+        this.strikes = strikes;
+        this.quantities = quantities;
+        this.premiums = premiums;
+        this.expiryDays = expiryDays;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PositionBook <positions.csv|positions.bin> [binary-output]");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        PositionBook book = load(Paths.get(args[0]));
+        System.out.printf("Loaded %d legs over %d underlyings in %d ms%n",
+                book.legCount(), book.symbolCount(), (System.nanoTime() - start) / 1_000_000);
+        if (args.length > 1) {
+            book.writeBinary(Paths.get(args[1]));
+            System.out.println("Wrote " + args[1]);
+        }
+    }
+
+    public static PositionBook load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() >= 8) {
+                ByteBuffer head = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(head, 0);
+                if (head.getLong(0) == MAGIC) {
+                    return loadBinary(channel);
+                }
+            }
+            return loadCsv(channel);
+        }
+    }
+
+    public int legCount() {
+        return types.length;
+    }
+
+    public int symbolCount() {
+        return symbols.length;
+    }
+
+    public String symbol(int symbolId) {
+        return symbols[symbolId];
+    }
+
+    public int symbolId(String symbol) {
+        for (int i = 0; i < symbols.length; i++) {
+            if (symbols[i].equals(symbol)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public List<String> symbols() {
+        return List.of(symbols);
+    }
+
+    int symbolIdAt(int leg) {
+        return symbolIds[leg];
+    }
+
+    byte type(int leg) {
+        return types[leg];
+    }
+
+    double strike(int leg) {
+        return strikes[leg];
+    }
+
+    double quantity(int leg) {
+        return quantities[leg];
+    }
+
+    double premium(int leg) {
+        return premiums[leg];
+    }
+
+    int expiryDay(int leg) {
+        return expiryDays[leg];
+    }
+
+    // Largest strike or stock entry price among the underlying's legs; charts span 0 to twice this.
+    public double referencePrice(int symbolId) {
+        return IntStream.range(0, types.length).parallel()
+                .filter(leg -> symbolIds[leg] == symbolId)
+                .mapToDouble(leg -> types[leg] == STOCK ? premiums[leg] : strikes[leg])
+                .max().orElse(0);
+    }
+
+    // One strategy per underlying and expiry with the legs netted by type, strike and expiry: quantities
+    // summed and premiums averaged by quantity. An underlying with one expiry keeps its name; with several,
+    // each strategy is named after the underlying and its expiration, e.g. "SPY 2025-06-20". Stock, merged
+    // into one leg at its average entry price, and options without an expiration join the underlying's
+    // nearest expiry, or form a strategy of their own without an expiration when nothing else is open.
+    //
+    // Contracts netted out to zero have no leg, but the cash they realized stays in the P&L: it is folded
+    // into the premium of the largest leg of the underlying's nearest strategy, and an underlying with
+    // nothing left open is listed on its own, as a stock leg bought and sold whose P&L is that cash. The
+    // strategies of an underlying therefore add up to its aggregate expiry P&L (PortfolioCurves.aggregate).
+    //
+    // Legs are grouped by sorting one primitive key per leg (underlying, expiry, type and strike ranks),
+    // so no object is created per leg.
+    public List<OptionStrategy> netStrategies() {
+        int legs = types.length;
+        int[] legExpiries = new int[legs];
+        double[] legStrikes = new double[legs];
+        for (int leg = 0; leg < legs; leg++) {
+            legExpiries[leg] = types[leg] == STOCK ? Integer.MAX_VALUE : expiryDays[leg];
+            legStrikes[leg] = types[leg] == STOCK ? 0 : strikes[leg];
+        }
+        int[] expiries = OptionChain.distinct(legExpiries);
+        double[] distinctStrikes = OptionChain.distinct(legStrikes);
+        int strikeBits = bits(distinctStrikes.length);
+        int typeBits = 2;
+        int expiryBits = bits(expiries.length);
+        if (bits(symbols.length) + expiryBits + typeBits + strikeBits > 63) {
+            throw new IllegalArgumentException("Too many underlyings, expiries and strikes to net");
+        }
+        long[] keys = new long[legs];
+        IntStream.range(0, legs).parallel().forEach(leg -> keys[leg] = (((long) symbolIds[leg] << expiryBits
+                | Arrays.binarySearch(expiries, legExpiries[leg])) << typeBits | types[leg]) << strikeBits
+                | Arrays.binarySearch(distinctStrikes, legStrikes[leg]));
+        long[] contracts = distinct(keys);
+        double[] netQuantities = new double[contracts.length];
+        double[] netCosts = new double[contracts.length]; // Sum of quantity * premium
+        for (int leg = 0; leg < legs; leg++) {
+            int contract = Arrays.binarySearch(contracts, keys[leg]);
+            netQuantities[contract] += quantities[leg];
+            netCosts[contract] += quantities[leg] * premiums[leg];
+        }
+
+        List<OptionStrategy> strategies = new ArrayList<>();
+        int expiryShift = typeBits + strikeBits;
+        for (int from = 0; from < contracts.length; ) {
+            int symbolId = (int) (contracts[from] >>> expiryShift + expiryBits);
+            List<List<OptionLeg>> groups = new ArrayList<>(); // Open legs per expiry, nearest first
+            List<Integer> groupExpiries = new ArrayList<>();
+            double closedCost = 0;
+            int to = from;
+            for (; to < contracts.length && (int) (contracts[to] >>> expiryShift + expiryBits) == symbolId; to++) {
+                long contract = contracts[to];
+                if (netQuantities[to] == 0) {
+                    closedCost += netCosts[to];
+                    continue;
+                }
+                int expiryDay = expiries[(int) (contract >>> expiryShift & (1L << expiryBits) - 1)];
+                byte type = (byte) (contract >>> strikeBits & (1L << typeBits) - 1);
+                double strike = distinctStrikes[(int) (contract & (1L << strikeBits) - 1)];
+                if (groupExpiries.isEmpty() || groupExpiries.get(groupExpiries.size() - 1) != expiryDay) {
+                    groups.add(new ArrayList<>());
+                    groupExpiries.add(expiryDay);
+                }
+                OptionLeg.Type legType = type == CALL ? OptionLeg.Type.CALL : type == PUT ? OptionLeg.Type.PUT : OptionLeg.Type.STOCK;
+                groups.get(groups.size() - 1).add(new OptionLeg(legType, strike, netQuantities[to], netCosts[to] / netQuantities[to]));
+            }
+            from = to;
+            if (groups.isEmpty()) {
+                strategies.add(new OptionStrategy(symbols[symbolId], "",
+                        List.of(OptionLeg.stock(1, closedCost), OptionLeg.stock(-1, 0))));
+                continue;
+            }
+            // Undated legs sort last; they join the nearest expiry when there is one
+            if (groups.size() > 1 && groupExpiries.get(groups.size() - 1) == Integer.MAX_VALUE) {
+                groups.get(0).addAll(groups.remove(groups.size() - 1));
+                groupExpiries.remove(groupExpiries.size() - 1);
+            }
+            if (closedCost != 0) {
+                List<OptionLeg> nearest = groups.get(0);
+                int largest = 0;
+                for (int leg = 1; leg < nearest.size(); leg++) {
+                    if (Math.abs(nearest.get(leg).quantity()) > Math.abs(nearest.get(largest).quantity())) {
+                        largest = leg;
+                    }
+                }
+                OptionLeg leg = nearest.get(largest);
+                nearest.set(largest, new OptionLeg(leg.type(), leg.strike(), leg.quantity(),
+                        leg.premium() + closedCost / leg.quantity()));
+            }
+            for (int group = 0; group < groups.size(); group++) {
+                int expiryDay = groupExpiries.get(group);
+                String expiration = expiryDay == Integer.MAX_VALUE ? "" : LocalDate.ofEpochDay(expiryDay).toString();
+                String name = groups.size() == 1 ? symbols[symbolId] : symbols[symbolId] + " " + expiration;
+                strategies.add(new OptionStrategy(name, expiration, groups.get(group)));
+            }
+        }
+        return strategies;
+    }
+
+    // Bits needed to hold the indexes 0 to count - 1.
+    private static int bits(int count) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, count - 1));
+    }
+
+    private static long[] distinct(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.parallelSort(sorted);
+        int size = 0;
+        for (long value : sorted) {
+            if (size == 0 || value != sorted[size - 1]) {
+                sorted[size++] = value;
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    // Layout: magic (8), symbol count (4), per symbol a length-prefixed UTF-8 name (2 + n), leg count (4),
+    // then per leg: symbol id (4), type (4), expiry epoch day (4), strike (8), quantity (8), premium (8).
+    public void writeBinary(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16))) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            record.putLong(0, MAGIC).putInt(8, symbols.length);
+            data.write(record.array(), 0, 12);
+            for (String symbol : symbols) {
+                byte[] name = symbol.getBytes(StandardCharsets.UTF_8);
+                record.putShort(0, (short) name.length);
+                data.write(record.array(), 0, 2);
+                data.write(name);
+            }
+            record.putInt(0, types.length);
+            data.write(record.array(), 0, 4);
+            for (int leg = 0; leg < types.length; leg++) {
+                record.putInt(0, symbolIds[leg]).putInt(4, types[leg]).putInt(8, expiryDays[leg])
+                        .putDouble(12, strikes[leg]).putDouble(20, quantities[leg]).putDouble(28, premiums[leg]);
+                data.write(record.array(), 0, RECORD_BYTES);
+            }
+        }
+    }
+
+    private static PositionBook loadBinary(FileChannel channel) throws IOException {
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.position(8);
+        String[] symbols = new String[header.getInt()];
+        for (int i = 0; i < symbols.length; i++) {
+            byte[] name = new byte[header.getShort() & 0xFFFF];
+            header.get(name);
+            symbols[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        int legs = header.getInt();
+        long recordsStart = header.position();
+        if (recordsStart + (long) legs * RECORD_BYTES > channel.size()) {
+            throw new IOException("Truncated positions file: expected " + legs + " legs");
+        }
+        int[] symbolIds = new int[legs];
+        byte[] types = new byte[legs];
+        double[] strikes = new double[legs];
+        double[] quantities = new double[legs];
+        double[] premiums = new double[legs];
+        int[] expiryDays = new int[legs];
+
+        // Records are fixed size, so each chunk maps and decodes its own region independently
+        int recordsPerChunk = (int) (MappedCsvChunk.CHUNK_BYTES / RECORD_BYTES);
+        int chunks = (legs + recordsPerChunk - 1) / recordsPerChunk;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * recordsPerChunk;
+            int to = Math.min(legs, from + recordsPerChunk);
+            ByteBuffer records = MappedCsvChunk.map(channel, recordsStart + (long) from * RECORD_BYTES, (long) (to - from) * RECORD_BYTES);
+            for (int leg = from, offset = 0; leg < to; leg++, offset += RECORD_BYTES) {
+                symbolIds[leg] = records.getInt(offset);
+                types[leg] = (byte) records.getInt(offset + 4);
+                expiryDays[leg] = records.getInt(offset + 8);
+                strikes[leg] = records.getDouble(offset + 12);
+                quantities[leg] = records.getDouble(offset + 20);
+                premiums[leg] = records.getDouble(offset + 28);
+                if (symbolIds[leg] < 0 || symbolIds[leg] >= symbols.length || types[leg] < CALL || types[leg] > STOCK) {
+                    throw new IllegalArgumentException("Corrupt position record " + leg);
+                }
+            }
+        });
+        return new PositionBook(symbols, symbolIds, types, strikes, quantities, premiums, expiryDays);
+    }
+
+    private static PositionBook loadCsv(FileChannel channel) throws IOException {
+        CsvChunk[] parsed = MappedCsvChunk.parse(channel, CsvChunk::new, CsvChunk[]::new);
+
+        // Merge: concatenate the columns and remap chunk-local symbol ids onto one table
+        Map<String, Integer> symbolTable = new HashMap<>();
+        List<String> symbols = new ArrayList<>();
+        int legs = 0;
+        for (CsvChunk chunk : parsed) {
+            legs += chunk.count;
+        }
+        int[] symbolIds = new int[legs];
+        byte[] types = new byte[legs];
+        double[] strikes = new double[legs];
+        double[] quantities = new double[legs];
+        double[] premiums = new double[legs];
+        int[] expiryDays = new int[legs];
+        int offset = 0;
+        for (CsvChunk chunk : parsed) {
+            int[] remap = new int[chunk.symbols.size()];
+            for (int i = 0; i < remap.length; i++) {
+                String symbol = chunk.symbols.get(i);
+                remap[i] = symbolTable.computeIfAbsent(symbol, s -> {
+                    symbols.add(s);
+                    return symbols.size() - 1;
+                });
+            }
+            for (int i = 0; i < chunk.count; i++) {
+                symbolIds[offset + i] = remap[chunk.symbolIds[i]];
+            }
+            System.arraycopy(chunk.types, 0, types, offset, chunk.count);
+            System.arraycopy(chunk.strikes, 0, strikes, offset, chunk.count);
+            System.arraycopy(chunk.quantities, 0, quantities, offset, chunk.count);
+            System.arraycopy(chunk.premiums, 0, premiums, offset, chunk.count);
+            System.arraycopy(chunk.expiryDays, 0, expiryDays, offset, chunk.count);
+            offset += chunk.count;
+        }
+        return new PositionBook(symbols.toArray(new String[0]), symbolIds, types, strikes, quantities, premiums, expiryDays);
+    }
+
+    // Columns of the legs on the lines that start inside one byte range of the mapped file.
+    private static final class CsvChunk extends MappedCsvChunk {
+
+        private final int[] fields = new int[8];
+        int count;
+        int[] symbolIds = new int[1024];
+        byte[] types = new byte[1024];
+        double[] strikes = new double[1024];
+        double[] quantities = new double[1024];
+        double[] premiums = new double[1024];
+        int[] expiryDays = new int[1024];
+
+        @Override
+        void parseLine(int start, int end) {
+            int fieldCount = split(start, end, fields);
+            if (fieldCount < 5) {
+                throw new IllegalArgumentException("Expected underlying,type,strike,quantity,premium[,expiration] at offset " + (fileOffset + start));
+            }
+            byte type = parseType(fields[1]);
+            if (type < 0) {
+                if (count == 0 && fileOffset == 0) {
+                    return; // Header line
+                }
+                throw new IllegalArgumentException("Unknown leg type at offset " + (fileOffset + fields[1]));
+            }
+            ensureCapacity();
+            symbolIds[count] = symbolId(fields[0], fields[1] - 1);
+            types[count] = type;
+            strikes[count] = type == STOCK ? 0 : parseDouble(fields[2], fields[3] - 1, 0);
+            quantities[count] = parseDouble(fields[3], fields[4] - 1, Double.NaN);
+            premiums[count] = parseDouble(fields[4], fields[5] - 1, 0);
+            expiryDays[count] = fieldCount > 5 && type != STOCK ? parseDate(fields[5], fields[6] - 1) : Integer.MAX_VALUE;
+            if (Double.isNaN(quantities[count])) {
+                throw new IllegalArgumentException("Missing quantity at offset " + (fileOffset + fields[3]));
+            }
+            count++;
+        }
+
+        private void ensureCapacity() {
+            if (count < types.length) {
+                return;
+            }
+            int capacity = types.length * 2;
+            symbolIds = Arrays.copyOf(symbolIds, capacity);
+            types = Arrays.copyOf(types, capacity);
+            strikes = Arrays.copyOf(strikes, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            premiums = Arrays.copyOf(premiums, capacity);
+            expiryDays = Arrays.copyOf(expiryDays, capacity);
+        }
+    }
+}
\ No newline at end of file
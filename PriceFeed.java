@@ -0,0 +1,30 @@
+import java.nio.file.Paths;
+import java.util.function.DoubleConsumer;
+
+// Source of underlying price ticks. Ticks are delivered on the feed's own thread, never the EDT.
+public interface PriceFeed extends AutoCloseable {
+
+    void start(DoubleConsumer onTick);
+
+    @Override
+    void close();
+
+    // "host:port" connects to a line-based socket feed; anything else is replayed as a tick file.
+    static PriceFeed open(String source, int ticksPerSecond) {
+        int colon = source.lastIndexOf(':');
+        if (colon > 0 && source.substring(colon + 1).matches("\\d+") && !source.contains("/") && !source.contains("\\")) {
+            return new SocketPriceFeed(source.substring(0, colon), Integer.parseInt(source.substring(colon + 1)));
+        }
+        return new ReplayPriceFeed(Paths.get(source), ticksPerSecond, true);
+    }
+
+    // Accepts "price" or "timestamp,price" lines; returns NaN for headers and malformed lines.
+    static double parseTick(String line) {
+        int comma = line.lastIndexOf(',');
+        try {
+            return Double.parseDouble(line.substring(comma + 1).trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+// Replays a tick file at a fixed rate, optionally looping, on a daemon thread.
+public final class ReplayPriceFeed implements PriceFeed {
+
+    private final Path file;
+    private final int ticksPerSecond;
+    private final boolean loop;
+    private volatile boolean running;
+    private Thread thread;
+
+    public ReplayPriceFeed(Path file, int ticksPerSecond, boolean loop) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+        }
+        this.file = file;
+        this.ticksPerSecond = ticksPerSecond;
+        this.loop = loop;
+    }
+
+    @Override
+    public synchronized void start(DoubleConsumer onTick) {
+        if (!Files.isReadable(file)) {
+            throw new UncheckedIOException(new IOException("Cannot read tick file " + file));
+        }
+        running = true;
+        thread = new Thread(() -> replay(onTick), "price-feed-replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void replay(DoubleConsumer onTick) {
+        long nanosPerTick = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        long next = System.nanoTime();
+        do {
+            int delivered = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while (running && (line = reader.readLine()) != null) {
+                    double price = PriceFeed.parseTick(line);
+                    if (Double.isNaN(price)) {
+                        continue;
+                    }
+                    onTick.accept(price);
+                    delivered++;
+                    // Pace against an absolute schedule so sleep overshoot does not accumulate
+                    next += nanosPerTick;
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+            } catch (IOException e) {
+                if (running) { // Otherwise close interrupted a read, which closes the channel
+                    System.err.println("Tick replay stopped: " + e);
+                }
+                return;
+            }
+            if (delivered == 0 && running) {
+                System.err.println("Tick replay stopped: no ticks in " + file);
+                return; // Looping would reopen the file in a busy loop
+            }
+        } while (running && loop);
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,384 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.imageio.ImageIO;
+
+// Local HTTP server for the payoff computations, for dashboards that cannot embed the Swing window:
+//
+//   GET /payoff?strategy=long-call&strike=150&premium=5&expiration=2025-06-20   expiry (and, before expiry,
+//       [&from=0&to=300&points=201&volatility=0.3&rate=0.05]                   today's) P&L over a price grid
+//   GET /breakevens?...                                                         breakevens, max profit and loss
+//   GET /greeks?...[&spot=150&volatility=0.3&rate=0.05&days=30]                 strategy Greeks at one spot
+//   GET /chart.png?...[&width=800&height=600&slices=5&volatility=0.3&rate=0.05] the chart the window draws
+//   GET /stats                                                                  request counters
+//
+// Strategies are long-call and long-put (strike, premium), long-straddle (strike, callPremium, putPremium)
+// or custom (legs such as "+1 C 150 @5; -1 C 160 @2", URL-encoded, and an optional name), all with an
+// expiration. Volatility and rate are annualized decimals; answers are JSON except for the chart, and bad
+// parameters get a 400 with {"error": ...}. Unbounded max profit or loss is written as null.
+//
+// Requests run on a VirtualThreads executor. Identical requests in flight at the same time are computed
+// once: the first one computes and the others wait for its response. Chart renders are limited to a few
+// at a time by CPU count and heap; beyond that /chart.png answers 503 and the client should retry.
+public final class RiskServer {
+
+    private static final int MAX_POINTS = 100_000;
+    private static final int MAX_CHART_SIDE = 4096;
+    // Room for the image and its PNG encoding at the largest size; renders at once use at most a quarter of the heap
+    private static final long CHART_RENDER_BYTES = 2L * MAX_CHART_SIDE * MAX_CHART_SIDE * 4;
+    private static final Semaphore CHART_RENDERS = new Semaphore((int) Math.max(1, Math.min(
+            Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() / 4 / CHART_RENDER_BYTES)));
+
+    private final HttpServer server;
+    private final ConcurrentHashMap<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private RiskServer(HttpServer server) {
+        this.server = server;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        RiskServer riskServer = start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        System.out.println("Risk server listening on http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + riskServer.port() + "/");
+    }
+
+    // Port 0 picks a free port; see port().
+    public static RiskServer start(InetSocketAddress address) throws IOException {
+        ImageIO.setUseCache(false); // Encode in memory rather than through temp files
+        HttpServer server = HttpServer.create(address, 1024);
+        RiskServer riskServer = new RiskServer(server);
+        server.createContext("/", riskServer::handle);
+        server.setExecutor(VirtualThreads.newExecutor("risk-server"));
+        server.start();
+        return riskServer;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            String path = exchange.getRequestURI().getPath();
+            Response response;
+            if (!exchange.getRequestMethod().equals("GET")) {
+                response = Response.error(405, "Only GET is supported");
+            } else if (path.equals("/stats")) {
+                response = Response.json(String.format("{\"requests\":%d,\"computed\":%d,\"coalesced\":%d,\"inFlight\":%d}",
+                        requests.sum(), computed.sum(), coalesced.sum(), inFlight.size()));
+            } else {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                response = coalesce(path + "?" + new TreeMap<>(query), () -> compute(path, query));
+            }
+            exchange.getResponseHeaders().set("Content-Type", response.contentType);
+            exchange.sendResponseHeaders(response.status, response.body.length);
+            exchange.getResponseBody().write(response.body);
+        } catch (RuntimeException e) {
+            byte[] body = ("{\"error\":" + quote(String.valueOf(e)) + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(500, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Runs work unless an identical request is already computing, in which case its response is shared.
+    private Response coalesce(String key, Supplier<Response> work) {
+        CompletableFuture<Response> mine = new CompletableFuture<>();
+        CompletableFuture<Response> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return running.join();
+        }
+        try {
+            computed.increment();
+            Response response = work.get();
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Response compute(String path, Map<String, String> query) {
+        try {
+            switch (path) {
+                case "/payoff":
+                    return Response.json(payoff(strategy(query), query));
+                case "/breakevens":
+                    return Response.json(breakevens(strategy(query)));
+                case "/greeks":
+                    return Response.json(greeks(strategy(query), query));
+                case "/chart.png":
+                    OptionStrategy strategy = strategy(query);
+                    if (!CHART_RENDERS.tryAcquire()) {
+                        return Response.error(503, "Too many charts rendering, try again shortly");
+                    }
+                    try {
+                        return new Response(200, "image/png", chart(strategy, query));
+                    } finally {
+                        CHART_RENDERS.release();
+                    }
+                default:
+                    return Response.error(404, "Unknown path " + path);
+            }
+        } catch (IllegalArgumentException e) {
+            return Response.error(400, e.getMessage());
+        }
+    }
+
+    static OptionStrategy strategy(Map<String, String> query) {
+        String expiration = query.getOrDefault("expiration", "");
+        switch (query.getOrDefault("strategy", query.containsKey("legs") ? "custom" : "")) {
+            case "long-call":
+                return OptionStrategy.longCall(number(query, "strike"), number(query, "premium"), expiration);
+            case "long-put":
+                return OptionStrategy.longPut(number(query, "strike"), number(query, "premium"), expiration);
+            case "long-straddle":
+                return OptionStrategy.longStraddle(number(query, "strike"), number(query, "callPremium"),
+                        number(query, "putPremium"), expiration);
+            case "custom":
+                if (!query.containsKey("legs")) {
+                    throw new IllegalArgumentException("Missing parameter legs");
+                }
+                return OptionStrategy.parse(query.getOrDefault("name", "Custom"), expiration, query.get("legs"));
+            default:
+                throw new IllegalArgumentException("strategy must be long-call, long-put, long-straddle or custom");
+        }
+    }
+
+    private static String payoff(OptionStrategy strategy, Map<String, String> query) {
+        double from = number(query, "from", 0);
+        double to = number(query, "to", strategy.referencePrice() * 2);
+        int points = (int) number(query, "points", 201);
+        if (points < 2 || points > MAX_POINTS || !(to > from) || from < 0) {
+            throw new IllegalArgumentException("Need 0 <= from < to and 2 to " + MAX_POINTS + " points");
+        }
+        double[] prices = new double[points];
+        for (int i = 0; i < points; i++) {
+            prices[i] = from + (to - from) * i / (points - 1);
+        }
+        double[] expiry = new double[points];
+        strategy.engine().evaluate(prices, expiry);
+        StringBuilder json = new StringBuilder(points * 40);
+        json.append("{\"name\":").append(quote(strategy.name())).append(",\"expiration\":").append(quote(strategy.expirationDate()));
+        json.append(",\"prices\":");
+        appendArray(json, prices);
+        json.append(",\"expiry\":");
+        appendArray(json, expiry);
+        long days = strategy.daysToExpiry(LocalDate.now());
+        if (days > 0) {
+            double volatility = number(query, "volatility", 0.30);
+            double rate = number(query, "rate", 0.05);
+            double years = BlackScholes.yearsFromDays(days);
+            double[] today = new double[points];
+            for (int i = 0; i < points; i++) {
+                today[i] = strategy.theoreticalPnl(prices[i], years, volatility, rate);
+            }
+            json.append(",\"days\":").append(days).append(",\"volatility\":");
+            appendNumber(json, volatility);
+            json.append(",\"rate\":");
+            appendNumber(json, rate);
+            json.append(",\"today\":");
+            appendArray(json, today);
+        }
+        return json.append('}').toString();
+    }
+
+    private static String breakevens(OptionStrategy strategy) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"name\":").append(quote(strategy.name())).append(",\"expiration\":").append(quote(strategy.expirationDate()));
+        json.append(",\"breakevens\":");
+        appendArray(json, strategy.breakevens());
+        json.append(",\"strikes\":");
+        appendArray(json, strategy.strikes());
+        json.append(",\"netPremium\":");
+        appendNumber(json, strategy.netPremium());
+        json.append(",\"maxProfit\":");
+        appendNumber(json, strategy.maxProfit());
+        json.append(",\"maxLoss\":");
+        appendNumber(json, strategy.maxLoss());
+        return json.append('}').toString();
+    }
+
+    // At the given days to expiry, or the days left until the strategy's expiration.
+    private static String greeks(OptionStrategy strategy, Map<String, String> query) {
+        double spot = number(query, "spot", strategy.referencePrice());
+        double volatility = number(query, "volatility", 0.30);
+        double rate = number(query, "rate", 0.05);
+        double days = number(query, "days", strategy.daysToExpiry(LocalDate.now()));
+        if (!(days > 0)) {
+            throw new IllegalArgumentException("Greeks need days to expiry: pass days or a future expiration");
+        }
+        double years = BlackScholes.yearsFromDays(days);
+        StringBuilder json = new StringBuilder();
+        json.append("{\"name\":").append(quote(strategy.name())).append(",\"spot\":");
+        appendNumber(json, spot);
+        json.append(",\"days\":");
+        appendNumber(json, days);
+        json.append(",\"volatility\":");
+        appendNumber(json, volatility);
+        json.append(",\"rate\":");
+        appendNumber(json, rate);
+        for (Greek greek : Greek.values()) {
+            json.append(",\"").append(greek.name().toLowerCase()).append("\":");
+            appendNumber(json, strategy.greek(greek, spot, years, volatility, rate));
+        }
+        json.append(",\"theoreticalPnl\":");
+        appendNumber(json, strategy.theoreticalPnl(spot, years, volatility, rate));
+        json.append(",\"expiryPnl\":");
+        appendNumber(json, strategy.payoffAt(spot));
+        return json.append('}').toString();
+    }
+
+    private static byte[] chart(OptionStrategy strategy, Map<String, String> query) {
+        int width = (int) number(query, "width", 800);
+        int height = (int) number(query, "height", 600);
+        if (width < 1 || height < 1 || width > MAX_CHART_SIDE || height > MAX_CHART_SIDE) {
+            throw new IllegalArgumentException("width and height must be between 1 and " + MAX_CHART_SIDE);
+        }
+        int slices = (int) number(query, "slices", 5);
+        if (slices < 0 || slices > 20) {
+            throw new IllegalArgumentException("slices must be between 0 and 20");
+        }
+        StrategyPayoff chart = new StrategyPayoff(strategy);
+        chart.updatePricing(number(query, "volatility", 0.30), number(query, "rate", 0.05), slices);
+        chart.setSize(width, height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(chart.getBackground());
+            g2d.fillRect(0, 0, width, height);
+            chart.paintChart(g2d, width, height);
+        } finally {
+            g2d.dispose();
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", png);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return png.toByteArray();
+    }
+
+    private static double number(Map<String, String> query, String name) {
+        if (!query.containsKey(name)) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return number(query, name, Double.NaN);
+    }
+
+    private static double number(Map<String, String> query, String name, double defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static void appendArray(StringBuilder json, double[] values) {
+        json.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendNumber(json, values[i]);
+        }
+        json.append(']');
+    }
+
+    // JSON has no infinities or NaN; they are written as null.
+    private static void appendNumber(StringBuilder json, double value) {
+        if (Double.isFinite(value)) {
+            json.append(value);
+        } else {
+            json.append("null");
+        }
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static final class Response {
+
+        final int status;
+        final String contentType;
+        final byte[] body;
+
+        Response(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        static Response json(String json) {
+            return new Response(200, "application/json", json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, "application/json",
+                    ("{\"error\":" + quote(String.valueOf(message)) + "}").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
\ No newline at end of file
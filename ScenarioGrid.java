@@ -0,0 +1,278 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+// What-if P&L of a strategy over every combination of an underlying price shock (relative to spot), a
+// volatility shock (added to the base volatility) and a number of days elapsed, priced with
+// Black-Scholes and stored as one flat array, days outermost and prices innermost.
+//
+// Grids are built from the previous one where they can be: when the strategy and base pricing are the
+// same, every cell whose three axis values all appear in the previous grid is copied rather than
+// priced again, so changing one axis only prices the slices at its new values. Rows of one (days,
+// volatility) pair are filled in parallel on fork-join tasks, with the per-leg terms that only depend
+// on time and volatility worked out once per row.
+public final class ScenarioGrid {
+
+    private static final double MIN_VOLATILITY = 1e-4;
+    private static final int ROWS_PER_TASK = 4;
+
+    private final OptionStrategy strategy;
+    private final double spot;
+    private final double volatility;
+    private final double rate;
+    private final LocalDate valuationDate;
+    private final double[] priceShocks;
+    private final double[] volatilityShocks;
+    private final double[] daysElapsed;
+    private final double[] pnl;
+    private final long pricedCells;
+    private final long elapsedNanos;
+
+    private ScenarioGrid(OptionStrategy strategy, double spot, double volatility, double rate, LocalDate valuationDate,
+                         double[] priceShocks, double[] volatilityShocks, double[] daysElapsed, double[] pnl,
+                         long pricedCells, long elapsedNanos) {
+        this.strategy = strategy;
+        this.spot = spot;
+        this.volatility = volatility;
+        this.rate = rate;
+        this.valuationDate = valuationDate;
+        this.priceShocks = priceShocks;
+        this.volatilityShocks = volatilityShocks;
+        this.daysElapsed = daysElapsed;
+        this.pnl = pnl;
+        this.pricedCells = pricedCells;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // count evenly spaced values from from to to, both included.
+    public static double[] steps(double from, double to, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = count == 1 ? from : from + (to - from) * i / (count - 1);
+        }
+        return values;
+    }
+
+    // Prices the grid, copying what it can from previous (which may be null). Throws CancellationException
+    // once cancelled turns true.
+    public static ScenarioGrid compute(OptionStrategy strategy, double spot, double volatility, double rate, LocalDate valuationDate,
+                                       double[] priceShocks, double[] volatilityShocks, double[] daysElapsed,
+                                       ScenarioGrid previous, BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        boolean reusable = previous != null && previous.strategy.equals(strategy) && previous.spot == spot
+                && previous.volatility == volatility && previous.rate == rate && previous.valuationDate.equals(valuationDate);
+        ScenarioGrid grid = new ScenarioGrid(strategy, spot, volatility, rate, valuationDate, priceShocks.clone(),
+                volatilityShocks.clone(), daysElapsed.clone(), new double[priceShocks.length * volatilityShocks.length * daysElapsed.length], 0, 0);
+        Fill fill = new Fill(grid, reusable ? previous : null, cancelled);
+        ForkJoinPool.commonPool().invoke(new RowTask(fill, 0, daysElapsed.length * volatilityShocks.length));
+        return new ScenarioGrid(strategy, spot, volatility, rate, valuationDate, grid.priceShocks, grid.volatilityShocks,
+                grid.daysElapsed, grid.pnl, fill.priced.sum(), System.nanoTime() - start);
+    }
+
+    public OptionStrategy strategy() {
+        return strategy;
+    }
+
+    public double spot() {
+        return spot;
+    }
+
+    public double volatility() {
+        return volatility;
+    }
+
+    public double[] priceShocks() {
+        return priceShocks.clone();
+    }
+
+    public double[] volatilityShocks() {
+        return volatilityShocks.clone();
+    }
+
+    public double[] daysElapsed() {
+        return daysElapsed.clone();
+    }
+
+    public int priceCount() {
+        return priceShocks.length;
+    }
+
+    public int volatilityCount() {
+        return volatilityShocks.length;
+    }
+
+    public int dayCount() {
+        return daysElapsed.length;
+    }
+
+    public double pnl(int day, int volatilityIndex, int priceIndex) {
+        return pnl[(day * volatilityShocks.length + volatilityIndex) * priceShocks.length + priceIndex];
+    }
+
+    // Cells priced for this grid rather than copied from the previous one.
+    public long pricedCells() {
+        return pricedCells;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // One line per cell: the shocks, the resulting underlying price and volatility, and the P&L.
+    public void writeCsv(Writer out) throws IOException {
+        out.write("days_elapsed,volatility_shock,price_shock,underlying,volatility,pnl\n");
+        StringBuilder line = new StringBuilder();
+        for (int d = 0; d < daysElapsed.length; d++) {
+            for (int v = 0; v < volatilityShocks.length; v++) {
+                for (int p = 0; p < priceShocks.length; p++) {
+                    line.setLength(0);
+                    line.append(daysElapsed[d]).append(',').append(volatilityShocks[v]).append(',').append(priceShocks[p]).append(',')
+                            .append(shockedPrice(p)).append(',').append(shockedVolatility(v)).append(',').append(pnl(d, v, p)).append('\n');
+                    out.write(line.toString());
+                }
+            }
+        }
+    }
+
+    double shockedPrice(int priceIndex) {
+        return Math.max(0, spot * (1 + priceShocks[priceIndex]));
+    }
+
+    double shockedVolatility(int volatilityIndex) {
+        return Math.max(MIN_VOLATILITY, volatility + volatilityShocks[volatilityIndex]);
+    }
+
+    // Position of each value in the previous axis, or -1 for values it does not have.
+    private static int[] positions(double[] axis, double[] previousAxis) {
+        int[] positions = new int[axis.length];
+        for (int i = 0; i < axis.length; i++) {
+            positions[i] = -1;
+            for (int j = 0; previousAxis != null && j < previousAxis.length; j++) {
+                if (Double.compare(axis[i], previousAxis[j]) == 0) {
+                    positions[i] = j;
+                    break;
+                }
+            }
+        }
+        return positions;
+    }
+
+    // What the row tasks of one compute share: the grid being filled, where its axis values sit in the
+    // previous grid, and the strategy's legs as primitive arrays.
+    private static final class Fill {
+
+        final ScenarioGrid grid;
+        final ScenarioGrid previous;
+        final BooleanSupplier cancelled;
+        final int[] previousPrice;
+        final int[] previousVolatility;
+        final int[] previousDay;
+        final long daysToExpiry;
+        final OptionLeg.Type[] types;
+        final double[] strikes;
+        final double[] quantities;
+        final double netPremium;
+        final LongAdder priced = new LongAdder();
+
+        Fill(ScenarioGrid grid, ScenarioGrid previous, BooleanSupplier cancelled) {
+            this.grid = grid;
+            this.previous = previous;
+            this.cancelled = cancelled;
+            previousPrice = positions(grid.priceShocks, previous == null ? null : previous.priceShocks);
+            previousVolatility = positions(grid.volatilityShocks, previous == null ? null : previous.volatilityShocks);
+            previousDay = positions(grid.daysElapsed, previous == null ? null : previous.daysElapsed);
+            daysToExpiry = grid.strategy.daysToExpiry(grid.valuationDate);
+            int legs = grid.strategy.legs().size();
+            types = new OptionLeg.Type[legs];
+            strikes = new double[legs];
+            quantities = new double[legs];
+            for (int i = 0; i < legs; i++) {
+                OptionLeg leg = grid.strategy.legs().get(i);
+                types[i] = leg.type();
+                strikes[i] = leg.strike();
+                quantities[i] = leg.quantity();
+            }
+            netPremium = grid.strategy.netPremium();
+        }
+
+        void fillRow(int row, double[] discountedStrikes) {
+            ScenarioGrid grid = this.grid;
+            int volatilities = grid.volatilityShocks.length;
+            int prices = grid.priceShocks.length;
+            int day = row / volatilities;
+            int volatilityIndex = row % volatilities;
+            int base = row * prices;
+            int previousBase = -1;
+            if (previous != null && previousDay[day] >= 0 && previousVolatility[volatilityIndex] >= 0) {
+                previousBase = (previousDay[day] * previous.volatilityShocks.length + previousVolatility[volatilityIndex]) * previous.priceShocks.length;
+            }
+            double years = BlackScholes.yearsFromDays(daysToExpiry - grid.daysElapsed[day]);
+            double sigma = grid.shockedVolatility(volatilityIndex);
+            double volSqrtT = sigma * Math.sqrt(Math.max(0, years));
+            double drift = (grid.rate + 0.5 * sigma * sigma) * years;
+            double discount = Math.exp(-grid.rate * Math.max(0, years));
+            for (int leg = 0; leg < types.length; leg++) {
+                discountedStrikes[leg] = strikes[leg] * discount;
+            }
+            int pricedHere = 0;
+            for (int p = 0; p < prices; p++) {
+                if (previousBase >= 0 && previousPrice[p] >= 0) {
+                    grid.pnl[base + p] = previous.pnl[previousBase + previousPrice[p]];
+                    continue;
+                }
+                double price = grid.shockedPrice(p);
+                double value = -netPremium;
+                for (int leg = 0; leg < types.length; leg++) {
+                    value += quantities[leg] * (years > 0 && price > 0 && types[leg] != OptionLeg.Type.STOCK
+                            ? europeanPrice(types[leg] == OptionLeg.Type.CALL, price, strikes[leg], discountedStrikes[leg], volSqrtT, drift)
+                            : BlackScholes.price(types[leg], price, strikes[leg], years, sigma, grid.rate));
+                }
+                grid.pnl[base + p] = value;
+                pricedHere++;
+            }
+            priced.add(pricedHere);
+        }
+
+        // BlackScholes.price with the terms that only depend on time and volatility passed in
+        private static double europeanPrice(boolean call, double spot, double strike, double discountedStrike, double volSqrtT, double drift) {
+            double d1 = (Math.log(spot / strike) + drift) / volSqrtT;
+            double d2 = d1 - volSqrtT;
+            return call ? spot * BlackScholes.cumulativeNormal(d1) - discountedStrike * BlackScholes.cumulativeNormal(d2)
+                    : discountedStrike * BlackScholes.cumulativeNormal(-d2) - spot * BlackScholes.cumulativeNormal(-d1);
+        }
+    }
+
+    private static final class RowTask extends RecursiveAction {
+
+        private final Fill fill;
+        private final int from;
+        private final int to;
+
+        RowTask(Fill fill, int from, int to) {
+            this.fill = fill;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowTask(fill, from, middle), new RowTask(fill, middle, to));
+                return;
+            }
+            if (fill.cancelled.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            double[] discountedStrikes = new double[fill.types.length];
+            for (int row = from; row < to; row++) {
+                fill.fillRow(row, discountedStrikes);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,266 @@
+import java.awt.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
+
+// What-if panel under the chart: a ScenarioGrid of the charted strategy over price shocks (columns),
+// volatility shocks (rows) and days elapsed (the slider), shown as a heatmap and a table of one day at
+// a time and exportable to CSV in full. Grids are computed off the EDT, latest request wins, and each
+// one starts from the last so editing an axis only prices the slices it adds.
+public class ScenarioPanel extends JPanel {
+
+    private static final Color PROFIT = new Color(0, 160, 0);
+    private static final Color LOSS = new Color(200, 0, 0);
+
+    private final JTextField priceRangeField = new JTextField("25", 3);
+    private final JTextField priceStepsField = new JTextField("50", 3);
+    private final JTextField volatilityRangeField = new JTextField("10", 3);
+    private final JTextField volatilityStepsField = new JTextField("50", 3);
+    private final JTextField daysField = new JTextField(3);
+    private final JTextField dayStepsField = new JTextField("30", 3);
+    private final JSlider daySlider = new JSlider(0, 0, 0);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final GridModel model = new GridModel();
+    private final Heatmap heatmap = new Heatmap();
+    private final LatestTaskScheduler<ScenarioGrid> scheduler = new LatestTaskScheduler<>();
+    private final DecimalFormat df = new DecimalFormat("#.##");
+    private ScenarioGrid grid;
+    private OptionStrategy strategy;
+    private double spot;
+    private double volatility;
+    private double rate;
+
+    public ScenarioPanel() {
+        super(new BorderLayout());
+        setBorder(BorderFactory.createTitledBorder("Scenario Grid"));
+        JPanel axes = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        axes.add(new JLabel("Price +/-%:"));
+        axes.add(priceRangeField);
+        axes.add(new JLabel("x"));
+        axes.add(priceStepsField);
+        axes.add(new JLabel("Vol +/-pts:"));
+        axes.add(volatilityRangeField);
+        axes.add(new JLabel("x"));
+        axes.add(volatilityStepsField);
+        axes.add(new JLabel("Days (empty: to expiry):"));
+        axes.add(daysField);
+        axes.add(new JLabel("x"));
+        axes.add(dayStepsField);
+        JButton exportButton = new JButton("Export CSV");
+        exportButton.addActionListener(e -> exportCsv());
+        axes.add(exportButton);
+        JPanel header = new JPanel(new BorderLayout());
+        header.add(axes, BorderLayout.NORTH);
+        JPanel dayRow = new JPanel(new BorderLayout(5, 0));
+        dayRow.add(daySlider, BorderLayout.CENTER);
+        dayRow.add(statusLabel, BorderLayout.EAST);
+        header.add(dayRow, BorderLayout.SOUTH);
+        add(header, BorderLayout.NORTH);
+
+        JTable table = new JTable(model);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        JTabbedPane views = new JTabbedPane();
+        views.addTab("Heatmap", heatmap);
+        views.addTab("Table", new JScrollPane(table));
+        add(views, BorderLayout.CENTER);
+        setPreferredSize(new Dimension(0, 300));
+
+        daySlider.addChangeListener(e -> {
+            model.fireTableDataChanged();
+            heatmap.repaint();
+            showStatus();
+        });
+        DocumentListener axisEdited = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                recompute();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                recompute();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes only
+            }
+        };
+        for (JTextField field : new JTextField[] {priceRangeField, priceStepsField, volatilityRangeField,
+                volatilityStepsField, daysField, dayStepsField}) {
+            field.getDocument().addDocumentListener(axisEdited);
+        }
+    }
+
+    // Shocks the strategy around this spot, volatility and rate; called again whenever the chart changes.
+    public void update(OptionStrategy strategy, double spot, double volatility, double rate) {
+        this.strategy = strategy;
+        this.spot = spot;
+        this.volatility = volatility;
+        this.rate = rate;
+        recompute();
+    }
+
+    private void recompute() {
+        if (strategy == null) {
+            return;
+        }
+        double[] priceShocks;
+        double[] volatilityShocks;
+        double[] daysElapsed;
+        try {
+            double priceRange = Double.parseDouble(priceRangeField.getText()) / 100;
+            double volatilityRange = Double.parseDouble(volatilityRangeField.getText()) / 100;
+            long daysToExpiry = Math.max(0, strategy.daysToExpiry(LocalDate.now()));
+            double days = daysField.getText().isBlank() ? daysToExpiry : Double.parseDouble(daysField.getText());
+            priceShocks = ScenarioGrid.steps(-priceRange, priceRange, positive(priceStepsField));
+            volatilityShocks = ScenarioGrid.steps(-volatilityRange, volatilityRange, positive(volatilityStepsField));
+            daysElapsed = ScenarioGrid.steps(0, days, positive(dayStepsField));
+        } catch (NumberFormatException ex) {
+            statusLabel.setText("Invalid axis: " + ex.getMessage());
+            return;
+        }
+        OptionStrategy shocked = strategy;
+        double baseSpot = spot;
+        double baseVolatility = volatility;
+        double baseRate = rate;
+        ScenarioGrid previous = grid;
+        scheduler.schedule(cancelled -> ScenarioGrid.compute(shocked, baseSpot, baseVolatility, baseRate, LocalDate.now(),
+                priceShocks, volatilityShocks, daysElapsed, previous, cancelled), this::show);
+    }
+
+    private static int positive(JTextField field) {
+        int value = Integer.parseInt(field.getText().trim());
+        if (value <= 0 || value > 1000) {
+            throw new NumberFormatException("steps must be between 1 and 1000");
+        }
+        return value;
+    }
+
+    private void show(ScenarioGrid computed) {
+        grid = computed;
+        daySlider.setMaximum(computed.dayCount() - 1);
+        model.fireTableStructureChanged(); // Column headers are the shocked prices
+        heatmap.repaint();
+        showStatus();
+    }
+
+    private void showStatus() {
+        ScenarioGrid current = grid;
+        if (current == null) {
+            return;
+        }
+        int day = selectedDay(current);
+        statusLabel.setText(String.format("Day +%s of %d; %,d cells, %,d priced in %d ms", df.format(current.daysElapsed()[day]),
+                current.dayCount(), (long) current.dayCount() * current.volatilityCount() * current.priceCount(),
+                current.pricedCells(), current.elapsedNanos() / 1_000_000));
+    }
+
+    private void exportCsv() {
+        ScenarioGrid current = grid;
+        if (current == null) {
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try (Writer out = Files.newBufferedWriter(chooser.getSelectedFile().toPath(), StandardCharsets.UTF_8)) {
+            current.writeCsv(out);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Cannot export: " + ex.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private int selectedDay(ScenarioGrid current) {
+        return Math.min(daySlider.getValue(), current.dayCount() - 1);
+    }
+
+    // Rows are volatility shocks, highest first like the heatmap; column 0 labels them.
+    private final class GridModel extends AbstractTableModel {
+
+        @Override
+        public int getRowCount() {
+            return grid == null ? 0 : grid.volatilityCount();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return grid == null ? 1 : grid.priceCount() + 1;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return column == 0 ? "Vol \\ Price" : "$" + df.format(grid.shockedPrice(column - 1));
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            int volatilityIndex = grid.volatilityCount() - 1 - row;
+            if (column == 0) {
+                return df.format(grid.shockedVolatility(volatilityIndex) * 100) + "%";
+            }
+            return String.format("%.2f", grid.pnl(selectedDay(grid), volatilityIndex, column - 1));
+        }
+    }
+
+    // Price across, volatility up; green for profit and red for loss, fading to white at zero.
+    private final class Heatmap extends JPanel {
+
+        private static final int MARGIN = 40;
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            ScenarioGrid current = grid;
+            int width = getWidth() - 2 * MARGIN;
+            int height = getHeight() - 2 * MARGIN;
+            if (current == null || width <= 0 || height <= 0) {
+                return;
+            }
+            int day = selectedDay(current);
+            double scale = 0;
+            for (int v = 0; v < current.volatilityCount(); v++) {
+                for (int p = 0; p < current.priceCount(); p++) {
+                    scale = Math.max(scale, Math.abs(current.pnl(day, v, p)));
+                }
+            }
+            scale = scale > 0 ? scale : 1;
+            int columns = current.priceCount();
+            int rows = current.volatilityCount();
+            for (int v = 0; v < rows; v++) {
+                int y0 = MARGIN + height * (rows - 1 - v) / rows;
+                int y1 = MARGIN + height * (rows - v) / rows;
+                for (int p = 0; p < columns; p++) {
+                    int x0 = MARGIN + width * p / columns;
+                    int x1 = MARGIN + width * (p + 1) / columns;
+                    g.setColor(color(current.pnl(day, v, p) / scale));
+                    g.fillRect(x0, y0, x1 - x0, y1 - y0);
+                }
+            }
+            g.setColor(Color.BLACK);
+            g.drawRect(MARGIN, MARGIN, width, height);
+            g.drawString("$" + df.format(current.shockedPrice(0)), MARGIN, MARGIN + height + 15);
+            String highPrice = "$" + df.format(current.shockedPrice(columns - 1));
+            g.drawString(highPrice, MARGIN + width - g.getFontMetrics().stringWidth(highPrice), MARGIN + height + 15);
+            g.drawString(df.format(current.shockedVolatility(rows - 1) * 100) + "%", 2, MARGIN + 10);
+            g.drawString(df.format(current.shockedVolatility(0) * 100) + "%", 2, MARGIN + height);
+            g.drawString("P&L range +/-$" + df.format(scale), MARGIN, MARGIN - 8);
+        }
+
+        private Color color(double fraction) {
+            double t = Math.max(-1, Math.min(1, fraction));
+            Color end = t >= 0 ? PROFIT : LOSS;
+            double a = Math.abs(t);
+            return new Color((int) Math.round(255 + (end.getRed() - 255) * a), (int) Math.round(255 + (end.getGreen() - 255) * a),
+                    (int) Math.round(255 + (end.getBlue() - 255) * a));
+        }
+    }
+}
\ No newline at end of file
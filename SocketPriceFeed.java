@@ -0,0 +1,64 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.DoubleConsumer;
+
+// Reads newline-delimited prices from a local TCP socket (a stand-in for a market data feed).
+public final class SocketPriceFeed implements PriceFeed {
+
+    private final String host;
+    private final int port;
+    private volatile Socket socket;
+    private volatile boolean closed; // Set by close, possibly before the reader has connected
+    private Thread thread;
+
+    public SocketPriceFeed(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public synchronized void start(DoubleConsumer onTick) {
+        closed = false;
+        thread = new Thread(() -> read(onTick), "price-feed-socket");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void read(DoubleConsumer onTick) {
+        try (Socket connection = new Socket(host, port);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.US_ASCII))) {
+            socket = connection;
+            if (closed) {
+                return; // Closed while connecting, so close could not reach this socket
+            }
+            String line;
+            while (!closed && (line = reader.readLine()) != null) {
+                double price = PriceFeed.parseTick(line);
+                if (!Double.isNaN(price)) {
+                    onTick.accept(price);
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Socket feed " + host + ":" + port + " stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Socket connection = socket;
+        if (connection != null) {
+            try {
+                connection.close(); // Unblocks the reader thread
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+        thread = null;
+    }
+}
\ No newline at end of file
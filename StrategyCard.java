@@ -0,0 +1,81 @@
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import javax.swing.JComponent;
+import javax.swing.JTextField;
+import javax.swing.event.DocumentListener;
+
+// A strategy type of the visualizer: its entry in the strategy selector, its input form and its payoff
+// chart. Every card is instantiated at startup to list it, so constructors must stay cheap; the form and
+// chart are built the first time the card is selected (or its chart is needed by another card).
+// Cards beyond the built-in ones are found with ServiceLoader: list the class names in
+// META-INF/services/StrategyCard of a jar on the class path.
+public interface StrategyCard {
+
+    // Selector entry and card key; also the key of the card's zoom in workspaces.
+    String name();
+
+    // The input form. Edits to its text fields must notify onEdit so the chart redraws while typing.
+    JComponent createInput(DocumentListener onEdit);
+
+    PayoffChart createChart();
+
+    // Parses the form into the chart; throws IllegalArgumentException (NumberFormatException included)
+    // for incomplete or invalid input.
+    void apply();
+
+    // Snaps the strikes to the nearest ones quoted for the expiration and fills in their mid premiums;
+    // throws IllegalArgumentException when the form cannot be read.
+    void fillFromChain(OptionChain chain, int symbolId, LocalDate expiration);
+
+    // Form values kept in workspaces, under keys unique across cards. restore is called once the form
+    // exists, with everything the last opened workspace saved.
+    void save(Map<String, String> settings);
+
+    void restore(Map<String, String> settings);
+
+    // The built-in cards in order, then those found by ServiceLoader; a card whose name is taken is
+    // skipped with a warning.
+    static Map<String, StrategyCard> discover(StrategyCard... builtIn) {
+        System.Logger log = System.getLogger(StrategyCard.class.getName()); // Interfaces cannot hold a private LOG field
+        Map<String, StrategyCard> cards = new LinkedHashMap<>();
+        for (StrategyCard card : builtIn) {
+            cards.put(card.name(), card);
+        }
+        for (StrategyCard card : ServiceLoader.load(StrategyCard.class)) {
+            if (cards.putIfAbsent(card.name(), card) != null) {
+                log.log(System.Logger.Level.WARNING, "Strategy card " + card.getClass().getName() + " skipped: \"" + card.name() + "\" is taken");
+            }
+        }
+        return cards;
+    }
+
+    // The strike typed in the field, or the middle of the chain when it is empty or not a number.
+    static double chainStrike(JTextField strikeField, OptionChain chain, int symbolId, LocalDate expiration) {
+        try {
+            return Double.parseDouble(strikeField.getText().trim());
+        } catch (NumberFormatException ex) {
+            return chain.middleStrike(symbolId, (int) expiration.toEpochDay());
+        }
+    }
+
+    // Writes the quote's strike (unless strikeField is null) and mid premium; nothing when row is -1.
+    static void fillQuote(OptionChain chain, int row, JTextField strikeField, JTextField premiumField) {
+        if (row < 0) {
+            return;
+        }
+        if (strikeField != null) {
+            strikeField.setText(formatQuote(chain.strike(row)));
+        }
+        premiumField.setText(formatQuote(chain.mid(row)));
+    }
+
+    // DecimalFormat is not thread-safe, so each call gets its own.
+    private static String formatQuote(double value) {
+        return new DecimalFormat("0.##", DecimalFormatSymbols.getInstance(Locale.ROOT)).format(value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,282 @@
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import javax.swing.*;
+
+// Small multiples of a whole book: a grid of payoff thumbnails, one per strategy, for use in a scroll
+// pane. Only the cells in view are ever drawn. Missing thumbnails are rendered in the common fork-join
+// pool by PayoffChart.paintThumbnail, the drawing code of the full charts, into a cache shared by every
+// dashboard and bounded by memory; cells scrolled away before their turn are skipped. Strategies are
+// only read from the list by the render threads, so a list that decodes lazily (such as a workspace's
+// saved strategies) is decoded only as far as it is looked at.
+public class StrategyDashboard extends JComponent implements Scrollable {
+
+    private static final int GAP = 4;
+    private static final LruCache<ThumbnailKey, BufferedImage> THUMBNAILS = new LruCache<>("Dashboard thumbnails",
+            LruCache.heapFraction(1.0 / 16), image -> (long) image.getWidth() * image.getHeight() * 4 + 64);
+    private static final ThreadLocal<StrategyPayoff> CHARTS =
+            ThreadLocal.withInitial(() -> new StrategyPayoff(OptionStrategy.longCall(0, 0, "")));
+
+    private final AtomicInteger generation = new AtomicInteger(); // Bumped by every new list or cell size
+    private final Set<Long> requested = ConcurrentHashMap.newKeySet(); // Generation and index of queued cells
+    private final AtomicInteger rendered = new AtomicInteger();
+    private List<OptionStrategy> strategies = List.of();
+    private AtomicReferenceArray<OptionStrategy> resolved = new AtomicReferenceArray<>(0); // Filled in by the render threads
+    private int cellWidth = 180;
+    private int cellHeight = 120;
+    private volatile int firstVisible;
+    private volatile int lastVisible = -1;
+    private Consumer<OptionStrategy> onOpen = strategy -> { };
+
+    public StrategyDashboard() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setToolTipText(""); // Registers with the tooltip manager; the text comes from getToolTipText(MouseEvent)
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                // Only cells already drawn, so the EDT never decodes a strategy of a lazy list
+                int index = cellAt(e.getPoint());
+                OptionStrategy strategy = index < 0 ? null : resolved.get(index);
+                if (e.getClickCount() == 2 && strategy != null) {
+                    onOpen.accept(strategy);
+                }
+            }
+        });
+    }
+
+    // The list is read from background threads and must not change afterwards; pass a new one instead.
+    public void setStrategies(List<OptionStrategy> strategies) {
+        this.strategies = strategies;
+        restart();
+    }
+
+    public void setCellSize(int width, int height) {
+        if (width < 40 || height < 30) {
+            throw new IllegalArgumentException("Cells must be at least 40x30 pixels");
+        }
+        cellWidth = width;
+        cellHeight = height;
+        restart();
+    }
+
+    // Called with the strategy of a double-clicked cell.
+    public void setOnOpen(Consumer<OptionStrategy> onOpen) {
+        this.onOpen = onOpen;
+    }
+
+    public int strategyCount() {
+        return strategies.size();
+    }
+
+    // Thumbnails drawn since startup, by every dashboard.
+    public int renderedCount() {
+        return rendered.get();
+    }
+
+    public static LruCache<?, ?> thumbnailCache() {
+        return THUMBNAILS;
+    }
+
+    private void restart() {
+        generation.incrementAndGet(); // Queued cells of the old list or size skip themselves
+        requested.clear();
+        resolved = new AtomicReferenceArray<>(strategies.size());
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        Rectangle clip = g.getClipBounds();
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        int columns = columns(getWidth());
+        int rowHeight = cellHeight + GAP;
+        Rectangle visible = getVisibleRect();
+        firstVisible = visible.y / rowHeight * columns;
+        lastVisible = ((visible.y + visible.height) / rowHeight + 1) * columns - 1;
+        AffineTransform deviceTransform = ((Graphics2D) g).getTransform();
+        double scale = Math.max(1, Math.max(deviceTransform.getScaleX(), deviceTransform.getScaleY()));
+        int count = strategies.size();
+        int firstRow = clip.y / rowHeight;
+        int lastRow = (clip.y + clip.height) / rowHeight;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = 0; column < columns; column++) {
+                int index = row * columns + column;
+                if (index >= count) {
+                    return;
+                }
+                int x = GAP + column * (cellWidth + GAP);
+                int y = GAP + row * rowHeight;
+                OptionStrategy strategy = resolved.get(index);
+                BufferedImage image = strategy == null ? null : THUMBNAILS.get(new ThumbnailKey(strategy, cellWidth, cellHeight, scale));
+                if (image != null) {
+                    g.drawImage(image, x, y, cellWidth, cellHeight, null);
+                } else {
+                    g.setColor(new Color(245, 245, 245));
+                    g.fillRect(x, y, cellWidth, cellHeight);
+                    request(index, scale);
+                }
+                g.setColor(Color.LIGHT_GRAY);
+                g.drawRect(x, y, cellWidth - 1, cellHeight - 1);
+            }
+        }
+    }
+
+    private void request(int index, double scale) {
+        int id = generation.get();
+        long key = (long) id << 32 | index;
+        if (!requested.add(key)) {
+            return;
+        }
+        List<OptionStrategy> list = strategies;
+        AtomicReferenceArray<OptionStrategy> cells = resolved;
+        int width = cellWidth;
+        int height = cellHeight;
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                if (generation.get() != id || index < firstVisible || index > lastVisible) {
+                    requested.remove(key); // Scrolled away or replaced; requested again if it comes back into view
+                    return;
+                }
+                OptionStrategy strategy = list.get(index);
+                ThumbnailKey thumbnailKey = new ThumbnailKey(strategy, width, height, scale);
+                if (THUMBNAILS.get(thumbnailKey) == null) {
+                    THUMBNAILS.put(thumbnailKey, render(strategy, width, height, scale));
+                    rendered.incrementAndGet();
+                }
+                cells.set(index, strategy);
+            } catch (RuntimeException e) {
+                System.err.println("Thumbnail " + index + " failed: " + e);
+                return; // Left as a placeholder and not requested again until the list changes
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (requested.remove(key) && generation.get() == id) {
+                    int columns = columns(getWidth());
+                    repaint(GAP + index % columns * (width + GAP), GAP + index / columns * (height + GAP), width, height);
+                }
+            });
+        });
+    }
+
+    // Runs on a render thread, with that thread's own chart.
+    private static BufferedImage render(OptionStrategy strategy, int width, int height, double scale) {
+        BufferedImage image = new BufferedImage((int) Math.ceil(width * scale), (int) Math.ceil(height * scale),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g2d.scale(scale, scale);
+            StrategyPayoff chart = CHARTS.get();
+            chart.updateStrategy(strategy);
+            chart.paintThumbnail(g2d, width, height);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        int index = cellAt(e.getPoint());
+        OptionStrategy strategy = index < 0 ? null : resolved.get(index);
+        if (strategy == null) {
+            return null;
+        }
+        return "<html>" + strategy.name() + " (" + strategy.expirationDate() + ")<br>" + strategy.toSpec()
+                + "<br>Max profit " + bound(strategy.maxProfit()) + ", max loss " + bound(strategy.maxLoss()) + "</html>";
+    }
+
+    private static String bound(double payoff) {
+        return Double.isInfinite(payoff) ? "unlimited" : String.format("$%.2f", payoff);
+    }
+
+    private int cellAt(Point point) {
+        int columns = columns(getWidth());
+        int column = (point.x - GAP) / (cellWidth + GAP);
+        int index = (point.y - GAP) / (cellHeight + GAP) * columns + column;
+        return point.x < GAP || point.y < GAP || column >= columns || index >= strategies.size() ? -1 : index;
+    }
+
+    private int columns(int width) {
+        return Math.max(1, (width - GAP) / (cellWidth + GAP));
+    }
+
+    // As wide as the viewport, and as tall as the rows that width leaves room for.
+    @Override
+    public Dimension getPreferredSize() {
+        int width = getParent() instanceof JViewport ? getParent().getWidth() : getWidth();
+        int columns = columns(width);
+        int rows = (strategies.size() + columns - 1) / columns;
+        return new Dimension(GAP + columns * (cellWidth + GAP), GAP + rows * (cellHeight + GAP));
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(GAP + 4 * (cellWidth + GAP), GAP + 3 * (cellHeight + GAP));
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? (cellHeight + GAP) / 4 : cellWidth / 4;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height;
+    }
+
+    private static final class ThumbnailKey {
+
+        final OptionStrategy strategy;
+        final int width;
+        final int height;
+        final double scale;
+
+        ThumbnailKey(OptionStrategy strategy, int width, int height, double scale) {
+            this.strategy = strategy;
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ThumbnailKey)) {
+                return false;
+            }
+            ThumbnailKey other = (ThumbnailKey) o;
+            return strategy.equals(other.strategy) && width == other.width && height == other.height
+                    && Double.compare(scale, other.scale) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = strategy.hashCode();
+            result = 31 * result + width;
+            result = 31 * result + height;
+            return 31 * result + Double.hashCode(scale);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,554 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Searches an option chain for the long calls, long puts, long straddles, bull call spreads and bear
+// put spreads of one underlying with the best expected return on risk, over every quoted expiry and
+// strike combination, paying mid prices.
+//
+// A candidate's expected P&L is its expected expiry payoff, with the underlying lognormal at the given
+// volatility and drift, minus the debit paid; its score is that P&L per dollar of maximum loss (the
+// debit, for all five families). Candidates whose debit exceeds the loss budget, or whose nearest
+// breakeven is further from spot than the allowed move, are left out.
+//
+// Spreads are the bulk of the space (quadratic in strikes per expiry) and are scanned with the long
+// strike outside and the short strike inside, moving away from it. Along the inner scan the debit can
+// only stay above the long premium minus the largest premium still ahead, which bounds the loss, the
+// breakeven and the score of everything left; when any bound fails the budget, the move limit or the
+// current K-th best score, the rest of the scan is skipped. Work is split across fork-join tasks that
+// keep their own bounded top-K heaps and share the best K-th score seen, so one task's finds tighten
+// every other task's pruning.
+public final class StrategyOptimizer {
+
+    public enum Family {
+        LONG_CALL("Long Call"),
+        LONG_PUT("Long Put"),
+        LONG_STRADDLE("Long Straddle"),
+        BULL_CALL_SPREAD("Bull Call Spread"),
+        BEAR_PUT_SPREAD("Bear Put Spread");
+
+        private final String label;
+
+        Family(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final int OUTER_GRAIN = 16; // Long strikes per fork-join leaf
+
+    private final List<Candidate> candidates;
+    private final long evaluated;
+    private final long pruned;
+    private final long elapsedNanos;
+
+    private StrategyOptimizer(List<Candidate> candidates, long evaluated, long pruned, long elapsedNanos) {
+        this.candidates = candidates;
+        this.evaluated = evaluated;
+        this.pruned = pruned;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: StrategyOptimizer <chain.csv> <underlying> [spot] [volatility%] [drift%]");
+            System.exit(2);
+        }
+        OptionChain chain = OptionChain.load(Paths.get(args[0]));
+        int symbolId = chain.symbolId(args[1]);
+        if (symbolId < 0) {
+            System.err.println("No quotes for " + args[1]);
+            System.exit(1);
+        }
+        LocalDate today = LocalDate.now();
+        double spot = args.length > 2 ? Double.parseDouble(args[2])
+                : chain.middleStrike(symbolId, (int) chain.expirations(symbolId).get(0).toEpochDay());
+        double volatility = args.length > 3 ? Double.parseDouble(args[3]) / 100 : 0.3;
+        double drift = args.length > 4 ? Double.parseDouble(args[4]) / 100 : 0.05;
+        StrategyOptimizer result = search(chain, symbolId, spot, volatility, drift, Double.POSITIVE_INFINITY, 0.25, 10, today);
+        System.out.println(result.summary());
+        for (Candidate candidate : result.candidates()) {
+            System.out.println("  " + candidate);
+        }
+    }
+
+    // maxLoss caps the debit per strategy, maxMove the distance from spot to the nearest breakeven as a
+    // fraction of spot; topK results come back best first.
+    public static StrategyOptimizer search(OptionChain chain, int symbolId, double spot, double volatility, double drift,
+                                           double maxLoss, double maxMove, int topK, LocalDate valuationDate) {
+        if (!(spot > 0) || !(volatility > 0) || topK <= 0) {
+            throw new IllegalArgumentException("Search needs a positive spot, volatility and result count");
+        }
+        long start = System.nanoTime();
+        List<Expiry> expiries = new ArrayList<>();
+        for (LocalDate expiration : chain.expirations(symbolId)) {
+            long days = expiration.toEpochDay() - valuationDate.toEpochDay();
+            if (days > 0) {
+                expiries.add(new Expiry(chain, symbolId, expiration, BlackScholes.yearsFromDays(days), spot, volatility, drift));
+            }
+        }
+
+        Search search = new Search(expiries, spot, maxLoss, maxMove, topK);
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int e = 0; e < expiries.size(); e++) {
+            Expiry expiry = expiries.get(e);
+            tasks.add(new Leaf(search, e, null, 0, 0));
+            tasks.add(new Leaf(search, e, Family.BULL_CALL_SPREAD, 0, expiry.callStrikes.length));
+            tasks.add(new Leaf(search, e, Family.BEAR_PUT_SPREAD, 0, expiry.putStrikes.length));
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+
+        TopK best = new TopK(topK);
+        for (TopK heap : search.heaps) {
+            best.addAll(heap);
+        }
+        return new StrategyOptimizer(best.toCandidates(expiries, spot), search.evaluated.sum(), search.pruned.sum(),
+                System.nanoTime() - start);
+    }
+
+    public List<Candidate> candidates() {
+        return candidates;
+    }
+
+    // Combinations scored, and combinations skipped by the bounds without being scored.
+    public long evaluated() {
+        return evaluated;
+    }
+
+    public long pruned() {
+        return pruned;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public String summary() {
+        return String.format("%,d combinations scored, %,d pruned, in %d ms", evaluated, pruned, elapsedNanos / 1_000_000);
+    }
+
+    public static final class Candidate {
+
+        private final Family family;
+        private final OptionStrategy strategy;
+        private final double score;
+        private final double expectedPnl;
+        private final double breakevenMove;
+
+        Candidate(Family family, OptionStrategy strategy, double score, double expectedPnl, double breakevenMove) {
+            this.family = family;
+            this.strategy = strategy;
+            this.score = score;
+            this.expectedPnl = expectedPnl;
+            this.breakevenMove = breakevenMove;
+        }
+
+        public Family family() {
+            return family;
+        }
+
+        public OptionStrategy strategy() {
+            return strategy;
+        }
+
+        // Expected P&L per dollar of maximum loss.
+        public double score() {
+            return score;
+        }
+
+        public double expectedPnl() {
+            return expectedPnl;
+        }
+
+        // Move from spot to the nearest breakeven as a fraction of spot; 0 when already profitable at spot.
+        public double breakevenMove() {
+            return breakevenMove;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s exp %s [%s]: score %.3f, E[P&L] $%.2f, max loss $%.2f, breakeven move %.1f%%",
+                    family, strategy.expirationDate(), strategy.toSpec(), score, expectedPnl, -strategy.maxLoss(), breakevenMove * 100);
+        }
+    }
+
+    // The quotes of one expiry split by type, ascending by strike, with their expected expiry payoffs.
+    private static final class Expiry {
+
+        final String date;
+        final double[] callStrikes;
+        final double[] callPremiums;
+        final double[] callExpected;
+        final double[] callSuffixMax; // Largest call premium at this strike or above
+        final double[] putStrikes;
+        final double[] putPremiums;
+        final double[] putExpected;
+        final double[] putPrefixMax; // Largest put premium at this strike or below
+
+        Expiry(OptionChain chain, int symbolId, LocalDate expiration, double years, double spot, double volatility, double drift) {
+            date = expiration.toString();
+            int from = chain.firstRow(symbolId, (int) expiration.toEpochDay());
+            int to = chain.endRow(symbolId, (int) expiration.toEpochDay());
+            double[] strikes = new double[to - from];
+            double[] premiums = new double[to - from];
+            int calls = 0;
+            int puts = to - from;
+            // Calls fill the front of the scratch arrays, puts the back, both in strike order
+            for (int row = from; row < to; row++) {
+                double premium = chain.mid(row);
+                if (!(premium > 0)) {
+                    continue;
+                }
+                if (chain.type(row) == PositionBook.CALL) {
+                    strikes[calls] = chain.strike(row);
+                    premiums[calls++] = premium;
+                }
+            }
+            for (int row = to - 1; row >= from; row--) {
+                double premium = chain.mid(row);
+                if (premium > 0 && chain.type(row) == PositionBook.PUT) {
+                    strikes[--puts] = chain.strike(row);
+                    premiums[puts] = premium;
+                }
+            }
+            callStrikes = Arrays.copyOf(strikes, calls);
+            callPremiums = Arrays.copyOf(premiums, calls);
+            putStrikes = Arrays.copyOfRange(strikes, puts, to - from);
+            putPremiums = Arrays.copyOfRange(premiums, puts, to - from);
+
+            double forward = spot * Math.exp(drift * years);
+            double volSqrtT = volatility * Math.sqrt(years);
+            callExpected = new double[callStrikes.length];
+            callSuffixMax = new double[callStrikes.length + 1];
+            callSuffixMax[callStrikes.length] = Double.NEGATIVE_INFINITY;
+            for (int i = callStrikes.length - 1; i >= 0; i--) {
+                double d1 = (Math.log(forward / callStrikes[i]) + 0.5 * volSqrtT * volSqrtT) / volSqrtT;
+                callExpected[i] = forward * BlackScholes.cumulativeNormal(d1) - callStrikes[i] * BlackScholes.cumulativeNormal(d1 - volSqrtT);
+                callSuffixMax[i] = Math.max(callSuffixMax[i + 1], callPremiums[i]);
+            }
+            putExpected = new double[putStrikes.length];
+            putPrefixMax = new double[putStrikes.length];
+            for (int i = 0; i < putStrikes.length; i++) {
+                double d1 = (Math.log(forward / putStrikes[i]) + 0.5 * volSqrtT * volSqrtT) / volSqrtT;
+                putExpected[i] = putStrikes[i] * BlackScholes.cumulativeNormal(volSqrtT - d1) - forward * BlackScholes.cumulativeNormal(-d1);
+                putPrefixMax[i] = Math.max(i > 0 ? putPrefixMax[i - 1] : Double.NEGATIVE_INFINITY, putPremiums[i]);
+            }
+        }
+    }
+
+    // State shared by the leaves of one search.
+    private static final class Search {
+
+        final List<Expiry> expiries;
+        final double spot;
+        final double maxLoss;
+        final double maxMove;
+        final int topK;
+        final DoubleAccumulator threshold = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY); // Best K-th score of any leaf
+        final List<TopK> heaps = new ArrayList<>();
+        final LongAdder evaluated = new LongAdder();
+        final LongAdder pruned = new LongAdder();
+
+        Search(List<Expiry> expiries, double spot, double maxLoss, double maxMove, int topK) {
+            this.expiries = expiries;
+            this.spot = spot;
+            this.maxLoss = maxLoss;
+            this.maxMove = maxMove;
+            this.topK = topK;
+        }
+
+        // Relative move from spot up to an upper breakeven, or down to a lower one
+        double moveUp(double breakeven) {
+            return Math.max(0, breakeven - spot) / spot;
+        }
+
+        double moveDown(double breakeven) {
+            return Math.max(0, spot - breakeven) / spot;
+        }
+
+        synchronized void publish(TopK heap) {
+            heaps.add(heap);
+        }
+    }
+
+    // Single-leg candidates and straddles of one expiry (family null), or a range of long strikes of one spread family.
+    private static final class Leaf extends RecursiveAction {
+
+        private final Search search;
+        private final int expiryIndex;
+        private final Family family;
+        private final int from;
+        private final int to;
+        private TopK heap;
+        private long evaluated;
+        private long pruned;
+
+        Leaf(Search search, int expiryIndex, Family family, int from, int to) {
+            this.search = search;
+            this.expiryIndex = expiryIndex;
+            this.family = family;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (family != null && to - from > OUTER_GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Leaf(search, expiryIndex, family, from, middle), new Leaf(search, expiryIndex, family, middle, to));
+                return;
+            }
+            heap = new TopK(search.topK);
+            Expiry expiry = search.expiries.get(expiryIndex);
+            if (family == null) {
+                singles(expiry);
+            } else if (family == Family.BULL_CALL_SPREAD) {
+                bullCallSpreads(expiry);
+            } else {
+                bearPutSpreads(expiry);
+            }
+            search.evaluated.add(evaluated);
+            search.pruned.add(pruned);
+            search.threshold.accumulate(heap.threshold());
+            search.publish(heap);
+        }
+
+        private void singles(Expiry expiry) {
+            for (int i = 0; i < expiry.callStrikes.length; i++) {
+                double debit = expiry.callPremiums[i];
+                offer(Family.LONG_CALL, i, -1, debit, expiry.callExpected[i], search.moveUp(expiry.callStrikes[i] + debit));
+            }
+            for (int i = 0; i < expiry.putStrikes.length; i++) {
+                double debit = expiry.putPremiums[i];
+                offer(Family.LONG_PUT, i, -1, debit, expiry.putExpected[i], search.moveDown(expiry.putStrikes[i] - debit));
+            }
+            // Straddles pair the call and put quoted at the same strike
+            for (int c = 0, p = 0; c < expiry.callStrikes.length && p < expiry.putStrikes.length; ) {
+                if (expiry.callStrikes[c] < expiry.putStrikes[p]) {
+                    c++;
+                } else if (expiry.callStrikes[c] > expiry.putStrikes[p]) {
+                    p++;
+                } else {
+                    double strike = expiry.callStrikes[c];
+                    double debit = expiry.callPremiums[c] + expiry.putPremiums[p];
+                    double move = Math.min(search.moveUp(strike + debit), search.moveDown(strike - debit));
+                    offer(Family.LONG_STRADDLE, c, p, debit, expiry.callExpected[c] + expiry.putExpected[p], move);
+                    c++;
+                    p++;
+                }
+            }
+        }
+
+        // Long the call at i, short the one at j > i: the debit grows with j while the payoff is capped at
+        // the call at i's, so the long call alone bounds everything further out.
+        private void bullCallSpreads(Expiry expiry) {
+            double[] strikes = expiry.callStrikes;
+            double[] premiums = expiry.callPremiums;
+            double[] expected = expiry.callExpected;
+            int count = strikes.length;
+            for (int i = from; i < to; i++) {
+                double bound = threshold();
+                for (int j = i + 1; j < count; j++) {
+                    double debitBound = premiums[i] - expiry.callSuffixMax[j];
+                    if (debitBound > search.maxLoss || search.moveUp(strikes[i] + debitBound) > search.maxMove
+                            || (debitBound > 0 && (expected[i] - debitBound) / debitBound <= bound)) {
+                        pruned += count - j;
+                        break;
+                    }
+                    double debit = premiums[i] - premiums[j];
+                    // E[min((S - K1)+, K2 - K1)] = E[(S - K1)+] - E[(S - K2)+]
+                    if (offer(Family.BULL_CALL_SPREAD, i, j, debit, expected[i] - expected[j], search.moveUp(strikes[i] + debit))) {
+                        bound = threshold();
+                    }
+                }
+            }
+        }
+
+        // Long the put at j, short the one at i < j: the mirror image of the bull call spread.
+        private void bearPutSpreads(Expiry expiry) {
+            double[] strikes = expiry.putStrikes;
+            double[] premiums = expiry.putPremiums;
+            double[] expected = expiry.putExpected;
+            for (int j = from; j < to; j++) {
+                double bound = threshold();
+                for (int i = j - 1; i >= 0; i--) {
+                    double debitBound = premiums[j] - expiry.putPrefixMax[i];
+                    if (debitBound > search.maxLoss || search.moveDown(strikes[j] - debitBound) > search.maxMove
+                            || (debitBound > 0 && (expected[j] - debitBound) / debitBound <= bound)) {
+                        pruned += i + 1;
+                        break;
+                    }
+                    double debit = premiums[j] - premiums[i];
+                    if (offer(Family.BEAR_PUT_SPREAD, j, i, debit, expected[j] - expected[i], search.moveDown(strikes[j] - debit))) {
+                        bound = threshold();
+                    }
+                }
+            }
+        }
+
+        // Scores a candidate and keeps it if it qualifies; true when it entered the heap.
+        private boolean offer(Family family, int a, int b, double debit, double expectedPayoff, double move) {
+            evaluated++;
+            if (!(debit > 0) || debit > search.maxLoss || move > search.maxMove) {
+                return false; // Credits and zero-cost combinations come from crossed or stale quotes
+            }
+            double score = (expectedPayoff - debit) / debit;
+            return heap.offer(score, family, expiryIndex, a, b);
+        }
+
+        private double threshold() {
+            return Math.max(heap.threshold(), search.threshold.get());
+        }
+    }
+
+    // Bounded min-heap of the best scores seen, with each candidate's family, expiry and quote indices
+    // in parallel arrays.
+    private static final class TopK {
+
+        final double[] scores;
+        final byte[] families;
+        final int[] expiries;
+        final int[] first;
+        final int[] second;
+        int size;
+
+        TopK(int capacity) {
+            scores = new double[capacity];
+            families = new byte[capacity];
+            expiries = new int[capacity];
+            first = new int[capacity];
+            second = new int[capacity];
+        }
+
+        // Score a candidate must beat to enter, once the heap is full.
+        double threshold() {
+            return size < scores.length ? Double.NEGATIVE_INFINITY : scores[0];
+        }
+
+        boolean offer(double score, Family family, int expiry, int a, int b) {
+            return offer(score, (byte) family.ordinal(), expiry, a, b);
+        }
+
+        private boolean offer(double score, byte family, int expiry, int a, int b) {
+            if (Double.isNaN(score) || score <= threshold()) {
+                return false;
+            }
+            int slot;
+            if (size < scores.length) {
+                slot = size++;
+                // Sift up
+                while (slot > 0 && scores[(slot - 1) / 2] > score) {
+                    move((slot - 1) / 2, slot);
+                    slot = (slot - 1) / 2;
+                }
+            } else {
+                // Replace the root and sift down
+                slot = 0;
+                while (true) {
+                    int child = 2 * slot + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && scores[child + 1] < scores[child]) {
+                        child++;
+                    }
+                    if (scores[child] >= score) {
+                        break;
+                    }
+                    move(child, slot);
+                    slot = child;
+                }
+            }
+            scores[slot] = score;
+            families[slot] = family;
+            expiries[slot] = expiry;
+            first[slot] = a;
+            second[slot] = b;
+            return true;
+        }
+
+        private void move(int from, int to) {
+            scores[to] = scores[from];
+            families[to] = families[from];
+            expiries[to] = expiries[from];
+            first[to] = first[from];
+            second[to] = second[from];
+        }
+
+        void addAll(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.scores[i], other.families[i], other.expiries[i], other.first[i], other.second[i]);
+            }
+        }
+
+        // Best first, as strategies with their exact expiry profile from OptionStrategy.
+        List<Candidate> toCandidates(List<Expiry> expiryList, double spot) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (x, y) -> Double.compare(scores[y], scores[x]));
+            Family[] values = Family.values();
+            List<Candidate> candidates = new ArrayList<>(size);
+            for (int slot : order) {
+                Family family = values[families[slot]];
+                Expiry expiry = expiryList.get(expiries[slot]);
+                int a = first[slot];
+                int b = second[slot];
+                List<OptionLeg> legs = new ArrayList<>();
+                double expectedPayoff;
+                switch (family) {
+                    case LONG_CALL:
+                        legs.add(OptionLeg.call(1, expiry.callStrikes[a], expiry.callPremiums[a]));
+                        expectedPayoff = expiry.callExpected[a];
+                        break;
+                    case LONG_PUT:
+                        legs.add(OptionLeg.put(1, expiry.putStrikes[a], expiry.putPremiums[a]));
+                        expectedPayoff = expiry.putExpected[a];
+                        break;
+                    case LONG_STRADDLE:
+                        legs.add(OptionLeg.call(1, expiry.callStrikes[a], expiry.callPremiums[a]));
+                        legs.add(OptionLeg.put(1, expiry.putStrikes[b], expiry.putPremiums[b]));
+                        expectedPayoff = expiry.callExpected[a] + expiry.putExpected[b];
+                        break;
+                    case BULL_CALL_SPREAD:
+                        legs.add(OptionLeg.call(1, expiry.callStrikes[a], expiry.callPremiums[a]));
+                        legs.add(OptionLeg.call(-1, expiry.callStrikes[b], expiry.callPremiums[b]));
+                        expectedPayoff = expiry.callExpected[a] - expiry.callExpected[b];
+                        break;
+                    default:
+                        legs.add(OptionLeg.put(-1, expiry.putStrikes[b], expiry.putPremiums[b]));
+                        legs.add(OptionLeg.put(1, expiry.putStrikes[a], expiry.putPremiums[a]));
+                        expectedPayoff = expiry.putExpected[a] - expiry.putExpected[b];
+                        break;
+                }
+                OptionStrategy strategy = new OptionStrategy(family.toString(), expiry.date, legs);
+                double nearestMove = Double.POSITIVE_INFINITY;
+                for (double breakeven : strategy.breakevens()) {
+                    nearestMove = Math.min(nearestMove, Math.abs(breakeven - spot) / spot);
+                }
+                if (strategy.payoffAt(spot) > 0) {
+                    nearestMove = 0;
+                }
+                candidates.add(new Candidate(family, strategy, scores[slot], expectedPayoff - strategy.netPremium(), nearestMove));
+            }
+            return candidates;
+        }
+    }
+}
\ No newline at end of file
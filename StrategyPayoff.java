@@ -0,0 +1,39 @@
+import java.awt.*;
+import java.util.List;
+import javax.swing.*;
+
+// Payoff chart for an arbitrary multi-leg strategy, e.g. one entered on the "Custom Strategy" card.
+public class StrategyPayoff extends PayoffChart {
+
+    private OptionStrategy strategy;
+
+    public StrategyPayoff(OptionStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public void updateStrategy(OptionStrategy strategy) {
+        this.strategy = strategy;
+        invalidateChart();
+    }
+
+    @Override
+    protected OptionStrategy strategy() {
+        return strategy;
+    }
+
+    @Override
+    protected Color curveColor() {
+        return Color.MAGENTA.darker();
+    }
+
+    public static void main(String[] args) {
+        JFrame frame = new JFrame("Strategy Payoff");
+        OptionStrategy ironCondor = new OptionStrategy("Iron Condor", "2024-12-20", List.of(
+                OptionLeg.put(1, 130, 1.0), OptionLeg.put(-1, 140, 2.5),
+                OptionLeg.call(-1, 160, 2.4), OptionLeg.call(1, 170, 0.9)));
+        frame.add(new StrategyPayoff(ironCondor));
+        frame.setSize(800, 600);
+        frame.setVisible(true);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    }
+}
\ No newline at end of file
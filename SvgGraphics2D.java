@@ -0,0 +1,656 @@
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.AttributedCharacterIterator;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+
+// Minimal vector Graphics2D that records shapes and text as SVG elements, so the same
+// PayoffChart.paintChart code that draws on screen can be exported as SVG. Covers the
+// primitives the charts use: shapes, text, colours, basic strokes, transforms and clips.
+// Raster images are embedded as PNG data URIs. XOR mode and copyArea have no SVG equivalent
+// and are ignored, as are composites other than plain alpha.
+public class SvgGraphics2D extends Graphics2D {
+
+    private static final BufferedImage METRICS_IMAGE = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private final StringBuilder body;
+    private final int[] clipIds;
+    private final RenderingHints hints;
+    private AffineTransform transform = new AffineTransform();
+    private Shape clip; // Device space
+    private String clipReference = "";
+    private Color color = Color.BLACK;
+    private Paint paint = Color.BLACK;
+    private Color background = Color.WHITE;
+    private Stroke stroke = new BasicStroke();
+    private Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+    private Composite composite = AlphaComposite.SrcOver;
+
+    public SvgGraphics2D() {
+        this(new StringBuilder(), new int[1], new RenderingHints(null));
+    }
+
+    private SvgGraphics2D(StringBuilder body, int[] clipIds, RenderingHints hints) {
+        this.body = body;
+        this.clipIds = clipIds;
+        this.hints = hints;
+    }
+
+    public String toSvg(int width, int height) {
+        return "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                + "\" viewBox=\"0 0 " + width + " " + height + "\">\n" + body + "</svg>\n";
+    }
+
+    @Override
+    public void draw(Shape shape) {
+        if (stroke instanceof BasicStroke) {
+            float width = ((BasicStroke) stroke).getLineWidth() * (float) Math.sqrt(Math.abs(transform.getDeterminant()));
+            element(shape, "fill=\"none\" stroke=\"" + rgb(color) + "\"" + opacity("stroke-opacity")
+                    + " stroke-width=\"" + number(Math.max(width, 1e-3)) + "\"");
+        } else {
+            fill(stroke.createStrokedShape(shape));
+        }
+    }
+
+    @Override
+    public void fill(Shape shape) {
+        element(shape, "fill=\"" + rgb(color) + "\"" + opacity("fill-opacity"));
+    }
+
+    private void element(Shape shape, String style) {
+        String path = pathData(shape.getPathIterator(transform));
+        if (!path.isEmpty()) {
+            body.append("<path d=\"").append(path).append("\" ").append(style).append(clipReference).append("/>\n");
+        }
+    }
+
+    @Override
+    public void drawString(String text, float x, float y) {
+        Point2D origin = transform.transform(new Point2D.Double(x, y), null);
+        double size = font.getSize2D() * Math.sqrt(Math.abs(transform.getDeterminant()));
+        body.append("<text x=\"").append(number(origin.getX())).append("\" y=\"").append(number(origin.getY()))
+                .append("\" font-family=\"").append(escape(font.getFamily())).append("\" font-size=\"").append(number(size))
+                .append("\"").append(font.isBold() ? " font-weight=\"bold\"" : "").append(font.isItalic() ? " font-style=\"italic\"" : "")
+                .append(" fill=\"").append(rgb(color)).append("\"").append(opacity("fill-opacity")).append(clipReference)
+                .append(">").append(escape(text)).append("</text>\n");
+    }
+
+    @Override
+    public void drawString(String text, int x, int y) {
+        drawString(text, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        StringBuilder text = new StringBuilder();
+        for (char c = iterator.first(); c != AttributedCharacterIterator.DONE; c = iterator.next()) {
+            text.append(c);
+        }
+        drawString(text.toString(), x, y);
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector glyphs, float x, float y) {
+        fill(glyphs.getOutline(x, y));
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape shape, boolean onStroke) {
+        Shape deviceShape = transform.createTransformedShape(onStroke ? stroke.createStrokedShape(shape) : shape);
+        return deviceShape.intersects(rect);
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return null;
+    }
+
+    @Override
+    public void setComposite(Composite composite) {
+        this.composite = composite;
+    }
+
+    @Override
+    public void setPaint(Paint paint) {
+        this.paint = paint;
+        if (paint instanceof Color) {
+            color = (Color) paint;
+        }
+    }
+
+    @Override
+    public void setStroke(Stroke stroke) {
+        this.stroke = stroke;
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key key, Object value) {
+        hints.put(key, value);
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key key) {
+        return hints.get(key);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> newHints) {
+        hints.clear();
+        hints.putAll(newHints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> newHints) {
+        hints.putAll(newHints);
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return (RenderingHints) hints.clone();
+    }
+
+    @Override
+    public void translate(int x, int y) {
+        transform.translate(x, y);
+    }
+
+    @Override
+    public void translate(double x, double y) {
+        transform.translate(x, y);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        transform.rotate(theta);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        transform.rotate(theta, x, y);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        transform.scale(sx, sy);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        transform.shear(shx, shy);
+    }
+
+    @Override
+    public void transform(AffineTransform other) {
+        transform.concatenate(other);
+    }
+
+    @Override
+    public void setTransform(AffineTransform transform) {
+        this.transform = new AffineTransform(transform);
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return new AffineTransform(transform);
+    }
+
+    @Override
+    public Paint getPaint() {
+        return paint;
+    }
+
+    @Override
+    public Composite getComposite() {
+        return composite;
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        background = color;
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return stroke;
+    }
+
+    @Override
+    public void clip(Shape shape) {
+        Shape deviceShape = transform.createTransformedShape(shape);
+        if (clip == null) {
+            setDeviceClip(deviceShape);
+        } else {
+            Area area = new Area(clip);
+            area.intersect(new Area(deviceShape));
+            setDeviceClip(area);
+        }
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return new FontRenderContext(transform, RenderingHints.VALUE_TEXT_ANTIALIAS_ON.equals(hints.get(RenderingHints.KEY_TEXT_ANTIALIASING)),
+                RenderingHints.VALUE_FRACTIONALMETRICS_ON.equals(hints.get(RenderingHints.KEY_FRACTIONALMETRICS)));
+    }
+
+    @Override
+    public Graphics create() {
+        SvgGraphics2D copy = new SvgGraphics2D(body, clipIds, (RenderingHints) hints.clone());
+        copy.transform = new AffineTransform(transform);
+        copy.clip = clip;
+        copy.clipReference = clipReference;
+        copy.color = color;
+        copy.paint = paint;
+        copy.background = background;
+        copy.stroke = stroke;
+        copy.font = font;
+        copy.composite = composite;
+        return copy;
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        if (color != null) {
+            this.color = color;
+            this.paint = color;
+        }
+    }
+
+    @Override
+    public void setPaintMode() {
+    }
+
+    @Override
+    public void setXORMode(Color color) {
+        // Drawn in paint mode
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        if (font != null) {
+            this.font = font;
+        }
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font font) {
+        Graphics graphics = METRICS_IMAGE.getGraphics();
+        try {
+            return graphics.getFontMetrics(font);
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        Shape userClip = getClip();
+        return userClip == null ? null : userClip.getBounds();
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        clip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        setClip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public Shape getClip() {
+        if (clip == null) {
+            return null;
+        }
+        try {
+            return transform.createInverse().createTransformedShape(clip);
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void setClip(Shape shape) {
+        setDeviceClip(shape == null ? null : transform.createTransformedShape(shape));
+    }
+
+    private void setDeviceClip(Shape deviceShape) {
+        clip = deviceShape;
+        if (deviceShape == null) {
+            clipReference = "";
+            return;
+        }
+        String id = "clip" + clipIds[0]++;
+        body.append("<clipPath id=\"").append(id).append("\"><path d=\"")
+                .append(pathData(deviceShape.getPathIterator(null))).append("\"/></clipPath>\n");
+        clipReference = " clip-path=\"url(#" + id + ")\"";
+    }
+
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        // Nothing is rasterized, so there is no area to copy
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        draw(new Line2D.Float(x1, y1, x2, y2));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        fill(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        Color previous = color;
+        setColor(background);
+        fillRect(x, y, width, height);
+        setColor(previous);
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        draw(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        fill(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        draw(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        fill(new Ellipse2D.Float(x, y, width, height));
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        draw(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.OPEN));
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        fill(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.PIE));
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int count) {
+        if (count < 2) {
+            return;
+        }
+        Path2D.Float path = new Path2D.Float();
+        path.moveTo(xPoints[0], yPoints[0]);
+        for (int i = 1; i < count; i++) {
+            path.lineTo(xPoints[i], yPoints[i]);
+        }
+        draw(path);
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int count) {
+        draw(new Polygon(xPoints, yPoints, count));
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int count) {
+        fill(new Polygon(xPoints, yPoints, count));
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage image, AffineTransform xform) {
+        imageElement(image, xform);
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage image, AffineTransform xform) {
+        imageElement(image.createDefaultRendering(), xform);
+    }
+
+    @Override
+    public boolean drawImage(Image image, AffineTransform xform, ImageObserver observer) {
+        RenderedImage rendered = rendered(image, observer);
+        if (rendered == null) {
+            return false;
+        }
+        imageElement(rendered, xform == null ? new AffineTransform() : xform);
+        return true;
+    }
+
+    @Override
+    public void drawImage(BufferedImage image, BufferedImageOp op, int x, int y) {
+        imageElement(op == null ? image : op.filter(image, null), AffineTransform.getTranslateInstance(x, y));
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, ImageObserver observer) {
+        return drawImage(image, AffineTransform.getTranslateInstance(x, y), observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, int width, int height, ImageObserver observer) {
+        RenderedImage rendered = rendered(image, observer);
+        if (rendered == null) {
+            return false;
+        }
+        AffineTransform xform = AffineTransform.getTranslateInstance(x, y);
+        xform.scale((double) width / rendered.getWidth(), (double) height / rendered.getHeight());
+        imageElement(rendered, xform);
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, Color bgcolor, ImageObserver observer) {
+        RenderedImage rendered = rendered(image, observer);
+        if (rendered == null) {
+            return false;
+        }
+        return drawImage(image, x, y, rendered.getWidth(), rendered.getHeight(), bgcolor, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int x, int y, int width, int height, Color bgcolor, ImageObserver observer) {
+        fillBackground(bgcolor, x, y, width, height);
+        return drawImage(image, x, y, width, height, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+                             ImageObserver observer) {
+        BufferedImage buffered = buffered(rendered(image, observer));
+        if (buffered == null) {
+            return false;
+        }
+        if (dx1 == dx2 || dy1 == dy2 || sx1 == sx2 || sy1 == sy2) {
+            return true;
+        }
+        // Crop to the source rectangle, then map the crop's pixels onto the destination rectangle
+        int cropX = Math.max(0, Math.min(sx1, sx2));
+        int cropY = Math.max(0, Math.min(sy1, sy2));
+        int cropWidth = Math.min(buffered.getWidth(), Math.max(sx1, sx2)) - cropX;
+        int cropHeight = Math.min(buffered.getHeight(), Math.max(sy1, sy2)) - cropY;
+        if (cropWidth <= 0 || cropHeight <= 0) {
+            return true;
+        }
+        AffineTransform xform = AffineTransform.getTranslateInstance(dx1, dy1);
+        xform.scale((double) (dx2 - dx1) / (sx2 - sx1), (double) (dy2 - dy1) / (sy2 - sy1));
+        xform.translate(cropX - sx1, cropY - sy1);
+        imageElement(buffered.getSubimage(cropX, cropY, cropWidth, cropHeight), xform);
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+                             Color bgcolor, ImageObserver observer) {
+        fillBackground(bgcolor, Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1), Math.abs(dy2 - dy1));
+        return drawImage(image, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+    }
+
+    // An <image> holding the PNG of the image, placed by the current transform after xform.
+    private void imageElement(RenderedImage image, AffineTransform xform) {
+        if (image.getWidth() <= 0 || image.getHeight() <= 0) {
+            return;
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", png);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        AffineTransform placement = new AffineTransform(transform);
+        placement.concatenate(xform);
+        float alpha = composite instanceof AlphaComposite ? ((AlphaComposite) composite).getAlpha() : 1;
+        body.append("<image width=\"").append(image.getWidth()).append("\" height=\"").append(image.getHeight())
+                .append("\" preserveAspectRatio=\"none\" transform=\"matrix(")
+                .append(number(placement.getScaleX())).append(' ').append(number(placement.getShearY())).append(' ')
+                .append(number(placement.getShearX())).append(' ').append(number(placement.getScaleY())).append(' ')
+                .append(number(placement.getTranslateX())).append(' ').append(number(placement.getTranslateY())).append(")\"")
+                .append(alpha < 1 ? " opacity=\"" + number(alpha) + "\"" : "").append(clipReference)
+                .append(" href=\"data:image/png;base64,").append(Base64.getEncoder().encodeToString(png.toByteArray()))
+                .append("\"/>\n");
+    }
+
+    private void fillBackground(Color bgcolor, int x, int y, int width, int height) {
+        if (bgcolor != null) {
+            Color previous = color;
+            setColor(bgcolor);
+            fillRect(x, y, width, height);
+            setColor(previous);
+        }
+    }
+
+    // The image as a RenderedImage, drawing it into a buffer if it is not one; null while it is still loading.
+    private static RenderedImage rendered(Image image, ImageObserver observer) {
+        if (image instanceof RenderedImage) {
+            return (RenderedImage) image;
+        }
+        int width = image.getWidth(observer);
+        int height = image.getHeight(observer);
+        if (width < 0 || height < 0) {
+            return null;
+        }
+        BufferedImage buffer = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = buffer.createGraphics();
+        try {
+            g2d.drawImage(image, 0, 0, observer);
+        } finally {
+            g2d.dispose();
+        }
+        return buffer;
+    }
+
+    private static BufferedImage buffered(RenderedImage image) {
+        if (image == null || image instanceof BufferedImage) {
+            return (BufferedImage) image;
+        }
+        BufferedImage buffer = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = buffer.createGraphics();
+        try {
+            g2d.drawRenderedImage(image, new AffineTransform());
+        } finally {
+            g2d.dispose();
+        }
+        return buffer;
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    private String opacity(String attribute) {
+        float alpha = color.getAlpha() / 255f;
+        if (composite instanceof AlphaComposite) {
+            alpha *= ((AlphaComposite) composite).getAlpha();
+        }
+        return alpha < 1 ? " " + attribute + "=\"" + number(alpha) + "\"" : "";
+    }
+
+    private static String pathData(PathIterator iterator) {
+        StringBuilder path = new StringBuilder();
+        double[] coords = new double[6];
+        for (; !iterator.isDone(); iterator.next()) {
+            switch (iterator.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    path.append('M').append(number(coords[0])).append(' ').append(number(coords[1]));
+                    break;
+                case PathIterator.SEG_LINETO:
+                    path.append('L').append(number(coords[0])).append(' ').append(number(coords[1]));
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    path.append('Q').append(number(coords[0])).append(' ').append(number(coords[1])).append(' ')
+                            .append(number(coords[2])).append(' ').append(number(coords[3]));
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    path.append('C').append(number(coords[0])).append(' ').append(number(coords[1])).append(' ')
+                            .append(number(coords[2])).append(' ').append(number(coords[3])).append(' ')
+                            .append(number(coords[4])).append(' ').append(number(coords[5]));
+                    break;
+                default:
+                    path.append('Z');
+                    break;
+            }
+        }
+        return path.toString();
+    }
+
+    private static String rgb(Color color) {
+        return String.format(Locale.ROOT, "#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    private static String number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
\ No newline at end of file
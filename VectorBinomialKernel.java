@@ -0,0 +1,27 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD induction step for BinomialTree; loaded reflectively only when jdk.incubator.vector is available.
+// Lanes compute the same expression as the scalar step, so both paths produce identical prices.
+final class VectorBinomialKernel implements BinomialTree.StepKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void step(double[] values, double[] next, double[] nodes, int base, int count, double upWeight,
+                     double downWeight, double sign, double shift) {
+        int j = 0;
+        int upper = SPECIES.loopBound(count);
+        for (; j < upper; j += SPECIES.length()) {
+            DoubleVector held = DoubleVector.fromArray(SPECIES, values, j + 1).mul(upWeight)
+                    .add(DoubleVector.fromArray(SPECIES, values, j).mul(downWeight));
+            DoubleVector exercise = DoubleVector.fromArray(SPECIES, nodes, base + j).mul(sign).add(shift);
+            held.max(exercise).intoArray(next, j);
+        }
+        for (; j < count; j++) {
+            double held = upWeight * values[j + 1] + downWeight * values[j];
+            double exercise = sign * nodes[base + j] + shift;
+            next[j] = held > exercise ? held : exercise;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD payoff kernel; loaded reflectively by PayoffEngine only when jdk.incubator.vector is available.
+// Lanes follow the same operation order as PayoffEngine.payoffAt so both paths produce identical results.
+final class VectorPayoffKernel implements PayoffEngine.PayoffKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final DoubleVector IOTA = DoubleVector.fromArray(SPECIES, iota(SPECIES.length()), 0);
+
+    @Override
+    public void evaluate(PayoffEngine engine, double[] prices, int priceOffset, double[] out, int outOffset, int length) {
+        int i = 0;
+        int upper = SPECIES.loopBound(length);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector price = DoubleVector.fromArray(SPECIES, prices, priceOffset + i);
+            payoff(engine, price).intoArray(out, outOffset + i);
+        }
+        for (; i < length; i++) {
+            out[outOffset + i] = engine.payoffAt(prices[priceOffset + i]);
+        }
+    }
+
+    @Override
+    public void evaluateGrid(PayoffEngine engine, double startPrice, double priceStep, double[] out, int outOffset, int length) {
+        int i = 0;
+        int upper = SPECIES.loopBound(length);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector price = IOTA.add(i).mul(priceStep).add(startPrice);
+            payoff(engine, price).intoArray(out, outOffset + i);
+        }
+        for (; i < length; i++) {
+            out[outOffset + i] = engine.payoffAt(startPrice + i * priceStep);
+        }
+    }
+
+    private static DoubleVector payoff(PayoffEngine engine, DoubleVector price) {
+        DoubleVector payoff = price.mul(engine.stockQuantity()).sub(engine.netPremium());
+        for (int leg = 0; leg < engine.legCount(); leg++) {
+            DoubleVector intrinsic = engine.kind(leg) == PayoffEngine.CALL
+                    ? price.sub(engine.strike(leg))
+                    : price.neg().add(engine.strike(leg));
+            payoff = payoff.add(intrinsic.max(0).mul(engine.quantity(leg)));
+        }
+        return payoff;
+    }
+
+    private static double[] iota(int length) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+}
\ No newline at end of file
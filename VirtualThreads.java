@@ -0,0 +1,24 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Executors for background work that mostly waits or runs briefly: a virtual thread per task when the
+// JVM has them (Java 21+), otherwise a cached pool of daemon threads. Found reflectively so the code
+// still compiles for Java 17.
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    // threadName names the platform threads of the fallback pool.
+    public static ExecutorService newExecutor(String threadName) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,409 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Everything entered in the visualizer saved as one binary file, so it survives restarts: input fields
+// by name, chart zoom ranges, a library of saved strategies and the pre-expiry curve tiles sampled for
+// the charted strategies, European and American.
+//
+// Layout (little-endian): magic (8), format version (4), section count (4), then per section its id (4),
+// offset (8) and length (8). Sections with unknown ids are skipped, so later versions can add sections
+// that older readers ignore. Strings are a 2-byte length and UTF-8 bytes; a strategy is its name,
+// expiration, leg count (2) and per leg its type (1), strike, quantity and premium (8 each).
+//
+//   SETTINGS    count (4), then key and value strings
+//   VIEWS       count (4), then per chart its name and minPrice, maxPrice, minPnl, maxPnl (8 each)
+//   STRATEGIES  count (4), per strategy its offset from the section start (4), then the strategies
+//   CURVES      valuation epoch day (4), count (4), then per cache its strategy, days to expiry (4),
+//               slices (4), volatility and rate (8 each), tile count (4), and per tile its key (8)
+//               and per slice a point count (4), the prices and the P&L (8 each)
+//   AMERICAN    curves priced on binomial trees, laid out as CURVES with per cache after the rate its
+//               dividend yield (8), cash dividend count (4), and per dividend its time and amount (8 each)
+//
+// The file is read into one heap buffer and only the settings and views are decoded when it is opened.
+// Saved strategies are decoded one at a time when first asked for, so a library of thousands opens in
+// the time it takes to read it; curves are decoded by restoreCurves, and only when saved the same day,
+// since they depend on the days left to expiry. The file is not mapped: an open workspace would keep
+// the mapping alive, and Windows refuses to replace a mapped file, so saving over it would fail.
+public final class Workspace {
+
+    private static final long MAGIC = 0x3153574646554C46L; // "FLUFFWS1" read as a little-endian long
+    private static final int VERSION = 1;
+    private static final int SETTINGS = 1;
+    private static final int VIEWS = 2;
+    private static final int STRATEGIES = 3;
+    private static final int CURVES = 4;
+    private static final int AMERICAN = 5;
+    private static final int SECTION_ENTRY_BYTES = 20;
+
+    private final Map<String, String> settings;
+    private final Map<String, double[]> views;
+    private final ByteBuffer strategySection; // Null when the file has none
+    private final OptionStrategy[] decoded;
+    private final ByteBuffer curveSection;
+    private final ByteBuffer americanSection;
+
+    private Workspace(Map<String, String> settings, Map<String, double[]> views, ByteBuffer strategySection,
+                      ByteBuffer curveSection, ByteBuffer americanSection) {
+        this.settings = settings;
+        this.views = views;
+        this.strategySection = strategySection;
+        this.decoded = new OptionStrategy[strategySection == null ? 0 : strategySection.getInt(0)];
+        this.curveSection = curveSection;
+        this.americanSection = americanSection;
+    }
+
+    // Writes the workspace to a temporary file next to the target and moves it into place, so a failed
+    // save never leaves a truncated workspace behind.
+    public static void save(Path file, Map<String, String> settings, Map<String, double[]> views,
+                            List<OptionStrategy> strategies, List<CurveTileCache> curves) throws IOException {
+        Sink out = new Sink();
+        out.putLong(MAGIC).putInt(VERSION).putInt(5);
+        int table = out.position();
+        out.skip(5 * SECTION_ENTRY_BYTES);
+
+        int start = out.position();
+        out.putInt(settings.size());
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            out.putString(setting.getKey()).putString(setting.getValue());
+        }
+        out.section(table, SETTINGS, start);
+
+        start = out.position();
+        out.putInt(views.size());
+        for (Map.Entry<String, double[]> view : views.entrySet()) {
+            out.putString(view.getKey());
+            for (int i = 0; i < 4; i++) {
+                out.putDouble(view.getValue()[i]);
+            }
+        }
+        out.section(table + SECTION_ENTRY_BYTES, VIEWS, start);
+
+        start = out.position();
+        out.putInt(strategies.size());
+        int offsets = out.position();
+        out.skip(4 * strategies.size());
+        for (int i = 0; i < strategies.size(); i++) {
+            out.putInt(offsets + 4 * i, out.position() - start);
+            out.putStrategy(strategies.get(i));
+        }
+        out.section(table + 2 * SECTION_ENTRY_BYTES, STRATEGIES, start);
+
+        List<CurveTileCache> european = new ArrayList<>();
+        List<CurveTileCache> american = new ArrayList<>();
+        for (CurveTileCache cache : curves) {
+            (cache.american() == null ? european : american).add(cache);
+        }
+        start = out.position();
+        out.putCurves(european);
+        out.section(table + 3 * SECTION_ENTRY_BYTES, CURVES, start);
+
+        start = out.position();
+        out.putCurves(american);
+        out.section(table + 4 * SECTION_ENTRY_BYTES, AMERICAN, start);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, Arrays.copyOf(out.buffer.array(), out.position()));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public static Workspace load(Path file) throws IOException {
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Workspace too large: " + channel.size() + " bytes");
+            }
+            bytes = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, bytes.position()) < 0) {
+                    throw new IOException(file + " was truncated while reading");
+                }
+            }
+            bytes.flip();
+        }
+        if (bytes.limit() < 16 || bytes.getLong(0) != MAGIC) {
+            throw new IOException(file + " is not a workspace");
+        }
+        int version = bytes.getInt(8);
+        if (version > VERSION) {
+            throw new IOException(file + " was saved by a newer version (format " + version + ")");
+        }
+        Map<String, String> settings = new LinkedHashMap<>();
+        Map<String, double[]> views = new LinkedHashMap<>();
+        ByteBuffer strategies = null;
+        ByteBuffer curves = null;
+        ByteBuffer american = null;
+        int sections = bytes.getInt(12);
+        for (int i = 0; i < sections; i++) {
+            int entry = 16 + i * SECTION_ENTRY_BYTES;
+            long offset = bytes.getLong(entry + 4);
+            long length = bytes.getLong(entry + 12);
+            if (offset < 0 || length < 0 || offset + length > bytes.limit()) {
+                throw new IOException("Corrupt workspace section " + bytes.getInt(entry));
+            }
+            ByteBuffer section = bytes.slice((int) offset, (int) length).order(ByteOrder.LITTLE_ENDIAN);
+            switch (bytes.getInt(entry)) {
+                case SETTINGS:
+                    for (int count = section.getInt(); count > 0; count--) {
+                        settings.put(getString(section), getString(section));
+                    }
+                    break;
+                case VIEWS:
+                    for (int count = section.getInt(); count > 0; count--) {
+                        views.put(getString(section), new double[] {section.getDouble(), section.getDouble(),
+                                section.getDouble(), section.getDouble()});
+                    }
+                    break;
+                case STRATEGIES:
+                    strategies = section;
+                    break;
+                case CURVES:
+                    curves = section;
+                    break;
+                case AMERICAN:
+                    american = section;
+                    break;
+                default:
+                    break; // Written by a later version
+            }
+        }
+        return new Workspace(settings, views, strategies, curves, american);
+    }
+
+    public Map<String, String> settings() {
+        return settings;
+    }
+
+    // Zoom ranges saved for the chart, or null when it was fitted to its strategy.
+    public double[] view(String chart) {
+        double[] view = views.get(chart);
+        return view == null ? null : view.clone();
+    }
+
+    public int strategyCount() {
+        return decoded.length;
+    }
+
+    public synchronized OptionStrategy strategy(int index) {
+        if (decoded[index] == null) {
+            ByteBuffer record = strategySection.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            record.position(strategySection.getInt(4 + 4 * index));
+            decoded[index] = getStrategy(record);
+        }
+        return decoded[index];
+    }
+
+    // Decodes the saved curve tiles and makes them the shared caches for their strategies, so charts
+    // showing those strategies draw without sampling again. Returns how many caches were restored;
+    // none when the workspace was saved on another day.
+    public int restoreCurves() {
+        return restoreCurves(curveSection, false) + restoreCurves(americanSection, true);
+    }
+
+    private static int restoreCurves(ByteBuffer section, boolean american) {
+        if (section == null) {
+            return 0;
+        }
+        ByteBuffer in = section.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.getInt() != LocalDate.now().toEpochDay()) {
+            return 0;
+        }
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            OptionStrategy strategy = getStrategy(in);
+            int daysToExpiry = in.getInt();
+            int slices = in.getInt();
+            double volatility = in.getDouble();
+            double rate = in.getDouble();
+            BinomialTree.Dividends dividends = null;
+            if (american) {
+                double yield = in.getDouble();
+                double[] times = new double[in.getInt()];
+                double[] amounts = new double[times.length];
+                for (int d = 0; d < times.length; d++) {
+                    times[d] = in.getDouble();
+                    amounts[d] = in.getDouble();
+                }
+                dividends = BinomialTree.Dividends.of(yield, times, amounts);
+            }
+            CurveTileCache cache = new CurveTileCache(strategy, daysToExpiry, slices, volatility, rate, dividends);
+            for (int tiles = in.getInt(); tiles > 0; tiles--) {
+                long key = in.getLong();
+                double[][] prices = new double[slices][];
+                double[][] pnl = new double[slices][];
+                for (int slice = 0; slice < slices; slice++) {
+                    int points = in.getInt();
+                    prices[slice] = new double[points];
+                    pnl[slice] = new double[points];
+                    in.asDoubleBuffer().get(prices[slice]);
+                    in.position(in.position() + points * Double.BYTES);
+                    in.asDoubleBuffer().get(pnl[slice]);
+                    in.position(in.position() + points * Double.BYTES);
+                }
+                cache.putTile(key, prices, pnl);
+            }
+            CurveTileCache.share(cache);
+        }
+        return count;
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static OptionStrategy getStrategy(ByteBuffer in) {
+        String name = getString(in);
+        String expiration = getString(in);
+        int legCount = in.getShort() & 0xFFFF;
+        OptionLeg.Type[] types = OptionLeg.Type.values();
+        List<OptionLeg> legs = new ArrayList<>(legCount);
+        for (int leg = 0; leg < legCount; leg++) {
+            int type = in.get();
+            if (type < 0 || type >= types.length) {
+                throw new IllegalArgumentException("Corrupt leg type " + type + " in saved strategy " + name);
+            }
+            legs.add(new OptionLeg(types[type], in.getDouble(), in.getDouble(), in.getDouble()));
+        }
+        return new OptionStrategy(name, expiration, legs);
+    }
+
+    // Growable little-endian output buffer.
+    private static final class Sink {
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        int position() {
+            return buffer.position();
+        }
+
+        Sink skip(int bytes) {
+            reserve(bytes);
+            buffer.position(buffer.position() + bytes);
+            return this;
+        }
+
+        Sink putInt(int value) {
+            reserve(4);
+            buffer.putInt(value);
+            return this;
+        }
+
+        Sink putInt(int position, int value) {
+            buffer.putInt(position, value);
+            return this;
+        }
+
+        Sink putLong(long value) {
+            reserve(8);
+            buffer.putLong(value);
+            return this;
+        }
+
+        Sink putDouble(double value) {
+            reserve(8);
+            buffer.putDouble(value);
+            return this;
+        }
+
+        Sink putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("String too long to save: " + bytes.length + " bytes");
+            }
+            reserve(2 + bytes.length);
+            buffer.putShort((short) bytes.length).put(bytes);
+            return this;
+        }
+
+        Sink putStrategy(OptionStrategy strategy) {
+            putString(strategy.name()).putString(strategy.expirationDate());
+            List<OptionLeg> legs = strategy.legs();
+            if (legs.size() > 0xFFFF) {
+                throw new IllegalArgumentException("Too many legs to save: " + legs.size());
+            }
+            reserve(2 + legs.size() * 25);
+            buffer.putShort((short) legs.size());
+            for (OptionLeg leg : legs) {
+                buffer.put((byte) leg.type().ordinal()).putDouble(leg.strike()).putDouble(leg.quantity()).putDouble(leg.premium());
+            }
+            return this;
+        }
+
+        // A CURVES or AMERICAN section: the dividends are written for caches priced as American options.
+        Sink putCurves(List<CurveTileCache> curves) {
+            putInt((int) LocalDate.now().toEpochDay()).putInt(curves.size());
+            for (CurveTileCache cache : curves) {
+                putStrategy(cache.strategy()).putInt((int) cache.daysToExpiry()).putInt(cache.sliceCount())
+                        .putDouble(cache.volatility()).putDouble(cache.rate());
+                BinomialTree.Dividends dividends = cache.american();
+                if (dividends != null) {
+                    double[] times = dividends.times();
+                    double[] amounts = dividends.amounts();
+                    putDouble(dividends.yield()).putInt(times.length);
+                    for (int i = 0; i < times.length; i++) {
+                        putDouble(times[i]).putDouble(amounts[i]);
+                    }
+                }
+                int countPosition = position();
+                putInt(0);
+                int tiles = 0;
+                for (long key : cache.tileKeys()) {
+                    double[][][] tile = cache.tile(key);
+                    if (tile == null) {
+                        continue; // Evicted since the keys were listed
+                    }
+                    double[][] prices = tile[0];
+                    double[][] pnl = tile[1];
+                    putLong(key);
+                    for (int slice = 0; slice < prices.length; slice++) {
+                        putInt(prices[slice].length);
+                        for (double price : prices[slice]) {
+                            putDouble(price);
+                        }
+                        for (double value : pnl[slice]) {
+                            putDouble(value);
+                        }
+                    }
+                    tiles++;
+                }
+                putInt(countPosition, tiles);
+            }
+            return this;
+        }
+
+        // Fills in the section table entry at entry for the bytes written since start.
+        void section(int entry, int id, int start) {
+            buffer.putInt(entry, id).putLong(entry + 4, start).putLong(entry + 12, buffer.position() - start);
+        }
+
+        private void reserve(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+// A generated file of minute bars, for bench.BacktestBenchmark: the sweep the Backtest card runs by
+// default over it, calls, puts and straddles at 41 strike offsets, 5 premiums and 4 tenors, 2,460 sets
+// in one pass. The file is deleted on close.
+public final class BacktestFixture implements Function<String, Runnable>, AutoCloseable {
+
+    private final Path file;
+    private long sink;
+
+    public BacktestFixture(Integer years) throws IOException {
+        file = Files.createTempFile("bars", ".csv");
+        writeMinuteBars(file, years, 42);
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        if (!operation.equals("sweep")) {
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+        return () -> {
+            try {
+                Backtest result = Backtest.run(file, Arrays.asList(Backtest.Kind.values()), Backtest.percentages("-20:20:1"),
+                        Backtest.percentages("1, 2, 3, 5, 8"), new int[] {30, 60, 90, 180}, 0.2, 0.03);
+                sink += result.ranking()[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.delete(file);
+    }
+
+    // Geometric Brownian motion sampled every minute of a 390-minute session, weekdays only.
+    private static void writeMinuteBars(Path file, int years, long seed) throws IOException {
+        Random random = new Random(seed);
+        double price = 100;
+        double minuteVolatility = 0.2 / Math.sqrt(252 * 390);
+        double minuteDrift = 0.07 / (252 * 390);
+        LocalDate day = LocalDate.of(2000, 1, 3);
+        LocalDate end = day.plusYears(years);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write("timestamp,open,high,low,close\n");
+            StringBuilder line = new StringBuilder(64);
+            for (; day.isBefore(end); day = day.plusDays(1)) {
+                if (day.getDayOfWeek().getValue() > 5) {
+                    continue;
+                }
+                String date = day.toString();
+                for (int minute = 0; minute < 390; minute++) {
+                    double open = price;
+                    price *= Math.exp(minuteDrift - 0.5 * minuteVolatility * minuteVolatility
+                            + minuteVolatility * random.nextGaussian());
+                    line.setLength(0);
+                    line.append(date).append(' ').append(9 + (minute + 30) / 60).append(':');
+                    int minuteOfHour = (minute + 30) % 60;
+                    line.append(minuteOfHour < 10 ? "0" : "").append(minuteOfHour).append(',');
+                    appendCents(line, open).append(',');
+                    appendCents(line, Math.max(open, price)).append(',');
+                    appendCents(line, Math.min(open, price)).append(',');
+                    appendCents(line, price).append('\n');
+                    out.write(line.toString());
+                }
+            }
+        }
+    }
+
+    private static StringBuilder appendCents(StringBuilder line, double price) {
+        long cents = Math.round(price * 100);
+        return line.append(cents / 100).append('.').append(cents % 100 < 10 ? "0" : "").append(cents % 100);
+    }
+}
\ No newline at end of file
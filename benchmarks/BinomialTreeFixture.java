@@ -0,0 +1,66 @@
+import java.util.function.Function;
+
+// A generated chain of 20 expiries, one week to 18 months out, of calls and puts on an underlying at 150
+// with a volatility smile, a 1.5% yield and a quarterly $0.60 cash dividend, so calls are exercised early
+// too; for bench.BinomialTreeBenchmark: pricing it on American trees. The constructor checks the tree
+// against Black-Scholes where they must agree: a call without dividends, and a put no cheaper than the
+// European one.
+public final class BinomialTreeFixture implements Function<String, Runnable> {
+
+    private static final int EXPIRIES = 20;
+    private static final double SPOT = 150;
+    private static final double RATE = 0.05;
+
+    private final int steps;
+    private final BinomialTree.Dividends dividends;
+    private final byte[] types;
+    private final double[] strikes;
+    private final double[] years;
+    private final double[] volatilities;
+    private final double[] prices;
+
+    public BinomialTreeFixture(Integer strikesPerExpiry, Integer steps) {
+        this.steps = steps;
+        double[] payDates = new double[8];
+        double[] amounts = new double[payDates.length];
+        for (int i = 0; i < payDates.length; i++) {
+            payDates[i] = 0.1 + 0.25 * i;
+            amounts[i] = 0.6;
+        }
+        dividends = BinomialTree.Dividends.of(0.015, payDates, amounts);
+        int count = EXPIRIES * strikesPerExpiry * 2;
+        types = new byte[count];
+        strikes = new double[count];
+        years = new double[count];
+        volatilities = new double[count];
+        prices = new double[count];
+        int quote = 0;
+        for (int expiry = 0; expiry < EXPIRIES; expiry++) {
+            for (int k = 0; k < strikesPerExpiry; k++) {
+                double strike = SPOT * (0.5 + k / (double) strikesPerExpiry);
+                double moneyness = Math.log(strike / SPOT);
+                for (byte type = BinomialTree.CALL; type <= BinomialTree.PUT; type++) {
+                    types[quote] = type;
+                    strikes[quote] = strike;
+                    years[quote] = BlackScholes.yearsFromDays(7 + expiry * 28);
+                    volatilities[quote] = 0.2 + 0.4 * moneyness * moneyness - 0.1 * moneyness;
+                    quote++;
+                }
+            }
+        }
+        double call = BinomialTree.price(OptionLeg.Type.CALL, 100, 100, 1, 0.2, 0.05, BinomialTree.Dividends.none(), steps);
+        double put = BinomialTree.price(OptionLeg.Type.PUT, 100, 100, 1, 0.2, 0.05, BinomialTree.Dividends.none(), steps);
+        if (Math.abs(call - BlackScholes.price(OptionLeg.Type.CALL, 100, 100, 1, 0.2, 0.05)) > 1e-9
+                || !(put > BlackScholes.price(OptionLeg.Type.PUT, 100, 100, 1, 0.2, 0.05))) {
+            throw new IllegalStateException("Tree prices disagree with Black-Scholes: call " + call + ", put " + put);
+        }
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        if (!operation.equals("chain")) {
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+        return () -> BinomialTree.price(SPOT, RATE, dividends, steps, types, strikes, years, volatilities, prices);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+import java.util.function.Function;
+
+// A chain of 50 expiries with strikesPerExpiry calls and puts each, priced off a skewed smile, for
+// bench.ImpliedVolatilityBenchmark. The setup solves the chain once and checks that every quote inside
+// the no-arbitrage bounds reprices to its premium, so a benchmark never times a wrong answer.
+public final class ImpliedVolatilityFixture implements Function<String, Runnable> {
+
+    private static final int EXPIRIES = 50;
+    private static final double SPOT = 150;
+    private static final double RATE = 0.05;
+
+    private final byte[] types;
+    private final double[] strikes;
+    private final double[] years;
+    private final double[] prices;
+    private final double[] solved;
+
+    public ImpliedVolatilityFixture(Integer strikesPerExpiry) {
+        int count = EXPIRIES * strikesPerExpiry * 2;
+        types = new byte[count];
+        strikes = new double[count];
+        years = new double[count];
+        prices = new double[count];
+        solved = new double[count];
+        int quote = 0;
+        for (int expiry = 0; expiry < EXPIRIES; expiry++) {
+            double t = BlackScholes.yearsFromDays(7 + expiry * 14);
+            for (int k = 0; k < strikesPerExpiry; k++) {
+                double strike = SPOT * (0.5 + k / (double) strikesPerExpiry);
+                double moneyness = Math.log(strike / SPOT);
+                double volatility = 0.2 + 0.4 * moneyness * moneyness - 0.1 * moneyness; // A skewed smile
+                for (byte type = ImpliedVolatility.CALL; type <= ImpliedVolatility.PUT; type++) {
+                    types[quote] = type;
+                    strikes[quote] = strike;
+                    years[quote] = t;
+                    prices[quote] = BlackScholes.price(legType(type), SPOT, strike, t, volatility, RATE);
+                    quote++;
+                }
+            }
+        }
+        ImpliedVolatility.solve(SPOT, RATE, types, strikes, years, prices, solved);
+        for (int i = 0; i < count; i++) {
+            if (!Double.isNaN(solved[i])
+                    && Math.abs(BlackScholes.price(legType(types[i]), SPOT, strikes[i], years[i], solved[i], RATE) - prices[i]) > 1e-6) {
+                throw new IllegalStateException("Quote " + i + " does not reprice to its premium");
+            }
+        }
+    }
+
+    private static OptionLeg.Type legType(byte type) {
+        return type == ImpliedVolatility.CALL ? OptionLeg.Type.CALL : OptionLeg.Type.PUT;
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        switch (operation) {
+            case "solve":
+                return () -> ImpliedVolatility.solve(SPOT, RATE, types, strikes, years, prices, solved);
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+import java.util.function.Function;
+
+// Monte Carlo P&L distribution of an iron condor 30 days from expiry, for bench.MonteCarloBenchmark.
+// threads 0 runs on the common fork-join pool, as the application does.
+public final class MonteCarloFixture implements Function<String, Runnable> {
+
+    private final OptionStrategy strategy =
+            OptionStrategy.parse("Iron Condor", "", "+1 P 130 @1.0; -1 P 140 @2.5; -1 C 160 @2.4; +1 C 170 @0.9");
+    private final long paths;
+    private final int threads;
+    private double sink;
+
+    public MonteCarloFixture(Long paths, Integer threads) {
+        this.paths = paths;
+        this.threads = threads;
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        switch (operation) {
+            case "run":
+                return () -> sink += MonteCarloSimulation.run(strategy, 150, 30 / 365.0, 0.30, 0.05, paths, 42, threads).expectedValue();
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Function;
+
+// A generated chain file of 10 underlyings and 20 monthly expiries, for bench.OptionChainBenchmark:
+// loading it, and looking up every quote of the loaded chain. The file is deleted on close.
+public final class OptionChainFixture implements Function<String, Runnable>, AutoCloseable {
+
+    private static final int SYMBOLS = 10;
+    private static final int EXPIRIES = 20;
+
+    private final Path file;
+    private final OptionChain chain;
+    private final int[] symbolIds;
+    private final int[] expiryDays;
+    private final byte[] types;
+    private final double[] strikes;
+    private long sink;
+
+    public OptionChainFixture(Integer quotes) {
+        try {
+            file = Files.createTempFile("chain", ".csv");
+            writeChain(file, SYMBOLS, EXPIRIES, Math.max(1, quotes / (SYMBOLS * EXPIRIES * 2)), LocalDate.now());
+            chain = OptionChain.load(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int count = chain.quoteCount();
+        symbolIds = new int[count];
+        expiryDays = new int[count];
+        types = new byte[count];
+        strikes = new double[count];
+        for (int symbolId = 0, row = 0; symbolId < chain.symbolCount(); symbolId++) {
+            for (; row < chain.firstRow(symbolId + 1); row++) {
+                symbolIds[row] = symbolId;
+                expiryDays[row] = (int) chain.expiration(row).toEpochDay();
+                types[row] = chain.type(row);
+                strikes[row] = chain.strike(row);
+            }
+        }
+    }
+
+    // Underlying SYMn trades at 100 + 10n with strikes from half to one and a half times that; quotes are
+    // Black-Scholes prices at 30% volatility, 2% either side of mid. Expiries are every 28 days after today.
+    static void writeChain(Path file, int symbols, int expiries, int strikesPerExpiry, LocalDate today) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("underlying,expiration,type,strike,bid,ask\n");
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                double spot = 100 + 10 * symbol;
+                for (int expiry = 0; expiry < expiries; expiry++) {
+                    int days = 28 * (expiry + 1);
+                    String expiration = today.plusDays(days).toString();
+                    for (int k = 0; k < strikesPerExpiry; k++) {
+                        double strike = Math.round(spot * (0.5 + k / (double) strikesPerExpiry) * 100) / 100.0;
+                        for (OptionLeg.Type type : new OptionLeg.Type[] {OptionLeg.Type.CALL, OptionLeg.Type.PUT}) {
+                            double price = BlackScholes.price(type, spot, strike, BlackScholes.yearsFromDays(days), 0.3, 0.05);
+                            out.write(String.format(Locale.ROOT, "SYM%d,%s,%s,%s,%.2f,%.2f%n", symbol, expiration,
+                                    type == OptionLeg.Type.CALL ? "C" : "P", strike, price * 0.98, price * 1.02 + 0.01));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        switch (operation) {
+            case "load":
+                return () -> {
+                    try {
+                        sink += OptionChain.load(file).quoteCount();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+            case "findAll":
+                return () -> {
+                    long found = 0;
+                    for (int row = 0; row < symbolIds.length; row++) {
+                        found += chain.find(symbolIds[row], expiryDays[row], types[row], strikes[row]) >= 0 ? 1 : 0;
+                    }
+                    sink += found;
+                };
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.delete(file);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+// One payoff panel painted headlessly into an image of a given size, for bench.PaintBenchmark.
+public final class PaintFixture implements Function<String, Runnable>, AutoCloseable {
+
+    private final PayoffChart chart;
+    private final BufferedImage target;
+    private final Graphics2D graphics;
+    private final int width;
+    private final int height;
+
+    public PaintFixture(String panel, Integer width, Integer height) {
+        this.width = width;
+        this.height = height;
+        String expirationDate = LocalDate.now().plusDays(30).toString(); // Future date so pre-expiry curves are drawn
+        switch (panel) {
+            case "LONG_PUT":
+                chart = new LongPutPayoff(150, 4.5, expirationDate);
+                break;
+            case "LONG_STRADDLE":
+                chart = new LongStraddlePayoff(150, 5.6, 4.5, expirationDate);
+                break;
+            case "LONG_CALL":
+                chart = new LongCallPayoff(150, 5.6, expirationDate);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown panel: " + panel);
+        }
+        chart.setSize(width, height);
+        target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        graphics = target.createGraphics();
+        chart.install(chart.render(width, height, 1, () -> false)); // What the background renderer hands to the EDT
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        switch (operation) {
+            case "paintChart":
+                return () -> chart.paintChart(graphics, width, height);
+            case "render":
+                return () -> chart.render(width, height, 1, () -> false);
+            case "paintComponentCached":
+                return () -> chart.paintComponent(graphics);
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    @Override
+    public void close() {
+        graphics.dispose();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+import java.time.LocalDate;
+import java.util.function.Function;
+
+// Payoff evaluation of one built-in strategy over an evenly spaced price grid, for bench.PayoffBenchmark.
+// The application lives in the default package, which JMH benchmark classes cannot reference, so each
+// operation is handed to the benchmark as a Runnable.
+public final class PayoffFixture implements Function<String, Runnable> {
+
+    private final PayoffEngine engine;
+    private final double[] prices;
+    private final double[] out;
+    private final double step;
+    private double sink;
+
+    public PayoffFixture(String strategy, Integer gridSize) {
+        OptionStrategy option = strategy(strategy, LocalDate.now().plusDays(30).toString());
+        engine = option.engine();
+        step = option.referencePrice() * 2 / gridSize;
+        prices = new double[gridSize];
+        for (int i = 0; i < gridSize; i++) {
+            prices[i] = i * step;
+        }
+        out = new double[gridSize];
+    }
+
+    static OptionStrategy strategy(String name, String expirationDate) {
+        switch (name) {
+            case "LONG_PUT":
+                return OptionStrategy.longPut(150, 4.5, expirationDate);
+            case "LONG_STRADDLE":
+                return OptionStrategy.longStraddle(150, 5.6, 4.5, expirationDate);
+            case "LONG_CALL":
+                return OptionStrategy.longCall(150, 5.6, expirationDate);
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        switch (operation) {
+            case "payoffAtLoop":
+                return () -> {
+                    double sum = 0;
+                    for (double price : prices) {
+                        sum += engine.payoffAt(price);
+                    }
+                    sink += sum; // Keeps the loop from being eliminated
+                };
+            case "evaluate":
+                return () -> engine.evaluate(prices, out);
+            case "evaluateGrid":
+                return () -> engine.evaluateGrid(0, step, out);
+            case "evaluateParallel":
+                return () -> engine.evaluateParallel(prices, out);
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Function;
+
+// A batch of iron condors with strikes around 100 to 149, for bench.ScenarioGridBenchmark: pricing their
+// 50x50x30 scenario grids (price shocks of -25% to +25%, volatility shocks of -10 to +10 points, 0 to 29
+// days elapsed) from scratch, and again after the volatility axis shifts up by 10 shocks, which reprices
+// only the 10 new volatility slices of each grid.
+public final class ScenarioGridFixture implements Function<String, Runnable> {
+
+    private final double[] priceShocks = ScenarioGrid.steps(-0.25, 0.25, 50);
+    private final double[] volatilityShocks = ScenarioGrid.steps(-0.10, 0.10, 50);
+    private final double[] shiftedVolatility = new double[volatilityShocks.length];
+    private final double[] daysElapsed = ScenarioGrid.steps(0, 29, 30);
+    private final LocalDate today = LocalDate.now();
+    private final OptionStrategy[] strategies;
+    private final ScenarioGrid[] grids;
+    private long sink;
+
+    public ScenarioGridFixture(Integer strategyCount) {
+        for (int i = 0; i < shiftedVolatility.length; i++) {
+            int j = i + 10;
+            shiftedVolatility[i] = j < volatilityShocks.length ? volatilityShocks[j]
+                    : volatilityShocks[volatilityShocks.length - 1] + (j - volatilityShocks.length + 1) * (volatilityShocks[1] - volatilityShocks[0]);
+        }
+        String expiration = today.plusDays(45).toString();
+        strategies = new OptionStrategy[strategyCount];
+        grids = new ScenarioGrid[strategyCount];
+        for (int i = 0; i < strategyCount; i++) {
+            double strike = 100 + i % 50;
+            strategies[i] = OptionStrategy.parse("Iron Condor", expiration, String.format(Locale.ROOT,
+                    "+1 P %s @1.0; -1 P %s @2.5; -1 C %s @2.4; +1 C %s @0.9", strike - 20, strike - 10, strike + 10, strike + 20));
+            grids[i] = full(i);
+        }
+    }
+
+    private ScenarioGrid full(int i) {
+        return ScenarioGrid.compute(strategies[i], 100 + i % 50, 0.3, 0.05, today, priceShocks, volatilityShocks, daysElapsed,
+                null, () -> false);
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        switch (operation) {
+            case "full":
+                return () -> {
+                    for (int i = 0; i < strategies.length; i++) {
+                        sink += full(i).pricedCells();
+                    }
+                };
+            case "shifted":
+                return () -> {
+                    for (int i = 0; i < strategies.length; i++) {
+                        sink += ScenarioGrid.compute(strategies[i], 100 + i % 50, 0.3, 0.05, today, priceShocks, shiftedVolatility,
+                                daysElapsed, grids[i], () -> false).pricedCells();
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+}
\ No newline at end of file
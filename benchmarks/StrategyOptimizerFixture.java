@@ -0,0 +1,41 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+// A generated chain of one underlying at 100 with 12 monthly expiries, for bench.StrategyOptimizerBenchmark:
+// searching it for the 10 best candidates at 30% volatility and 5% drift, with breakevens within 25% of
+// spot and no loss budget.
+public final class StrategyOptimizerFixture implements Function<String, Runnable> {
+
+    private static final int EXPIRIES = 12;
+
+    private final OptionChain chain;
+    private final LocalDate today = LocalDate.now();
+    private long sink;
+
+    public StrategyOptimizerFixture(Integer strikesPerExpiry) {
+        try {
+            Path file = Files.createTempFile("chain", ".csv");
+            try {
+                OptionChainFixture.writeChain(file, 1, EXPIRIES, strikesPerExpiry, today);
+                chain = OptionChain.load(file);
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        if (!operation.equals("search")) {
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+        return () -> sink += StrategyOptimizer.search(chain, 0, 100, 0.3, 0.05, Double.POSITIVE_INFINITY, 0.25, 10, today)
+                .evaluated();
+    }
+}
\ No newline at end of file
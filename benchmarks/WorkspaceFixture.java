@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// A library of generated iron condors saved as a workspace, for bench.WorkspaceBenchmark: saving it,
+// opening it, which decodes no strategy, and opening it and decoding every strategy. The constructor
+// checks that every strategy survives the round trip; the file is deleted on close.
+public final class WorkspaceFixture implements Function<String, Runnable>, AutoCloseable {
+
+    private final Path file;
+    private final List<OptionStrategy> strategies = new ArrayList<>();
+    private long sink;
+
+    public WorkspaceFixture(Integer count) throws IOException {
+        String expiration = LocalDate.now().plusDays(30).toString();
+        for (int i = 0; i < count; i++) {
+            double strike = 100 + i % 100;
+            strategies.add(OptionStrategy.parse("Iron Condor " + i, expiration, String.format(Locale.ROOT,
+                    "+1 P %s @1.0; -1 P %s @2.5; -1 C %s @2.4; +1 C %s @0.9", strike - 20, strike - 10, strike + 10, strike + 20)));
+        }
+        file = Files.createTempFile("workspace", ".bin");
+        Workspace.save(file, Map.of("volatility", "30"), Map.of(), strategies, List.of());
+        Workspace workspace = Workspace.load(file);
+        for (int i = 0; i < count; i++) {
+            if (!workspace.strategy(i).equals(strategies.get(i))) {
+                throw new IllegalStateException("Strategy " + i + " did not survive the round trip");
+            }
+        }
+    }
+
+    @Override
+    public Runnable apply(String operation) {
+        switch (operation) {
+            case "save":
+                return () -> {
+                    try {
+                        Workspace.save(file, Map.of("volatility", "30"), Map.of(), strategies, List.of());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+            case "open":
+                return () -> sink += load().strategyCount();
+            case "decodeAll":
+                return () -> {
+                    Workspace workspace = load();
+                    for (int i = 0; i < workspace.strategyCount(); i++) {
+                        sink += workspace.strategy(i).legs().size();
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private Workspace load() {
+        try {
+            return Workspace.load(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.delete(file);
+    }
+}
\ No newline at end of file
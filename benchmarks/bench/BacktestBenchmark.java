@@ -0,0 +1,49 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The Backtest card's default 2,460-set sweep over 5 and 20 years of generated minute bars, timed one
+// pass at a time since a pass takes seconds.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BacktestBenchmark {
+
+    @Param({"5", "20"})
+    public int years;
+
+    private Function<String, Runnable> fixture;
+    private Runnable sweep;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.create("BacktestFixture", years);
+        sweep = fixture.apply("sweep");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ((AutoCloseable) fixture).close();
+    }
+
+    @Benchmark
+    public void sweep() {
+        sweep.run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A 2,000-quote chain of American calls and puts with yield and cash dividends, on trees of 200 steps
+// (as pre-expiry curves use) and 1,000 steps (the default).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BinomialTreeBenchmark {
+
+    @Param({"50"})
+    public int strikesPerExpiry;
+
+    @Param({"200", "1000"})
+    public int steps;
+
+    private Runnable chain;
+
+    @Setup
+    public void setUp() {
+        Function<String, Runnable> fixture = Fixtures.create("BinomialTreeFixture", strikesPerExpiry, steps);
+        chain = fixture.apply("chain");
+    }
+
+    @Benchmark
+    public void chain() {
+        chain.run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package bench;
+
+import java.util.function.Function;
+
+// Creates the default-package fixture classes in benchmarks/ by name. Only setup goes through
+// reflection; the measured operations are plain Runnable calls.
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<String, Runnable> create(String className, Object... arguments) {
+        try {
+            Class<?> fixture = Class.forName(className);
+            return (Function<String, Runnable>) fixture.getConstructors()[0].newInstance(arguments);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create fixture " + className, e);
+        }
+    }
+}
\ No newline at end of file
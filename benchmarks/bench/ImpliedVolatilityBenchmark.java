@@ -0,0 +1,40 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Implied volatilities of whole chains: 50 expiries of strikesPerExpiry calls and puts, 10,000 and
+// 100,000 quotes. Scores are per chain.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ImpliedVolatilityBenchmark {
+
+    @Param({"100", "1000"})
+    public int strikesPerExpiry;
+
+    private Runnable solve;
+
+    @Setup
+    public void setUp() {
+        solve = Fixtures.create("ImpliedVolatilityFixture", strikesPerExpiry).apply("solve");
+    }
+
+    @Benchmark
+    public void solve() {
+        solve.run();
+    }
+}
\ No newline at end of file
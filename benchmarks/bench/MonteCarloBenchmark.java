@@ -0,0 +1,43 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A whole Monte Carlo simulation on one thread and on the common pool (threads = 0); the result is the
+// same either way, so the ratio of the two scores is the parallel speedup.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class MonteCarloBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public long paths;
+
+    @Param({"1", "0"})
+    public int threads;
+
+    private Runnable run;
+
+    @Setup
+    public void setUp() {
+        run = Fixtures.create("MonteCarloFixture", paths, threads).apply("run");
+    }
+
+    @Benchmark
+    public void run() {
+        run.run();
+    }
+}
\ No newline at end of file
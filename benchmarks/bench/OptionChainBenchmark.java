@@ -0,0 +1,57 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Option chain files of 100,000 and 1,000,000 quotes:
+//   load     parsing the mapped file, merging the chunks and sorting the rows
+//   findAll  looking up every quote of the loaded chain by underlying, expiry, type and strike
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class OptionChainBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int quotes;
+
+    private Function<String, Runnable> fixture;
+    private Runnable load;
+    private Runnable findAll;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.create("OptionChainFixture", quotes);
+        load = fixture.apply("load");
+        findAll = fixture.apply("findAll");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ((AutoCloseable) fixture).close();
+    }
+
+    @Benchmark
+    public void load() {
+        load.run();
+    }
+
+    @Benchmark
+    public void findAll() {
+        findAll.run();
+    }
+}
\ No newline at end of file
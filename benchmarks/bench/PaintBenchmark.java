@@ -0,0 +1,70 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Headless painting of each payoff panel at several resolutions:
+//   paintChart            the full chart drawing into an existing image
+//   render                the background render after a parameter change or resize: paintChart into a fresh image
+//   paintComponentCached  paintComponent blitting the cached image, what every other repaint costs
+// With the GC profiler (on by default through Benchmarks), gc.alloc.rate.norm is the bytes allocated per repaint.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Djava.awt.headless=true"})
+public class PaintBenchmark {
+
+    @Param({"LONG_CALL", "LONG_PUT", "LONG_STRADDLE"})
+    public String panel;
+
+    @Param({"800x600", "1920x1080", "3840x2160"})
+    public String resolution;
+
+    private Function<String, Runnable> fixture;
+    private Runnable paintChart;
+    private Runnable render;
+    private Runnable paintComponentCached;
+
+    @Setup
+    public void setUp() {
+        String[] size = resolution.split("x");
+        fixture = Fixtures.create("PaintFixture", panel, Integer.valueOf(size[0]), Integer.valueOf(size[1]));
+        paintChart = fixture.apply("paintChart");
+        render = fixture.apply("render");
+        paintComponentCached = fixture.apply("paintComponentCached");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ((AutoCloseable) fixture).close();
+    }
+
+    @Benchmark
+    public void paintChart() {
+        paintChart.run();
+    }
+
+    @Benchmark
+    public void render() {
+        render.run();
+    }
+
+    @Benchmark
+    public void paintComponentCached() {
+        paintComponentCached.run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Expiry payoff of the three built-in strategies over price grids, through each evaluation path of
+// PayoffEngine. Scores are per whole grid; divide by gridSize for the cost per price.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class PayoffBenchmark {
+
+    @Param({"LONG_CALL", "LONG_PUT", "LONG_STRADDLE"})
+    public String strategy;
+
+    @Param({"1000", "100000", "1000000"})
+    public int gridSize;
+
+    private Runnable payoffAtLoop;
+    private Runnable evaluate;
+    private Runnable evaluateGrid;
+    private Runnable evaluateParallel;
+
+    @Setup
+    public void setUp() {
+        Function<String, Runnable> fixture = Fixtures.create("PayoffFixture", strategy, gridSize);
+        payoffAtLoop = fixture.apply("payoffAtLoop");
+        evaluate = fixture.apply("evaluate");
+        evaluateGrid = fixture.apply("evaluateGrid");
+        evaluateParallel = fixture.apply("evaluateParallel");
+    }
+
+    @Benchmark
+    public void payoffAtLoop() {
+        payoffAtLoop.run();
+    }
+
+    @Benchmark
+    public void evaluate() {
+        evaluate.run();
+    }
+
+    @Benchmark
+    public void evaluateGrid() {
+        evaluateGrid.run();
+    }
+
+    @Benchmark
+    public void evaluateParallel() {
+        evaluateParallel.run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Scenario grids of 200 iron condors, 75,000 cells each:
+//   full     every cell priced
+//   shifted  built from the full grid after the volatility axis moves up by 10 of its 50 shocks
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ScenarioGridBenchmark {
+
+    @Param({"200"})
+    public int strategies;
+
+    private Runnable full;
+    private Runnable shifted;
+
+    @Setup
+    public void setUp() {
+        Function<String, Runnable> fixture = Fixtures.create("ScenarioGridFixture", strategies);
+        full = fixture.apply("full");
+        shifted = fixture.apply("shifted");
+    }
+
+    @Benchmark
+    public void full() {
+        full.run();
+    }
+
+    @Benchmark
+    public void shifted() {
+        shifted.run();
+    }
+}
\ No newline at end of file
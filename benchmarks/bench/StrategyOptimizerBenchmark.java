@@ -0,0 +1,42 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Searches of 12-expiry chains with 100 and 1,000 strikes per expiry and type; spreads dominate, so the
+// work grows roughly with the square of the strikes, less what the debit bound prunes.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class StrategyOptimizerBenchmark {
+
+    @Param({"100", "1000"})
+    public int strikesPerExpiry;
+
+    private Runnable search;
+
+    @Setup
+    public void setUp() {
+        Function<String, Runnable> fixture = Fixtures.create("StrategyOptimizerFixture", strikesPerExpiry);
+        search = fixture.apply("search");
+    }
+
+    @Benchmark
+    public void search() {
+        search.run();
+    }
+}
\ No newline at end of file
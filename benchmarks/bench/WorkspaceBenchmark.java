@@ -0,0 +1,65 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Workspaces of 10,000 and 100,000 saved strategies:
+//   save       writing the file
+//   open       mapping it and decoding the settings and views
+//   decodeAll  opening it and decoding every strategy
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class WorkspaceBenchmark {
+
+    @Param({"10000", "100000"})
+    public int strategies;
+
+    private Function<String, Runnable> fixture;
+    private Runnable save;
+    private Runnable open;
+    private Runnable decodeAll;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.create("WorkspaceFixture", strategies);
+        save = fixture.apply("save");
+        open = fixture.apply("open");
+        decodeAll = fixture.apply("decodeAll");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ((AutoCloseable) fixture).close();
+    }
+
+    @Benchmark
+    public void save() {
+        save.run();
+    }
+
+    @Benchmark
+    public void open() {
+        open.run();
+    }
+
+    @Benchmark
+    public void decodeAll() {
+        decodeAll.run();
+    }
+}
\ No newline at end of file